@@ -0,0 +1,135 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of reading Ollama responses: deserializing into a {@code Map}, building a
+ * {@link JsonNode} tree, and the streaming {@link OllamaResponseParser} the client uses.
+ *
+ * <p>Run with the GC profiler (the {@code benchmark} profile adds {@code -prof gc}) and compare
+ * {@code gc.alloc.rate.norm}, the bytes allocated per call:</p>
+ * <pre>
+ * ./mvnw -Pbenchmark test-compile exec:exec -Djmh.include=OllamaResponseParsingBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OllamaResponseParsingBenchmark {
+
+    /** Tokens in the prompt context Ollama returns with a non-streamed generate response */
+    @Param({"512", "4096"})
+    public int contextTokens;
+
+    /** Chunks of a streamed chat response */
+    @Param({"300"})
+    public int streamChunks;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private OllamaResponseParser parser;
+    private byte[] generateResponse;
+    private byte[] chatStream;
+
+    @Setup
+    public void setUp() throws IOException {
+        parser = new OllamaResponseParser(objectMapper.getFactory(), false);
+
+        int[] context = new int[contextTokens];
+        for (int i = 0; i < context.length; i++) {
+            context[i] = 1000 + (i * 7919) % 120000;
+        }
+        Map<String, Object> generate = new LinkedHashMap<>();
+        generate.put("model", "llama3.1:8b");
+        generate.put("created_at", "2024-01-01T00:00:00.000000Z");
+        generate.put("response", "Step result. ".repeat(200));
+        generate.put("done", true);
+        generate.put("done_reason", "stop");
+        generate.put("context", context);
+        generate.put("total_duration", 5_000_000_000L);
+        generate.put("load_duration", 20_000_000L);
+        generate.put("prompt_eval_count", contextTokens);
+        generate.put("prompt_eval_duration", 400_000_000L);
+        generate.put("eval_count", 400);
+        generate.put("eval_duration", 4_500_000_000L);
+        generateResponse = objectMapper.writeValueAsBytes(generate);
+
+        StringBuilder stream = new StringBuilder();
+        for (int i = 0; i < streamChunks; i++) {
+            Map<String, Object> chunk = new LinkedHashMap<>();
+            chunk.put("model", "llama3.1:8b");
+            chunk.put("created_at", "2024-01-01T00:00:00.000000Z");
+            chunk.put("message", Map.of("role", "assistant", "content", "token" + i + " "));
+            chunk.put("done", i == streamChunks - 1);
+            stream.append(objectMapper.writeValueAsString(chunk)).append('\n');
+        }
+        chatStream = stream.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public String generateAsMap() throws IOException {
+        Map<String, Object> body = objectMapper.readValue(generateResponse, Map.class);
+        return (String) body.get("response");
+    }
+
+    @Benchmark
+    public String generateAsTree() throws IOException {
+        JsonNode body = objectMapper.readTree(generateResponse);
+        return body.path("response").asText();
+    }
+
+    @Benchmark
+    public String generateStreaming() throws IOException {
+        return parser.parse(generateResponse).text();
+    }
+
+    @Benchmark
+    public void chatStreamAsTreePerLine(Blackhole blackhole) throws IOException {
+        BufferedReader reader = new BufferedReader(
+            new InputStreamReader(new ByteArrayInputStream(chatStream), StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            JsonNode chunk = objectMapper.readTree(line);
+            blackhole.consume(chunk.path("message").path("content").asText(""));
+        }
+    }
+
+    @Benchmark
+    public void chatStreamStreaming(Blackhole blackhole) throws IOException {
+        try (JsonParser stream = parser.openStream(new ByteArrayInputStream(chatStream))) {
+            OllamaResponse chunk;
+            while ((chunk = parser.next(stream)) != null) {
+                blackhole.consume(chunk.text());
+            }
+        }
+    }
+}
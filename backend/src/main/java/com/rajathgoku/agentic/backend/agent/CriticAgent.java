@@ -1,7 +1,23 @@
 package com.rajathgoku.agentic.backend.agent;
+import com.fasterxml.jackson.core.io.JsonEOFException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rajathgoku.agentic.backend.llm.LlmBatchResult;
 import com.rajathgoku.agentic.backend.llm.LlmClient;
+import com.rajathgoku.agentic.backend.llm.LlmRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 /**
  * The CriticAgent is responsible for evaluating and critiquing the quality of task executions
  * within the agentic AI system. It provides comprehensive analysis of step results, overall
@@ -20,6 +36,15 @@ import org.springframework.stereotype.Component;
  *   <li>Determine success/failure status using AI-powered analysis</li>
  * </ul>
  * 
+ * <h2>Evaluation Modes:</h2>
+ * <p>A run is evaluated either with a free-text evaluation followed by a separate
+ * SUCCESS/FAILURE decision ({@link #evaluateRunWithArtifacts(String, String[])}), or in a
+ * single call whose JSON answer carries the verdict, a score, per-step assessments and
+ * suggestions ({@link #evaluateRunWithVerdict(String, String[])}). The single call sends the
+ * step results once instead of twice. Runs too large for one prompt are reviewed in parallel
+ * chunks whose reviews are reduced into the verdict
+ * ({@link #evaluateRunMapReduce(String, String[], String[], int)}).</p>
+ * 
  * <h2>Integration:</h2>
  * <p>The CriticAgent integrates with the {@link com.rajathgoku.agentic.backend.engine.RunOrchestrator}
  * as the final phase of task execution, providing quality assessment and artifact generation.</p>
@@ -46,9 +71,59 @@ import org.springframework.stereotype.Component;
 @SuppressWarnings({"unused", "java:S1220"}) // Suppress IDE warnings about package mismatch
 public class CriticAgent {
     
+    private static final Logger logger = LoggerFactory.getLogger(CriticAgent.class);
+    
+    /** Operation names attached to the critic's LLM requests */
+    static final String REVIEW_OPERATION = "critic.review";
+    static final String EVALUATION_OPERATION = "critic.evaluate";
+    static final String DECISION_OPERATION = "critic.decision";
+    static final String VERDICT_OPERATION = "critic.verdict";
+    static final String GATE_OPERATION = "critic.gate";
+    
+    /** Characters of a step result shown to the step gate, which only needs enough to judge it */
+    private static final int GATE_RESULT_CHARS = 4000;
+    
+    /** Longest reason the step gate may give, so its answer fits the gate route's num-predict */
+    private static final int GATE_REASON_CHARS = 200;
+    
+    /** JSON schema of the step gate's answer */
+    private static final Map<String, Object> GATE_SCHEMA = Map.of(
+        "type", "object",
+        "properties", Map.of(
+            "score", Map.of("type", "integer", "minimum", 0, "maximum", 100),
+            "reason", Map.of("type", "string", "maxLength", GATE_REASON_CHARS)),
+        "required", List.of("score", "reason"));
+    
+    /** The score at the start of a gate answer cut off by the token limit */
+    private static final Pattern TRUNCATED_GATE_SCORE = Pattern.compile("^\\s*\\{\\s*\"score\"\\s*:\\s*(\\d{1,3})\\b");
+    
+    /** Rough characters per token, for sizing map-reduce chunks */
+    private static final int CHARS_PER_TOKEN = 4;
+    
+    /** JSON schema of the single-call verdict, passed to the backend as the output format */
+    private static final Map<String, Object> VERDICT_SCHEMA = Map.of(
+        "type", "object",
+        "properties", Map.of(
+            "verdict", Map.of("type", "string", "enum", List.of("SUCCESS", "FAILURE")),
+            "score", Map.of("type", "integer", "minimum", 0, "maximum", 100),
+            "assessment", Map.of("type", "string"),
+            "steps", Map.of(
+                "type", "array",
+                "items", Map.of(
+                    "type", "object",
+                    "properties", Map.of(
+                        "step", Map.of("type", "integer"),
+                        "verdict", Map.of("type", "string", "enum", List.of("SUCCESS", "PARTIAL", "FAILURE")),
+                        "assessment", Map.of("type", "string")),
+                    "required", List.of("step", "verdict", "assessment"))),
+            "suggestions", Map.of("type", "array", "items", Map.of("type", "string"))),
+        "required", List.of("verdict", "score", "assessment", "steps", "suggestions"));
+    
     /** The LLM client used for AI-powered evaluation and analysis */
     private final LlmClient llmClient;
     
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
     /**
      * Constructs a new CriticAgent with the specified LLM client.
      * 
@@ -78,6 +153,136 @@ public class CriticAgent {
      * @see #evaluateRun(String, String[])
      */
     public String reviewStep(String stepDescription, String stepResult) {
+        String prompt = buildStepReviewPrompt(stepDescription, stepResult);
+        
+        try {
+            return llmClient.generate(LlmRequest.ofPrompt(prompt).forOperation(REVIEW_OPERATION));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to generate step review: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Reviews a single step execution result without blocking the calling thread.
+     * 
+     * @param stepDescription a clear description of what the step was supposed to accomplish
+     * @param stepResult the actual result or output produced by the step execution
+     * @return future completed with the critique of the step execution
+     * @throws IllegalArgumentException if stepDescription or stepResult is null or empty
+     * 
+     * @see #reviewStep(String, String)
+     */
+    public CompletableFuture<String> reviewStepAsync(String stepDescription, String stepResult) {
+        return llmClient.generateAsync(
+            LlmRequest.ofPrompt(buildStepReviewPrompt(stepDescription, stepResult)).forOperation(REVIEW_OPERATION));
+    }
+    
+    /**
+     * Reviews several step execution results in one batch instead of one call after another.
+     * 
+     * <p>The reviews are independent of each other, so the client sends them together and
+     * the batch takes roughly as long as its slowest review. A review that fails is reported
+     * in its own result and does not affect the others.</p>
+     * 
+     * @param stepDescriptions descriptions of the steps, in step order
+     * @param stepResults the results of the same steps, in the same order
+     * @return one result per step, in step order, carrying its critique or its failure
+     * @throws IllegalArgumentException if the arrays differ in length or any description or result is null or empty
+     * 
+     * @see #reviewStep(String, String)
+     */
+    public List<LlmBatchResult> reviewSteps(String[] stepDescriptions, String[] stepResults) {
+        if (stepDescriptions == null || stepResults == null || stepDescriptions.length != stepResults.length) {
+            throw new IllegalArgumentException("Step descriptions and results must have the same length");
+        }
+        
+        List<LlmRequest> reviews = new ArrayList<>(stepDescriptions.length);
+        for (int i = 0; i < stepDescriptions.length; i++) {
+            reviews.add(LlmRequest.ofPrompt(buildStepReviewPrompt(stepDescriptions[i], stepResults[i]))
+                .forOperation(REVIEW_OPERATION));
+        }
+        return llmClient.generateBatch(reviews);
+    }
+    
+    /**
+     * Checks a single step result cheaply, to stop a run that has gone wrong before its
+     * remaining steps are executed.
+     * 
+     * <p>Unlike {@link #reviewStep(String, String)} this asks only for a score and a one-line
+     * reason as JSON, on at most the first {@value #GATE_RESULT_CHARS} characters of the
+     * result, so the check can run on a small model (route {@code critic.gate}). A step
+     * without output scores 0 without an LLM call. An answer cut off by the route's token
+     * limit still counts when its score came through, and is marked as truncated.</p>
+     * 
+     * @param stepDescription a clear description of what the step was supposed to accomplish
+     * @param stepResult the actual result or output produced by the step execution, may be null
+     * @return the gate's score and reason
+     * @throws IllegalArgumentException if stepDescription is null or empty
+     * @throws TruncatedGateAnswerException if the answer was cut off before its score
+     * @throws RuntimeException if LLM client fails to generate response or the answer is not valid JSON
+     * 
+     * @see #reviewStep(String, String)
+     */
+    public StepGate gateStep(String stepDescription, String stepResult) {
+        if (stepDescription == null || stepDescription.trim().isEmpty()) {
+            throw new IllegalArgumentException("Step description cannot be null or empty");
+        }
+        if (stepResult == null || stepResult.trim().isEmpty()) {
+            return new StepGate(0, "No output", false);
+        }
+        
+        String shownResult = stepResult.length() > GATE_RESULT_CHARS
+            ? stepResult.substring(0, GATE_RESULT_CHARS) + "\n[... truncated]"
+            : stepResult;
+        String prompt = String.format(
+            "You are a critic agent. Check the following step execution:\n\n" +
+            "Step: %s\n\n" +
+            "Result: %s\n\n" +
+            "Respond with a JSON object with a score from 0 (wrong, unusable or off-task) to 100 " +
+            "(complete and correct) and a one-sentence reason of at most %d characters.",
+            stepDescription,
+            shownResult,
+            GATE_REASON_CHARS
+        );
+        
+        try {
+            String answer = llmClient.generate(LlmRequest.ofPrompt(prompt).withFormat(GATE_SCHEMA).forOperation(GATE_OPERATION));
+            JsonNode root;
+            try {
+                root = objectMapper.readTree(answer);
+            } catch (JsonEOFException e) {
+                return truncatedGate(answer);
+            }
+            if (root == null || !root.path("score").canConvertToInt()) {
+                throw new IllegalStateException("No score in gate answer");
+            }
+            return new StepGate(clampScore(root.path("score").asInt()), root.path("reason").asText("").trim(), false);
+        } catch (TruncatedGateAnswerException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to check step: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * The gate's judgement from an answer cut off mid-JSON, the score being its first field
+     */
+    private static StepGate truncatedGate(String answer) {
+        Matcher score = TRUNCATED_GATE_SCORE.matcher(answer);
+        if (!score.find()) {
+            throw new TruncatedGateAnswerException("Gate answer was cut off before its score: " + answer);
+        }
+        return new StepGate(clampScore(Integer.parseInt(score.group(1))), "[answer truncated]", true);
+    }
+    
+    private static int clampScore(int score) {
+        return Math.max(0, Math.min(100, score));
+    }
+    
+    /**
+     * Builds the step review prompt after validating its inputs.
+     */
+    private String buildStepReviewPrompt(String stepDescription, String stepResult) {
         // Validate input parameters
         if (stepDescription == null || stepDescription.trim().isEmpty()) {
             throw new IllegalArgumentException("Step description cannot be null or empty");
@@ -86,7 +291,7 @@ public class CriticAgent {
             throw new IllegalArgumentException("Step result cannot be null or empty");
         }
 
-        String prompt = String.format(
+        return String.format(
             "You are a critic agent. Review the following step execution:\n\n" +
             "Step: %s\n\n" +
             "Result: %s\n\n" +
@@ -94,12 +299,6 @@ public class CriticAgent {
             stepDescription,
             stepResult
         );
-        
-        try {
-            return llmClient.generateResponse(prompt);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to generate step review: " + e.getMessage(), e);
-        }
     }
     
     /**
@@ -119,6 +318,78 @@ public class CriticAgent {
      * @see #evaluateRunWithArtifacts(String, String[])
      */
     public String evaluateRun(String taskDescription, String[] stepResults) {
+        String prompt = buildRunEvaluationPrompt(taskDescription, stepResults);
+        
+        try {
+            return llmClient.generate(LlmRequest.ofPrompt(prompt).forOperation(EVALUATION_OPERATION));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to generate run evaluation: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Evaluates the overall execution of a run without blocking the calling thread.
+     * 
+     * @param taskDescription the original task description that was executed
+     * @param stepResults array of results from each execution step, may contain null elements
+     * @return future completed with the evaluation of the overall run
+     * @throws IllegalArgumentException if taskDescription is null or empty, or if stepResults is null
+     * 
+     * @see #evaluateRun(String, String[])
+     */
+    public CompletableFuture<String> evaluateRunAsync(String taskDescription, String[] stepResults) {
+        return llmClient.generateAsync(
+            LlmRequest.ofPrompt(buildRunEvaluationPrompt(taskDescription, stepResults)).forOperation(EVALUATION_OPERATION));
+    }
+    
+    /**
+     * Evaluates the overall execution of a run, streaming the evaluation to the callback
+     * as the LLM generates it.
+     * 
+     * @param taskDescription the original task description that was executed
+     * @param stepResults array of results from each execution step, may contain null elements
+     * @param onChunk receives each chunk of the evaluation as soon as it arrives
+     * @return the complete evaluation text
+     * @throws IllegalArgumentException if taskDescription is null or empty, or if stepResults is null
+     * @throws RuntimeException if LLM client fails to generate response
+     * 
+     * @see #evaluateRun(String, String[])
+     */
+    public String evaluateRunStreaming(String taskDescription, String[] stepResults, Consumer<String> onChunk) {
+        String prompt = buildRunEvaluationPrompt(taskDescription, stepResults);
+        StringBuilder evaluation = new StringBuilder();
+        
+        try {
+            llmClient.stream(LlmRequest.ofPrompt(prompt).forOperation(EVALUATION_OPERATION), chunk -> {
+                evaluation.append(chunk);
+                onChunk.accept(chunk);
+            });
+            return evaluation.toString();
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to generate run evaluation: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Builds the run evaluation prompt after validating its inputs.
+     * 
+     * @param taskDescription the original task description that was executed
+     * @param stepResults array of results from each execution step, may contain null elements
+     * @return the prompt sent to the LLM
+     * @throws IllegalArgumentException if taskDescription is null or empty, or if stepResults is null
+     */
+    private String buildRunEvaluationPrompt(String taskDescription, String[] stepResults) {
+        return "You are a critic agent. Evaluate the overall execution of this task:\n\n" +
+            describeRun(taskDescription, stepResults) +
+            "Please provide an overall assessment of how well the task was completed, what worked well, and what could be improved.";
+    }
+    
+    /**
+     * Describes the task and its numbered step results for the run evaluation prompts.
+     * 
+     * @throws IllegalArgumentException if taskDescription is null or empty, or if stepResults is null
+     */
+    private String describeRun(String taskDescription, String[] stepResults) {
         // Input validation
         if (taskDescription == null || taskDescription.trim().isEmpty()) {
             throw new IllegalArgumentException("Task description cannot be null or empty");
@@ -134,20 +405,7 @@ public class CriticAgent {
             }
         }
         
-        String prompt = String.format(
-            "You are a critic agent. Evaluate the overall execution of this task:\n\n" +
-            "Original Task: %s\n\n" +
-            "Step Results:\n%s\n\n" +
-            "Please provide an overall assessment of how well the task was completed, what worked well, and what could be improved.",
-            taskDescription,
-            resultsBuilder.toString()
-        );
-        
-        try {
-            return llmClient.generateResponse(prompt);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to generate run evaluation: " + e.getMessage(), e);
-        }
+        return String.format("Original Task: %s\n\nStep Results:\n%s\n\n", taskDescription, resultsBuilder.toString());
     }
     
     /**
@@ -174,7 +432,40 @@ public class CriticAgent {
         }
         
         // Use LLM to make intelligent assessment instead of simple keyword matching
-        String prompt = String.format(
+        String prompt = buildSuccessDecisionPrompt(taskDescription, stepResults, overallEvaluation);
+        
+        try {
+            return isSuccessDecision(llmClient.generate(LlmRequest.ofPrompt(prompt).forOperation(DECISION_OPERATION)));
+        } catch (Exception e) {
+            // Fallback to improved heuristic if LLM fails
+            return evaluateSuccessWithImprovedHeuristic(stepResults, overallEvaluation);
+        }
+    }
+    
+    /**
+     * Determines if the run should be marked as successful without blocking the calling thread.
+     * 
+     * <p>Falls back to the keyword heuristic when the LLM call fails, like
+     * {@link #isRunSuccessful(String, String[], String)}.</p>
+     * 
+     * @param taskDescription the original task description that was executed
+     * @param stepResults array of results from each execution step, may contain null elements
+     * @param overallEvaluation the overall evaluation of the task run
+     * @return future completed with true if the run is considered successful
+     */
+    public CompletableFuture<Boolean> isRunSuccessfulAsync(String taskDescription, String[] stepResults, String overallEvaluation) {
+        if (stepResults == null || stepResults.length == 0) {
+            return CompletableFuture.completedFuture(false);
+        }
+        
+        String prompt = buildSuccessDecisionPrompt(taskDescription, stepResults, overallEvaluation);
+        return llmClient.generateAsync(LlmRequest.ofPrompt(prompt).forOperation(DECISION_OPERATION))
+            .thenApply(this::isSuccessDecision)
+            .exceptionally(e -> evaluateSuccessWithImprovedHeuristic(stepResults, overallEvaluation));
+    }
+    
+    private String buildSuccessDecisionPrompt(String taskDescription, String[] stepResults, String overallEvaluation) {
+        return String.format(
             "You are evaluating whether a task execution should be considered successful. " +
             "Please analyze the task and results, then respond with ONLY 'SUCCESS' or 'FAILURE' (no other text).\n\n" +
             "Original Task: %s\n\n" +
@@ -190,19 +481,14 @@ public class CriticAgent {
             String.join("\n", stepResults),
             overallEvaluation
         );
+    }
+    
+    private boolean isSuccessDecision(String llmResponse) {
+        String decision = llmResponse.trim().toUpperCase();
         
-        try {
-            String llmResponse = llmClient.generateResponse(prompt);
-            String decision = llmResponse.trim().toUpperCase();
-            
-            // Log the decision for debugging
-            System.out.println("LLM Success Decision: " + decision);
-            
-            return decision.contains("SUCCESS");
-        } catch (Exception e) {
-            // Fallback to improved heuristic if LLM fails
-            return evaluateSuccessWithImprovedHeuristic(stepResults, overallEvaluation);
-        }
+        logger.debug("LLM success decision: {}", decision);
+        
+        return decision.contains("SUCCESS");
     }
     
     /**
@@ -272,15 +558,322 @@ public class CriticAgent {
      */
     public CriticResult evaluateRunWithArtifacts(String taskDescription, String[] stepResults) {
         String evaluation = evaluateRun(taskDescription, stepResults);
-        boolean isSuccessful = isRunSuccessful(taskDescription, stepResults, evaluation);
+        return buildCriticResult(taskDescription, stepResults, evaluation);
+    }
+    
+    /**
+     * Evaluates a run with comprehensive artifact creation without blocking the calling thread.
+     * 
+     * @param taskDescription the original task description that was executed
+     * @param stepResults array of results from each execution step, may contain null elements
+     * @return future completed with the evaluation and generated artifacts
+     * @throws IllegalArgumentException if taskDescription or stepResults is null
+     * 
+     * @see #evaluateRunWithArtifacts(String, String[])
+     */
+    public CompletableFuture<CriticResult> evaluateRunWithArtifactsAsync(String taskDescription, String[] stepResults) {
+        return evaluateRunAsync(taskDescription, stepResults).thenCompose(evaluation ->
+            isRunSuccessfulAsync(taskDescription, stepResults, evaluation).thenApply(isSuccessful ->
+                assembleCriticResult(taskDescription, stepResults, evaluation, isSuccessful, null)));
+    }
+    
+    /**
+     * Evaluates a run with comprehensive artifact creation, streaming the overall
+     * evaluation to the callback while it is generated.
+     * 
+     * @param taskDescription the original task description that was executed
+     * @param stepResults array of results from each execution step, may contain null elements
+     * @param onChunk receives each chunk of the evaluation as soon as it arrives
+     * @return a CriticResult object containing the evaluation and generated artifacts
+     * @throws IllegalArgumentException if taskDescription or stepResults is null
+     * 
+     * @see #evaluateRunWithArtifacts(String, String[])
+     */
+    public CriticResult evaluateRunWithArtifactsStreaming(String taskDescription, String[] stepResults, Consumer<String> onChunk) {
+        String evaluation = evaluateRunStreaming(taskDescription, stepResults, onChunk);
+        return buildCriticResult(taskDescription, stepResults, evaluation);
+    }
+    
+    /**
+     * Evaluates a run and decides its success in a single LLM call.
+     * 
+     * <p>The critic answers with one JSON object holding the verdict, a quality score, an
+     * assessment per step and improvement suggestions, so the step results are sent once
+     * rather than again for a separate success decision. An answer that is not valid JSON is
+     * kept as the evaluation text and the success decision falls back to the keyword
+     * heuristic, without a further call.</p>
+     * 
+     * @param taskDescription the original task description that was executed
+     * @param stepResults array of results from each execution step, may contain null elements
+     * @return a CriticResult object carrying the verdict and the generated artifacts
+     * @throws IllegalArgumentException if taskDescription is null or empty, or if stepResults is null
+     * @throws RuntimeException if LLM client fails to generate response
+     * 
+     * @see CriticVerdict
+     */
+    public CriticResult evaluateRunWithVerdict(String taskDescription, String[] stepResults) {
+        LlmRequest request = verdictRequest(taskDescription, stepResults);
+        try {
+            return assembleVerdictResult(taskDescription, stepResults, llmClient.generate(request));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to generate run verdict: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Evaluates a run and decides its success in a single LLM call without blocking the calling thread.
+     * 
+     * @param taskDescription the original task description that was executed
+     * @param stepResults array of results from each execution step, may contain null elements
+     * @return future completed with the verdict and the generated artifacts
+     * @throws IllegalArgumentException if taskDescription is null or empty, or if stepResults is null
+     * 
+     * @see #evaluateRunWithVerdict(String, String[])
+     */
+    public CompletableFuture<CriticResult> evaluateRunWithVerdictAsync(String taskDescription, String[] stepResults) {
+        return llmClient.generateAsync(verdictRequest(taskDescription, stepResults))
+            .thenApply(answer -> assembleVerdictResult(taskDescription, stepResults, answer));
+    }
+    
+    /**
+     * Evaluates a run and decides its success in a single LLM call, streaming the JSON answer
+     * to the callback while it is generated.
+     * 
+     * @param taskDescription the original task description that was executed
+     * @param stepResults array of results from each execution step, may contain null elements
+     * @param onChunk receives each chunk of the answer as soon as it arrives
+     * @return a CriticResult object carrying the verdict and the generated artifacts
+     * @throws IllegalArgumentException if taskDescription is null or empty, or if stepResults is null
+     * @throws RuntimeException if LLM client fails to generate response
+     * 
+     * @see #evaluateRunWithVerdict(String, String[])
+     */
+    public CriticResult evaluateRunWithVerdictStreaming(String taskDescription, String[] stepResults, Consumer<String> onChunk) {
+        LlmRequest request = verdictRequest(taskDescription, stepResults);
+        StringBuilder answer = new StringBuilder();
+        try {
+            llmClient.stream(request, chunk -> {
+                answer.append(chunk);
+                onChunk.accept(chunk);
+            });
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to generate run verdict: " + e.getMessage(), e);
+        }
+        return assembleVerdictResult(taskDescription, stepResults, answer.toString());
+    }
+    
+    private LlmRequest verdictRequest(String taskDescription, String[] stepResults) {
+        return verdictRequest("You are a critic agent. Evaluate the overall execution of this task and decide whether it succeeded:\n\n" +
+            describeRun(taskDescription, stepResults));
+    }
+    
+    /**
+     * @param context the instruction and what to judge, followed by the answer format
+     */
+    private LlmRequest verdictRequest(String context) {
+        String prompt = context +
+            "Respond with a JSON object with these fields:\n" +
+            "- verdict: SUCCESS or FAILURE for the run as a whole\n" +
+            "- score: overall quality from 0 to 100\n" +
+            "- assessment: how well the task was completed, what worked well and what could be improved\n" +
+            "- steps: for each step, its number (step), SUCCESS, PARTIAL or FAILURE (verdict) and a short assessment\n" +
+            "- suggestions: concrete improvements\n\n" +
+            "Consider that:\n" +
+            "- Appropriately handling invalid/nonsensical inputs is SUCCESS\n" +
+            "- Clear explanations of why something cannot be done is SUCCESS\n" +
+            "- Partial completion with good reasoning is SUCCESS\n" +
+            "- Only mark as FAILURE if there were genuine errors or complete inability to help";
+        return LlmRequest.ofPrompt(prompt).withFormat(VERDICT_SCHEMA).forOperation(VERDICT_OPERATION);
+    }
+    
+    private CriticResult assembleVerdictResult(String taskDescription, String[] stepResults, String answer) {
+        CriticVerdict verdict = parseVerdict(answer, stepResults);
+        return assembleCriticResult(taskDescription, stepResults, verdict.assessment(), verdict.successful(), verdict);
+    }
+    
+    /**
+     * Reads the critic's JSON answer; an answer that is not a JSON object is kept as the
+     * assessment and judged by the keyword heuristic.
+     */
+    private CriticVerdict parseVerdict(String answer, String[] stepResults) {
+        JsonNode root = null;
+        try {
+            root = objectMapper.readTree(answer);
+        } catch (Exception e) {
+            // Judged by the heuristic below
+        }
+        if (root == null || !root.isObject() || !root.path("verdict").isTextual()) {
+            logger.warn("Critic verdict was not valid JSON, using heuristic decision");
+            return new CriticVerdict(evaluateSuccessWithImprovedHeuristic(stepResults, answer),
+                                     (int) Math.round(calculateQualityScore(stepResults)), answer, List.of(), List.of());
+        }
+        
+        List<StepAssessment> steps = new ArrayList<>();
+        for (JsonNode step : root.path("steps")) {
+            steps.add(new StepAssessment(step.path("step").asInt(steps.size() + 1),
+                                         step.path("verdict").asText("PARTIAL").trim().toUpperCase(Locale.ROOT),
+                                         step.path("assessment").asText("").trim()));
+        }
+        List<String> suggestions = new ArrayList<>();
+        for (JsonNode suggestion : root.path("suggestions")) {
+            if (!suggestion.asText("").isBlank()) {
+                suggestions.add(suggestion.asText().trim());
+            }
+        }
+        boolean successful = root.path("verdict").asText().trim().equalsIgnoreCase("SUCCESS");
+        logger.debug("Critic verdict: {} (score {})", successful ? "SUCCESS" : "FAILURE", root.path("score").asInt(0));
+        return new CriticVerdict(successful, Math.max(0, Math.min(100, root.path("score").asInt(0))),
+                                 root.path("assessment").asText("").trim(), List.copyOf(steps), List.copyOf(suggestions));
+    }
+    
+    /**
+     * Evaluates a large run by map-reduce: chunks of consecutive steps are reviewed in
+     * parallel, each chunk within {@code chunkTokenBudget} estimated tokens, and the partial
+     * reviews are then reduced into a single verdict.
+     * 
+     * <p>Unlike {@link #evaluateRunWithVerdict(String, String[])}, no prompt holds every step
+     * result, so long plans stay within the context window and the critique takes about as
+     * long as its slowest chunk plus the reduction. The chunk reviews use the
+     * {@link #reviewStep(String, String)} prompt and are sent as one batch. A run that forms
+     * a single chunk is evaluated directly with one call.</p>
+     * 
+     * @param taskDescription the original task description that was executed
+     * @param stepDescriptions descriptions of the steps, aligned with {@code stepResults}
+     * @param stepResults array of results from each execution step, may contain null elements
+     * @param chunkTokenBudget estimated tokens of step descriptions and results reviewed per chunk
+     * @return a CriticResult object carrying the verdict and the generated artifacts
+     * @throws IllegalArgumentException if taskDescription is null or empty, or if the arrays are null or differ in length
+     * @throws RuntimeException if LLM client fails to generate the verdict
+     * 
+     * @see #evaluateRunWithVerdict(String, String[])
+     */
+    public CriticResult evaluateRunMapReduce(String taskDescription, String[] stepDescriptions, String[] stepResults,
+                                             int chunkTokenBudget) {
+        return evaluateRunMapReduceStreaming(taskDescription, stepDescriptions, stepResults, chunkTokenBudget, chunk -> {});
+    }
+    
+    /**
+     * Evaluates a large run by map-reduce, streaming the reduced JSON verdict to the callback
+     * while it is generated.
+     * 
+     * @param taskDescription the original task description that was executed
+     * @param stepDescriptions descriptions of the steps, aligned with {@code stepResults}
+     * @param stepResults array of results from each execution step, may contain null elements
+     * @param chunkTokenBudget estimated tokens of step descriptions and results reviewed per chunk
+     * @param onChunk receives each chunk of the verdict as soon as it arrives
+     * @return a CriticResult object carrying the verdict and the generated artifacts
+     * @throws IllegalArgumentException if taskDescription is null or empty, or if the arrays are null or differ in length
+     * @throws RuntimeException if LLM client fails to generate the verdict
+     * 
+     * @see #evaluateRunMapReduce(String, String[], String[], int)
+     */
+    public CriticResult evaluateRunMapReduceStreaming(String taskDescription, String[] stepDescriptions, String[] stepResults,
+                                                      int chunkTokenBudget, Consumer<String> onChunk) {
+        if (stepDescriptions == null || stepResults == null || stepDescriptions.length != stepResults.length) {
+            throw new IllegalArgumentException("Step descriptions and results must have the same length");
+        }
+        List<int[]> chunks = chunkSteps(stepDescriptions, stepResults, chunkTokenBudget);
+        if (chunks.size() <= 1) {
+            return evaluateRunWithVerdictStreaming(taskDescription, stepResults, onChunk);
+        }
         
+        // Map: review the chunks in parallel
+        int maxChunkChars = chunkTokenBudget * CHARS_PER_TOKEN;
+        String[] chunkDescriptions = new String[chunks.size()];
+        String[] chunkResults = new String[chunks.size()];
+        for (int c = 0; c < chunks.size(); c++) {
+            StringBuilder descriptions = new StringBuilder();
+            StringBuilder results = new StringBuilder();
+            for (int i = chunks.get(c)[0]; i < chunks.get(c)[1]; i++) {
+                descriptions.append(String.format("Step %d: %s\n", i + 1, stepDescriptions[i]));
+                results.append(String.format("Step %d: %s\n", i + 1, stepResults[i] != null ? stepResults[i] : "No result"));
+            }
+            chunkDescriptions[c] = descriptions.toString();
+            // A single step larger than the budget is reviewed from its beginning
+            chunkResults[c] = results.length() > maxChunkChars
+                ? results.substring(0, maxChunkChars) + "\n[... truncated]"
+                : results.toString();
+        }
+        logger.debug("Critic reviewing {} steps in {} parallel chunks", stepResults.length, chunks.size());
+        List<LlmBatchResult> reviews = reviewSteps(chunkDescriptions, chunkResults);
+        
+        // Reduce: decide the verdict from the partial reviews
+        StringBuilder partialReviews = new StringBuilder();
+        for (int c = 0; c < chunks.size(); c++) {
+            int first = chunks.get(c)[0] + 1;
+            int last = chunks.get(c)[1];
+            LlmBatchResult review = reviews.get(c);
+            partialReviews.append(first == last ? "Step " + first : "Steps " + first + "-" + last).append(":\n")
+                .append(review.isSuccess() ? review.response().trim() : "Review unavailable: " + review.error().getMessage())
+                .append("\n\n");
+        }
+        String context = String.format(
+            "You are a critic agent. The execution of this task was reviewed in parts. " +
+            "Combine the partial reviews into a verdict on the whole run:\n\n" +
+            "Original Task: %s\n\n" +
+            "Partial Reviews:\n%s",
+            taskDescription,
+            partialReviews
+        );
+        StringBuilder answer = new StringBuilder();
+        try {
+            llmClient.stream(verdictRequest(context), chunk -> {
+                answer.append(chunk);
+                onChunk.accept(chunk);
+            });
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to generate run verdict: " + e.getMessage(), e);
+        }
+        return assembleVerdictResult(taskDescription, stepResults, answer.toString());
+    }
+    
+    /**
+     * Splits consecutive steps into chunks of at most {@code tokenBudget} estimated tokens;
+     * a step over the budget forms a chunk of its own.
+     * 
+     * @return the chunks as {@code [first, end)} step index ranges
+     */
+    static List<int[]> chunkSteps(String[] stepDescriptions, String[] stepResults, int tokenBudget) {
+        List<int[]> chunks = new ArrayList<>();
+        int start = 0;
+        int tokens = 0;
+        for (int i = 0; i < stepResults.length; i++) {
+            int stepTokens = estimateTokens(stepDescriptions[i]) + estimateTokens(stepResults[i]);
+            if (i > start && tokens + stepTokens > tokenBudget) {
+                chunks.add(new int[] {start, i});
+                start = i;
+                tokens = 0;
+            }
+            tokens += stepTokens;
+        }
+        if (start < stepResults.length) {
+            chunks.add(new int[] {start, stepResults.length});
+        }
+        return chunks;
+    }
+    
+    private static int estimateTokens(String text) {
+        return text != null ? (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN : 0;
+    }
+    
+    /**
+     * Decides success for an evaluated run and assembles the critique artifacts.
+     */
+    private CriticResult buildCriticResult(String taskDescription, String[] stepResults, String evaluation) {
+        boolean isSuccessful = isRunSuccessful(taskDescription, stepResults, evaluation);
+        return assembleCriticResult(taskDescription, stepResults, evaluation, isSuccessful, null);
+    }
+    
+    private CriticResult assembleCriticResult(String taskDescription, String[] stepResults, String evaluation,
+                                              boolean isSuccessful, CriticVerdict verdict) {
         // Create comprehensive critique artifacts
-        String detailedReport = createDetailedEvaluationReport(taskDescription, stepResults, evaluation, isSuccessful);
-        String qualityMetrics = generateQualityMetrics(stepResults);
-        String improvementSuggestions = generateImprovementSuggestions(taskDescription, stepResults);
+        String detailedReport = createDetailedEvaluationReport(taskDescription, stepResults, evaluation, isSuccessful, verdict);
+        String qualityMetrics = generateQualityMetrics(stepResults, verdict);
+        String improvementSuggestions = generateImprovementSuggestions(taskDescription, stepResults, verdict);
         String executiveSummary = generateExecutiveSummary(taskDescription, evaluation, isSuccessful);
         
-        return new CriticResult(evaluation, detailedReport, qualityMetrics, improvementSuggestions, executiveSummary, isSuccessful);
+        return new CriticResult(evaluation, detailedReport, qualityMetrics, improvementSuggestions, executiveSummary,
+                                isSuccessful, verdict);
     }
     
     /**
@@ -294,9 +887,11 @@ public class CriticAgent {
      * @param stepResults array of results from each execution step, may contain null elements
      * @param evaluation the overall evaluation of the task run
      * @param isSuccessful true if the run is considered successful, false otherwise
+     * @param verdict the structured verdict whose step assessments replace the keyword heuristic, may be null
      * @return a detailed evaluation report as a string
      */
-    private String createDetailedEvaluationReport(String taskDescription, String[] stepResults, String evaluation, boolean isSuccessful) {
+    private String createDetailedEvaluationReport(String taskDescription, String[] stepResults, String evaluation,
+                                                  boolean isSuccessful, CriticVerdict verdict) {
         StringBuilder report = new StringBuilder();
         report.append("# COMPREHENSIVE EVALUATION REPORT\n\n");
         report.append("**Generated by**: Critic Agent\n");
@@ -310,7 +905,13 @@ public class CriticAgent {
         for (int i = 0; i < stepResults.length; i++) {
             report.append("### Step ").append(i + 1).append("\n");
             report.append("**Result**: ").append(stepResults[i] != null ? stepResults[i] : "No result available").append("\n");
-            report.append("**Status**: ").append(evaluateStepQuality(stepResults[i])).append("\n\n");
+            StepAssessment assessment = verdict != null ? verdict.stepAssessment(i + 1) : null;
+            if (assessment != null) {
+                report.append("**Status**: ").append(assessment.status()).append("\n");
+                report.append("**Assessment**: ").append(assessment.assessment()).append("\n\n");
+            } else {
+                report.append("**Status**: ").append(evaluateStepQuality(stepResults[i])).append("\n\n");
+            }
         }
         
         report.append("## Overall Evaluation\n");
@@ -319,6 +920,9 @@ public class CriticAgent {
         report.append("## Quality Indicators\n");
         report.append("- **Completion Rate**: ").append(calculateCompletionRate(stepResults)).append("%\n");
         report.append("- **Step Success Rate**: ").append(calculateSuccessRate(stepResults)).append("%\n");
+        if (verdict != null) {
+            report.append("- **Critic Score**: ").append(verdict.score()).append("/100\n");
+        }
         report.append("- **Overall Quality**: ").append(isSuccessful ? "High" : "Needs Improvement").append("\n\n");
         
         report.append("---\n");
@@ -334,9 +938,10 @@ public class CriticAgent {
      * and returns them in a JSON formatted string.</p>
      * 
      * @param stepResults array of results from each execution step, may contain null elements
+     * @param verdict the structured verdict whose score is included, may be null
      * @return a JSON formatted string containing quality metrics
      */
-    private String generateQualityMetrics(String[] stepResults) {
+    private String generateQualityMetrics(String[] stepResults, CriticVerdict verdict) {
         int totalSteps = stepResults.length;
         int completedSteps = 0;
         int successfulSteps = 0;
@@ -366,6 +971,7 @@ public class CriticAgent {
                     "completion_rate": %.2f,
                     "success_rate": %.2f,
                     "quality_score": %.2f,
+                    "critic_score": %s,
                     "timestamp": "%s"
                 },
                 "performance_indicators": {
@@ -379,6 +985,7 @@ public class CriticAgent {
             (double) completedSteps / totalSteps * 100,
             (double) successfulSteps / totalSteps * 100,
             calculateQualityScore(stepResults),
+            verdict != null ? String.valueOf(verdict.score()) : "null",
             java.time.Instant.now().toString(),
             getEfficiencyRating(successfulSteps, totalSteps),
             getCompletenessRating(completedSteps, totalSteps),
@@ -394,12 +1001,21 @@ public class CriticAgent {
      * 
      * @param taskDescription the original task description that was executed
      * @param stepResults array of results from each execution step, may contain null elements
+     * @param verdict the structured verdict whose suggestions lead the recommendations, may be null
      * @return a string containing improvement suggestions
      */
-    private String generateImprovementSuggestions(String taskDescription, String[] stepResults) {
+    private String generateImprovementSuggestions(String taskDescription, String[] stepResults, CriticVerdict verdict) {
         StringBuilder suggestions = new StringBuilder();
         suggestions.append("# IMPROVEMENT RECOMMENDATIONS\n\n");
         
+        if (verdict != null && !verdict.suggestions().isEmpty()) {
+            suggestions.append("## Critic Suggestions\n");
+            for (String suggestion : verdict.suggestions()) {
+                suggestions.append("- ").append(suggestion).append("\n");
+            }
+            suggestions.append("\n");
+        }
+        
         suggestions.append("## Process Optimizations\n");
         if (calculateSuccessRate(stepResults) < 80) {
             suggestions.append("- **Step Execution**: Consider adding more validation and error handling\n");
@@ -472,6 +1088,17 @@ public class CriticAgent {
         return summary.toString();
     }
     
+    /**
+     * Whether a step's result shows the step did not succeed (no output, or a reported
+     * failure or error), using the same heuristic as the step-by-step analysis of the report.
+     * 
+     * @param stepResult the result of the step, may be null
+     * @return true if the step should be executed again
+     */
+    public boolean isStepFailing(String stepResult) {
+        return evaluateStepQuality(stepResult).startsWith("❌");
+    }
+    
     /**
      * Helper methods for quality assessment.
      * 
@@ -555,7 +1182,83 @@ public class CriticAgent {
      * @param improvementSuggestions specific recommendations for improvement
      * @param executiveSummary a high-level summary of the task execution
      * @param isSuccessful true if the run is considered successful, false otherwise
+     * @param verdict the structured verdict of a single-call evaluation, null when the run was
+     *                evaluated and decided in separate calls
      */
     public record CriticResult(String evaluation, String detailedReport, String qualityMetrics, 
-                              String improvementSuggestions, String executiveSummary, boolean isSuccessful) {}
+                              String improvementSuggestions, String executiveSummary, boolean isSuccessful,
+                              CriticVerdict verdict) {}
+    
+    /**
+     * The critic's structured answer in single-call mode.
+     * 
+     * @param successful true if the run is considered successful
+     * @param score overall quality from 0 to 100
+     * @param assessment the overall evaluation of the task run
+     * @param steps the critic's assessment of each step, empty if it gave none
+     * @param suggestions specific recommendations for improvement
+     */
+    public record CriticVerdict(boolean successful, int score, String assessment,
+                                List<StepAssessment> steps, List<String> suggestions) {
+        
+        /**
+         * @param step step number, starting at 1
+         * @return the assessment of that step, or null if the critic did not assess it
+         */
+        public StepAssessment stepAssessment(int step) {
+            for (StepAssessment assessment : steps) {
+                if (assessment.step() == step) {
+                    return assessment;
+                }
+            }
+            return null;
+        }
+    }
+    
+    /**
+     * The step gate's judgement of one step result.
+     * 
+     * @param score quality of the result from 0 to 100
+     * @param reason one-line explanation of the score
+     * @param truncated the answer was cut off by the token limit after its score
+     */
+    public record StepGate(int score, String reason, boolean truncated) {}
+    
+    /**
+     * The step gate's answer was cut off by the token limit before it gave a score.
+     */
+    public static class TruncatedGateAnswerException extends RuntimeException {
+        
+        public TruncatedGateAnswerException(String message) {
+            super(message);
+        }
+    }
+    
+    /**
+     * The critic's assessment of one step.
+     * 
+     * @param step step number, starting at 1
+     * @param verdict SUCCESS, PARTIAL or FAILURE
+     * @param assessment short explanation of the verdict
+     */
+    public record StepAssessment(int step, String verdict, String assessment) {
+        
+        /**
+         * @return true if the critic judged the step a failure
+         */
+        public boolean isFailing() {
+            return "FAILURE".equals(verdict);
+        }
+        
+        /**
+         * @return the verdict in the form used by the evaluation report
+         */
+        public String status() {
+            return switch (verdict) {
+                case "SUCCESS" -> "✅ Success";
+                case "FAILURE" -> "❌ Failed";
+                default -> "⚠️ Partial";
+            };
+        }
+    }
 }
\ No newline at end of file
@@ -1,8 +1,16 @@
 package com.rajathgoku.agentic.backend.agent;
 
 import com.rajathgoku.agentic.backend.llm.LlmClient;
+import com.rajathgoku.agentic.backend.llm.LlmRequest;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 /**
  * The ExecutorAgent is responsible for executing individual steps within task runs
  * in the agentic AI system. It transforms step descriptions into concrete actions
@@ -32,6 +40,18 @@ import org.springframework.stereotype.Component;
 @SuppressWarnings({"unused", "java:S1220"}) // Suppress IDE warnings about package mismatch
 public class ExecutorAgent {
     
+    /** Operation name attached to step execution requests */
+    static final String STEP_OPERATION = "executor.step";
+    
+    /** Instructions that open every run conversation, see {@link #startConversation(int)} */
+    private static final String CONVERSATION_SYSTEM_PROMPT =
+        "You are an execution agent. You will be given the steps of a task one at a time. " +
+        "Execute each step, building on the results of the previous steps in this conversation, " +
+        "and provide a detailed result of what was accomplished.";
+    
+    /** Line that opens the result of each part of a fused step request */
+    private static final Pattern FUSED_PART_MARKER = Pattern.compile("(?m)^[ \\t#*]*=+ *STEP +(\\d{1,4}) *=+[ \\t*]*$");
+    
     /** The LLM client used for AI-powered step execution */
     private final LlmClient llmClient;
     
@@ -55,7 +75,52 @@ public class ExecutorAgent {
      * @return detailed result of step execution
      */
     public String executeStep(String stepDescription, String context) {
-        String prompt = String.format(
+        return llmClient.generate(buildStepRequest(stepDescription, context));
+    }
+    
+    /**
+     * Execute a step without blocking the calling thread.
+     * 
+     * @param stepDescription description of the step to execute
+     * @param context optional context from previous steps, may be null
+     * @return future completed with the detailed result of step execution
+     */
+    public CompletableFuture<String> executeStepAsync(String stepDescription, String context) {
+        return llmClient.generateAsync(buildStepRequest(stepDescription, context));
+    }
+    
+    /**
+     * Execute a step, streaming the result to the callback as the LLM generates it.
+     * 
+     * <p>Returns the accumulated result so callers that also need the full text
+     * (for example to build artifacts) do not have to collect it themselves.</p>
+     * 
+     * @param stepDescription description of the step to execute
+     * @param context optional context from previous steps, may be null
+     * @param onChunk receives each chunk of the result as soon as it arrives
+     * @return detailed result of step execution
+     */
+    public String executeStepStreaming(String stepDescription, String context, Consumer<String> onChunk) {
+        StringBuilder result = new StringBuilder();
+        llmClient.stream(buildStepRequest(stepDescription, context), chunk -> {
+            result.append(chunk);
+            onChunk.accept(chunk);
+        });
+        return result.toString();
+    }
+    
+    /**
+     * Build the execution request shared by the blocking and streaming variants.
+     * 
+     * <p>Step execution is generative work that callers expect to vary between runs,
+     * so it opts out of response caching.</p>
+     */
+    private LlmRequest buildStepRequest(String stepDescription, String context) {
+        return LlmRequest.ofPrompt(buildStepPrompt(stepDescription, context)).uncached().forOperation(STEP_OPERATION);
+    }
+    
+    private String buildStepPrompt(String stepDescription, String context) {
+        return String.format(
             "You are an execution agent. Execute the following step:\n\n" +
             "Step: %s\n\n" +
             "Context: %s\n\n" +
@@ -63,8 +128,180 @@ public class ExecutorAgent {
             stepDescription,
             context != null ? context : "No additional context provided"
         );
-        
-        return llmClient.generateResponse(prompt);
+    }
+    
+    /**
+     * Start the conversation in which a run's steps are executed one after another.
+     * 
+     * @param tokenBudget estimated tokens the history of previous steps may take up in each
+     *                    step request; older steps are summarised beyond it
+     * @return an empty conversation for a new run
+     */
+    public StepConversation startConversation(int tokenBudget) {
+        return startConversation(tokenBudget, null);
+    }
+    
+    /**
+     * Start a run conversation whose steps all run on the given model.
+     * 
+     * @param tokenBudget estimated tokens the history of previous steps may take up in each
+     *                    step request; older steps are summarised beyond it
+     * @param model model to execute the steps on, or {@code null} for the configured route
+     * @return an empty conversation for a new run
+     */
+    public StepConversation startConversation(int tokenBudget, String model) {
+        return new StepConversation(CONVERSATION_SYSTEM_PROMPT, tokenBudget, model);
+    }
+    
+    /**
+     * Execute the next step of a run conversation with comprehensive artifact creation.
+     * 
+     * <p>Previous steps reach the model as earlier turns of the conversation rather than
+     * as pasted context. The conversation is not modified; the caller records the step
+     * with {@link StepConversation#recordStep(String, String)} once it is accepted.</p>
+     * 
+     * @param conversation the run's conversation so far
+     * @param stepDescription description of the step to execute
+     * @return ExecutionResult containing the result and all generated artifacts
+     */
+    public ExecutionResult executeInConversation(StepConversation conversation, String stepDescription) {
+        String result = llmClient.generate(buildConversationRequest(conversation, stepDescription));
+        return buildExecutionResult(stepDescription, describeConversation(conversation), result);
+    }
+    
+    /**
+     * Execute the next step of a run conversation, streaming the primary result to the
+     * callback while it is generated.
+     * 
+     * @param conversation the run's conversation so far
+     * @param stepDescription description of the step to execute
+     * @param onChunk receives each chunk of the result as soon as it arrives
+     * @return ExecutionResult containing the result and all generated artifacts
+     */
+    public ExecutionResult executeInConversationStreaming(StepConversation conversation, String stepDescription,
+                                                          Consumer<String> onChunk) {
+        StringBuilder result = new StringBuilder();
+        llmClient.stream(buildConversationRequest(conversation, stepDescription), chunk -> {
+            result.append(chunk);
+            onChunk.accept(chunk);
+        });
+        return buildExecutionResult(stepDescription, describeConversation(conversation), result.toString());
+    }
+    
+    /**
+     * Execute several consecutive steps of a run conversation in a single LLM call.
+     * 
+     * <p>Small steps cost a full round trip each; fused, they are sent as one numbered request
+     * whose response marks the start of each step's result with a {@code === STEP n ===} line.
+     * The response is split back into one result per step. If the model left out markers,
+     * only the leading steps whose results could be told apart are returned (at least the
+     * first, which then gets the whole response) and the caller executes the rest
+     * separately.</p>
+     * 
+     * <p>Like {@link #executeInConversation(StepConversation, String)} the conversation is not
+     * modified; the caller records each returned step.</p>
+     * 
+     * @param conversation the run's conversation so far
+     * @param stepDescriptions descriptions of the steps to execute, in order
+     * @return one ExecutionResult per leading step whose result was found, in step order
+     */
+    public List<ExecutionResult> executeFusedInConversation(StepConversation conversation, List<String> stepDescriptions) {
+        String result = llmClient.generate(buildConversationRequest(conversation, fusedStepDescription(stepDescriptions)));
+        return buildFusedExecutionResults(conversation, stepDescriptions, result);
+    }
+    
+    /**
+     * Execute several consecutive steps of a run conversation in a single LLM call, streaming
+     * the combined response to the callback while it is generated.
+     * 
+     * @param conversation the run's conversation so far
+     * @param stepDescriptions descriptions of the steps to execute, in order
+     * @param onChunk receives each chunk of the combined response as soon as it arrives
+     * @return one ExecutionResult per leading step whose result was found, in step order
+     * 
+     * @see #executeFusedInConversation(StepConversation, List)
+     */
+    public List<ExecutionResult> executeFusedInConversationStreaming(StepConversation conversation, List<String> stepDescriptions,
+                                                                     Consumer<String> onChunk) {
+        StringBuilder result = new StringBuilder();
+        llmClient.stream(buildConversationRequest(conversation, fusedStepDescription(stepDescriptions)), chunk -> {
+            result.append(chunk);
+            onChunk.accept(chunk);
+        });
+        return buildFusedExecutionResults(conversation, stepDescriptions, result.toString());
+    }
+    
+    private List<ExecutionResult> buildFusedExecutionResults(StepConversation conversation, List<String> stepDescriptions,
+                                                             String result) {
+        List<String> parts = splitFusedResult(result, stepDescriptions.size());
+        String context = describeConversation(conversation);
+        List<ExecutionResult> results = new ArrayList<>(parts.size());
+        for (int i = 0; i < parts.size(); i++) {
+            results.add(buildExecutionResult(stepDescriptions.get(i),
+                String.format("%s; step %d of %d executed together in one call", context, i + 1, stepDescriptions.size()),
+                parts.get(i)));
+        }
+        return results;
+    }
+    
+    private static String fusedStepDescription(List<String> stepDescriptions) {
+        StringBuilder description = new StringBuilder();
+        description.append("Execute the following ").append(stepDescriptions.size()).append(" steps in order:\n\n");
+        for (int i = 0; i < stepDescriptions.size(); i++) {
+            description.append(i + 1).append(". ").append(stepDescriptions.get(i)).append("\n");
+        }
+        description.append("\nStart the result of each step with a line containing only === STEP n === ")
+            .append("(n being the step number above), followed by the detailed result of that step.");
+        return description.toString();
+    }
+    
+    /**
+     * Split a fused response at its step markers.
+     * 
+     * @return the results of the leading steps whose markers appear in order; the whole
+     *         response as the first result if there are no usable markers
+     */
+    static List<String> splitFusedResult(String result, int steps) {
+        List<String> parts = new ArrayList<>(steps);
+        Matcher marker = FUSED_PART_MARKER.matcher(result);
+        int partStart = -1;
+        while (marker.find()) {
+            int number = Integer.parseInt(marker.group(1));
+            if (partStart < 0) {
+                if (number != 1) {
+                    break;
+                }
+            } else if (number == parts.size() + 2 && number <= steps) {
+                parts.add(result.substring(partStart, marker.start()).strip());
+            } else {
+                continue;
+            }
+            partStart = marker.end();
+        }
+        if (partStart < 0) {
+            return List.of(result);
+        }
+        if (parts.size() < steps) {
+            parts.add(result.substring(partStart).strip());
+        }
+        return parts;
+    }
+    
+    private LlmRequest buildConversationRequest(StepConversation conversation, String stepDescription) {
+        LlmRequest request = LlmRequest.ofMessages(conversation.messagesFor(stepDescription))
+            .uncached()
+            .forOperation(STEP_OPERATION);
+        return conversation.getModel() != null ? request.withModel(conversation.getModel()) : request;
+    }
+    
+    private String describeConversation(StepConversation conversation) {
+        int previousSteps = conversation.getRecordedSteps();
+        String model = conversation.getModel() != null ? " on " + conversation.getModel() : "";
+        if (previousSteps == 0) {
+            return "First step of the run conversation" + model;
+        }
+        return String.format("Run conversation%s with %d previous step(s), %d of them summarised, ~%d tokens of history",
+                             model, previousSteps, conversation.getSummarisedSteps(), conversation.getHistoryTokens());
     }
     
     /**
@@ -96,7 +333,39 @@ public class ExecutorAgent {
      */
     public ExecutionResult executeWithArtifact(String stepDescription, String context) {
         String result = executeStep(stepDescription, context);
-        
+        return buildExecutionResult(stepDescription, context, result);
+    }
+    
+    /**
+     * Execute with comprehensive artifact creation without blocking the calling thread.
+     * 
+     * @param stepDescription description of the step to execute
+     * @param context optional context from previous steps
+     * @return future completed with the result and all generated artifacts
+     */
+    public CompletableFuture<ExecutionResult> executeWithArtifactAsync(String stepDescription, String context) {
+        return executeStepAsync(stepDescription, context)
+            .thenApply(result -> buildExecutionResult(stepDescription, context, result));
+    }
+    
+    /**
+     * Execute with comprehensive artifact creation, streaming the primary result
+     * to the callback while it is generated.
+     * 
+     * @param stepDescription description of the step to execute
+     * @param context optional context from previous steps
+     * @param onChunk receives each chunk of the result as soon as it arrives
+     * @return ExecutionResult containing the result and all generated artifacts
+     */
+    public ExecutionResult executeWithArtifactStreaming(String stepDescription, String context, Consumer<String> onChunk) {
+        String result = executeStepStreaming(stepDescription, context, onChunk);
+        return buildExecutionResult(stepDescription, context, result);
+    }
+    
+    /**
+     * Assemble the artifacts that accompany a step result.
+     */
+    private ExecutionResult buildExecutionResult(String stepDescription, String context, String result) {
         // Create comprehensive execution artifacts
         String executionLog = createExecutionLog(stepDescription, context, result);
         String codeArtifact = generateCodeArtifact(stepDescription, result);
@@ -1,24 +1,165 @@
 package com.rajathgoku.agentic.backend.agent;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rajathgoku.agentic.backend.llm.LlmCallContext;
 import com.rajathgoku.agentic.backend.llm.LlmClient;
+import com.rajathgoku.agentic.backend.llm.LlmRequest;
+import com.rajathgoku.agentic.backend.llm.SemanticResponseCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
 @Component
 public class PlannerAgent {
     
+    private static final Logger logger = LoggerFactory.getLogger(PlannerAgent.class);
+    
+    static final String PLAN_OPERATION = "planner.plan";
+    static final String STRUCTURED_PLAN_OPERATION = "planner.structuredPlan";
+    
+    /** Artifact types a step may declare, as file extensions */
+    static final List<String> ARTIFACT_TYPES = List.of("html", "css", "js", "py", "java", "sql", "json", "md", "txt");
+    
+    /** JSON schema of the execution plan, passed to the backend as the output format */
+    private static final Map<String, Object> EXECUTION_PLAN_SCHEMA = Map.of(
+        "type", "object",
+        "properties", Map.of(
+            "title", Map.of("type", "string"),
+            "objective", Map.of("type", "string"),
+            "steps", Map.of(
+                "type", "array",
+                "items", Map.of(
+                    "type", "object",
+                    "properties", Map.of(
+                        "title", Map.of("type", "string"),
+                        "description", Map.of("type", "string"),
+                        "artifactType", Map.of("type", "string", "enum", ARTIFACT_TYPES),
+                        "estimatedTokens", Map.of("type", "integer")),
+                    "required", List.of("title", "description", "artifactType", "estimatedTokens"))),
+            "deliverables", Map.of("type", "array", "items", Map.of("type", "string")),
+            "risks", Map.of("type", "array", "items", Map.of("type", "string")),
+            "successCriteria", Map.of("type", "array", "items", Map.of("type", "string"))),
+        "required", List.of("title", "objective", "steps", "deliverables", "risks", "successCriteria"));
+    
     private final LlmClient llmClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    /** Plans of similar earlier tasks, {@code null} when the semantic cache is disabled */
+    private final SemanticResponseCache semanticCache;
     
-    @Autowired
     public PlannerAgent(LlmClient llmClient) {
         this.llmClient = llmClient;
+        this.semanticCache = null;
+    }
+    
+    @Autowired
+    public PlannerAgent(LlmClient llmClient, ObjectProvider<SemanticResponseCache> semanticCache) {
+        this.llmClient = llmClient;
+        this.semanticCache = semanticCache.getIfAvailable();
     }
     
     /**
      * Create a comprehensive plan for executing the given task
      */
     public String createPlan(String taskDescription) {
-        String prompt = String.format(
+        return cachedOrGenerate(PLAN_OPERATION, taskDescription, () -> llmClient.generate(planRequest(taskDescription)));
+    }
+    
+    /**
+     * Create the execution plan without blocking the calling thread
+     */
+    public CompletableFuture<String> createPlanAsync(String taskDescription) {
+        return cachedOrGenerateAsync(PLAN_OPERATION, taskDescription, () -> llmClient.generateAsync(planRequest(taskDescription)));
+    }
+    
+    /**
+     * Create the execution plan, streaming it to the callback as it is generated.
+     * A plan served from the semantic cache arrives as a single chunk.
+     */
+    public void streamPlan(String taskDescription, Consumer<String> onChunk) {
+        String cached = lookupSimilar(PLAN_OPERATION, taskDescription);
+        if (cached != null) {
+            onChunk.accept(cached);
+            return;
+        }
+        StringBuilder plan = new StringBuilder();
+        llmClient.stream(planRequest(taskDescription), chunk -> {
+            plan.append(chunk);
+            onChunk.accept(chunk);
+        });
+        storeForSimilar(PLAN_OPERATION, taskDescription, plan.toString());
+    }
+    
+    /**
+     * Serve the output of an operation for a task from the plan of a similar earlier task,
+     * or generate it and remember it for later similar tasks
+     */
+    private String cachedOrGenerate(String operation, String taskDescription, Supplier<String> generate) {
+        String cached = lookupSimilar(operation, taskDescription);
+        if (cached != null) {
+            return cached;
+        }
+        String generated = generate.get();
+        storeForSimilar(operation, taskDescription, generated);
+        return generated;
+    }
+    
+    private CompletableFuture<String> cachedOrGenerateAsync(String operation, String taskDescription,
+                                                            Supplier<CompletableFuture<String>> generate) {
+        if (semanticCache == null) {
+            return generate.get();
+        }
+        // The lookup embeds the task description, keep that off the caller's thread too,
+        // with the caller's context so a hit is logged against its run
+        LlmCallContext context = LlmCallContext.current();
+        return CompletableFuture.supplyAsync(() -> {
+                try (LlmCallContext.Scope scope = LlmCallContext.open(context)) {
+                    return lookupSimilar(operation, taskDescription);
+                }
+            })
+            .thenCompose(cached -> cached != null
+                ? CompletableFuture.completedFuture(cached)
+                : generate.get().thenApply(generated -> {
+                    storeForSimilar(operation, taskDescription, generated);
+                    return generated;
+                }));
+    }
+    
+    private String lookupSimilar(String operation, String taskDescription) {
+        return semanticCache != null ? semanticCache.lookup(semanticNamespace(operation), taskDescription) : null;
+    }
+    
+    private void storeForSimilar(String operation, String taskDescription, String output) {
+        if (semanticCache != null) {
+            semanticCache.store(semanticNamespace(operation), taskDescription, output);
+        }
+    }
+    
+    /**
+     * Only the task description is matched, so plans are kept apart per operation and model
+     */
+    private String semanticNamespace(String operation) {
+        return operation + "|" + llmClient.getModelName();
+    }
+    
+    private LlmRequest planRequest(String taskDescription) {
+        return LlmRequest.ofPrompt(buildPlanPrompt(taskDescription)).forOperation(PLAN_OPERATION);
+    }
+    
+    private String buildPlanPrompt(String taskDescription) {
+        return String.format(
             "You are an expert planning agent. Create a detailed, professional execution plan for the following task:\n\n" +
             "Task: %s\n\n" +
             "Please provide:\n" +
@@ -30,39 +171,240 @@ public class PlannerAgent {
             "Format your response professionally with clear sections and bullet points.",
             taskDescription
         );
-        
-        return llmClient.generateResponse(prompt);
     }
     
     /**
-     * Break down a plan into individual executable steps
+     * Plan the task in a single call whose JSON output (constrained by a schema) is parsed into
+     * typed steps. A reply that is not a usable plan falls back to one step per line of the task.
      */
-    public String[] breakDownPlan(String plan) {
-        // Simple parsing - in a real implementation, this could use LLM to better parse
-        return plan.split("\n");
+    public ExecutionPlan createExecutionPlan(String taskDescription) {
+        ExecutionPlan cached = cachedExecutionPlan(taskDescription);
+        if (cached != null) {
+            return cached;
+        }
+        return rememberExecutionPlan(taskDescription, llmClient.generate(executionPlanRequest(taskDescription)));
     }
-
+    
     /**
-     * Create a structured plan in JSON format for complex tasks
+     * Create the execution plan without blocking the calling thread
      */
-    public String createStructuredPlan(String taskDescription) {
-        String prompt = String.format(
-            "Create a structured JSON execution plan for: %s\n\n" +
-            "Return a JSON object with these fields:\n" +
-            "{\n" +
-            "  \"title\": \"Task title\",\n" +
-            "  \"objective\": \"Main goal\",\n" +
-            "  \"steps\": [\n" +
-            "    {\"step\": 1, \"title\": \"Step title\", \"description\": \"Detailed description\", \"duration\": \"estimated time\"},\n" +
-            "    ...\n" +
-            "  ],\n" +
-            "  \"deliverables\": [\"deliverable 1\", \"deliverable 2\"],\n" +
-            "  \"risks\": [\"risk 1\", \"risk 2\"],\n" +
-            "  \"successCriteria\": [\"criteria 1\", \"criteria 2\"]\n" +
-            "}",
-            taskDescription
+    public CompletableFuture<ExecutionPlan> createExecutionPlanAsync(String taskDescription) {
+        // The cache lookup embeds the task description, keep that off the caller's thread too
+        return CompletableFuture.supplyAsync(() -> cachedExecutionPlan(taskDescription))
+            .thenCompose(cached -> cached != null
+                ? CompletableFuture.completedFuture(cached)
+                : llmClient.generateAsync(executionPlanRequest(taskDescription))
+                    .thenApply(json -> rememberExecutionPlan(taskDescription, json)));
+    }
+    
+    /**
+     * Create the execution plan, streaming its JSON to the callback as it is generated.
+     * A plan served from the semantic cache arrives as a single chunk.
+     */
+    public ExecutionPlan streamExecutionPlan(String taskDescription, Consumer<String> onChunk) {
+        ExecutionPlan cached = cachedExecutionPlan(taskDescription);
+        if (cached != null) {
+            onChunk.accept(cached.json());
+            return cached;
+        }
+        StringBuilder json = new StringBuilder();
+        llmClient.stream(executionPlanRequest(taskDescription), chunk -> {
+            json.append(chunk);
+            onChunk.accept(chunk);
+        });
+        return rememberExecutionPlan(taskDescription, json.toString());
+    }
+    
+    private ExecutionPlan cachedExecutionPlan(String taskDescription) {
+        String json = lookupSimilar(STRUCTURED_PLAN_OPERATION, taskDescription);
+        return json != null ? parseExecutionPlan(json) : null;
+    }
+    
+    /**
+     * Parse the model's plan, keeping it for similar tasks if it is usable
+     */
+    private ExecutionPlan rememberExecutionPlan(String taskDescription, String json) {
+        ExecutionPlan plan = parseExecutionPlan(json);
+        if (plan == null) {
+            logger.warn("Planner returned no usable JSON plan, falling back to one step per task line");
+            return fallbackPlan(taskDescription);
+        }
+        storeForSimilar(STRUCTURED_PLAN_OPERATION, taskDescription, json);
+        return plan;
+    }
+    
+    /**
+     * @return the plan, or {@code null} if the JSON is malformed or has no steps
+     */
+    private ExecutionPlan parseExecutionPlan(String json) {
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(json);
+        } catch (Exception e) {
+            return null;
+        }
+        if (root == null || !root.isObject()) {
+            return null;
+        }
+        List<PlannedStep> steps = new ArrayList<>();
+        for (JsonNode step : root.path("steps")) {
+            String title = step.path("title").asText("").trim();
+            String description = step.path("description").asText("").trim();
+            if (title.isEmpty() && description.isEmpty()) {
+                continue;
+            }
+            String artifactType = step.path("artifactType").asText("").trim().toLowerCase(Locale.ROOT);
+            if (artifactType.startsWith(".")) {
+                artifactType = artifactType.substring(1);
+            }
+            steps.add(new PlannedStep(title, description,
+                                      ARTIFACT_TYPES.contains(artifactType) ? artifactType : null,
+                                      Math.max(0, step.path("estimatedTokens").asInt(0))));
+        }
+        if (steps.isEmpty()) {
+            return null;
+        }
+        return new ExecutionPlan(root.path("title").asText(""), root.path("objective").asText(""), List.copyOf(steps),
+                                 textList(root.path("deliverables")), textList(root.path("risks")),
+                                 textList(root.path("successCriteria")), json.strip());
+    }
+    
+    /**
+     * The plan before JSON planning: every non-blank line of the task is a step
+     */
+    private ExecutionPlan fallbackPlan(String taskDescription) {
+        List<PlannedStep> steps = new ArrayList<>();
+        for (String line : taskDescription.split("\n")) {
+            if (!line.isBlank()) {
+                steps.add(new PlannedStep("", line.trim(), null, 0));
+            }
+        }
+        String title = taskDescription.strip().lines().findFirst().orElse("");
+        return new ExecutionPlan(title, taskDescription.strip(), List.copyOf(steps), List.of(), List.of(), List.of(),
+                                 toJson(title, taskDescription.strip(), steps));
+    }
+    
+    private String toJson(String title, String objective, List<PlannedStep> steps) {
+        Map<String, Object> plan = new LinkedHashMap<>();
+        plan.put("title", title);
+        plan.put("objective", objective);
+        plan.put("steps", steps);
+        try {
+            return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(plan);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to serialize execution plan: " + e.getMessage(), e);
+        }
+    }
+    
+    private static List<String> textList(JsonNode array) {
+        List<String> values = new ArrayList<>();
+        for (JsonNode value : array) {
+            if (!value.asText("").isBlank()) {
+                values.add(value.asText().trim());
+            }
+        }
+        return List.copyOf(values);
+    }
+    
+    private LlmRequest executionPlanRequest(String taskDescription) {
+        return LlmRequest.ofPrompt(buildExecutionPlanPrompt(taskDescription))
+            .withFormat(EXECUTION_PLAN_SCHEMA)
+            .forOperation(STRUCTURED_PLAN_OPERATION);
+    }
+    
+    private String buildExecutionPlanPrompt(String taskDescription) {
+        return String.format(
+            "You are an expert planning agent. Create an execution plan for the following task:\n\n" +
+            "Task: %s\n\n" +
+            "Respond with a JSON object with these fields:\n" +
+            "- title: short task title\n" +
+            "- objective: the main goal in one or two sentences\n" +
+            "- steps: 2 to 8 steps in execution order, each with\n" +
+            "  - title: short step title\n" +
+            "  - description: self-contained instructions for the step\n" +
+            "  - artifactType: the file type the step produces, one of %s\n" +
+            "  - estimatedTokens: estimated length of the step's output in tokens\n" +
+            "- deliverables, risks, successCriteria: lists of short strings",
+            taskDescription, String.join(", ", ARTIFACT_TYPES)
         );
+    }
+    
+    /**
+     * One step of an {@link ExecutionPlan}
+     * 
+     * @param title short title, may be empty
+     * @param artifactType file extension (without the dot) of the step's main artifact, {@code null} if unknown
+     * @param estimatedTokens planner's estimate of the step's output length, 0 if unknown
+     */
+    public record PlannedStep(String title, String description, String artifactType, int estimatedTokens) {
+        
+        /**
+         * The instruction given to the executor
+         */
+        public String instruction() {
+            return title.isEmpty() ? description : title + ": " + description;
+        }
+    }
+    
+    /**
+     * A plan parsed from the planner's JSON
+     * 
+     * @param json the plan as JSON, stored as the run's structured plan
+     */
+    public record ExecutionPlan(String title,
+                                String objective,
+                                List<PlannedStep> steps,
+                                List<String> deliverables,
+                                List<String> risks,
+                                List<String> successCriteria,
+                                String json) {
+        
+        /**
+         * Render the plan as the run's {@code execution_plan.md}
+         */
+        public String toMarkdown() {
+            StringBuilder markdown = new StringBuilder();
+            markdown.append("# Execution Plan");
+            if (!title.isBlank()) {
+                markdown.append(": ").append(title);
+            }
+            markdown.append("\n\n");
+            if (!objective.isBlank()) {
+                markdown.append("## Objective\n\n").append(objective).append("\n\n");
+            }
+            
+            markdown.append("## Steps\n\n");
+            for (int i = 0; i < steps.size(); i++) {
+                PlannedStep step = steps.get(i);
+                markdown.append("### Step ").append(i + 1);
+                if (!step.title().isEmpty()) {
+                    markdown.append(": ").append(step.title());
+                }
+                markdown.append("\n\n").append(step.description()).append("\n\n");
+                if (step.artifactType() != null) {
+                    markdown.append("- Expected artifact: `.").append(step.artifactType()).append("`\n");
+                }
+                if (step.estimatedTokens() > 0) {
+                    markdown.append("- Estimated output: ~").append(step.estimatedTokens()).append(" tokens\n");
+                }
+                markdown.append("\n");
+            }
+            
+            appendSection(markdown, "Key Deliverables", deliverables);
+            appendSection(markdown, "Risk Considerations", risks);
+            appendSection(markdown, "Success Criteria", successCriteria);
+            return markdown.toString();
+        }
         
-        return llmClient.generateResponse(prompt);
+        private static void appendSection(StringBuilder markdown, String heading, List<String> items) {
+            if (items.isEmpty()) {
+                return;
+            }
+            markdown.append("## ").append(heading).append("\n\n");
+            for (String item : items) {
+                markdown.append("- ").append(item).append("\n");
+            }
+            markdown.append("\n");
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,205 @@
+package com.rajathgoku.agentic.backend.agent;
+
+import com.rajathgoku.agentic.backend.llm.LlmClient.Message;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * The execution steps of one run as a single multi-turn conversation with the executor.
+ *
+ * <p>Every step request is the run's history so far followed by the new step, so
+ * consecutive requests share an identical, growing prefix. A backend that keeps the
+ * model loaded between calls can reuse the cached prefix and only has to process the
+ * newest turn, instead of re-reading all previous results pasted into a fresh prompt.</p>
+ *
+ * <p>The history is kept within a token budget. Completed steps are appended as they are
+ * recorded; once the history exceeds the budget the oldest steps are replaced by a one-line
+ * summary each, down to half the budget so the (cache-invalidating) compaction happens
+ * rarely instead of on every step. Summary lines beyond a quarter of the budget are
+ * dropped, leaving only a count of the omitted steps.</p>
+ *
+ * <p>Steps are only added to the history once they are recorded, so a step that is
+ * retried is sent again against the same history rather than on top of its failed
+ * attempt.</p>
+ *
+ * <p>A conversation may be pinned to a model. The server's cached prefix belongs to the model
+ * that processed it, so every step of the conversation runs on the same one.</p>
+ *
+ * @see ExecutorAgent#startConversation(int)
+ */
+public class StepConversation {
+
+    /** Rough size of a token for budgeting, the prompt is not tokenized locally */
+    private static final int CHARS_PER_TOKEN = 4;
+
+    /** Longest excerpt of a result kept in its summary line */
+    private static final int SUMMARY_EXCERPT_CHARS = 200;
+
+    private static final String TRUNCATION_MARKER = "\n[truncated]";
+
+    private final Message systemMessage;
+    private final int tokenBudget;
+    private final String model;
+
+    private final Deque<StepTurn> turns = new ArrayDeque<>();
+    private final Deque<String> summaryLines = new ArrayDeque<>();
+    private final List<Message> messages = new ArrayList<>();
+    private int turnTokens = 0;
+    private int summaryTokens = 0;
+    private int omittedSteps = 0;
+    private int recordedSteps = 0;
+
+    /**
+     * @param tokenBudget estimated tokens the history of previous steps may take up
+     * @param model model every step is sent to, or {@code null} for the client's choice
+     */
+    StepConversation(String systemPrompt, int tokenBudget, String model) {
+        this.systemMessage = new Message("system", systemPrompt);
+        this.tokenBudget = tokenBudget;
+        this.model = model;
+        messages.add(systemMessage);
+    }
+
+    /**
+     * Messages to send for the given step: the history so far plus the step itself
+     */
+    synchronized List<Message> messagesFor(String stepDescription) {
+        List<Message> request = new ArrayList<>(messages.size() + 1);
+        request.addAll(messages);
+        request.add(new Message("user", stepTurn(stepDescription)));
+        return request;
+    }
+
+    /**
+     * Append a completed step and its result to the history
+     *
+     * @param stepDescription the step as it was sent
+     * @param result the executor's result for the step
+     */
+    public synchronized void recordStep(String stepDescription, String result) {
+        StepTurn turn = new StepTurn(stepDescription, result != null ? result : "");
+        turns.addLast(turn);
+        turnTokens += turn.tokens();
+        recordedSteps++;
+
+        if (turnTokens + summaryTokens <= tokenBudget) {
+            messages.add(turn.userMessage());
+            messages.add(turn.assistantMessage());
+            return;
+        }
+        compact();
+    }
+
+    /**
+     * @return the model the conversation is pinned to, {@code null} if it is not
+     */
+    public String getModel() {
+        return model;
+    }
+
+    /**
+     * @return the number of steps recorded so far
+     */
+    public synchronized int getRecordedSteps() {
+        return recordedSteps;
+    }
+
+    /**
+     * @return the number of recorded steps only present as a summary, or not at all
+     */
+    public synchronized int getSummarisedSteps() {
+        return recordedSteps - turns.size();
+    }
+
+    /**
+     * @return estimated tokens of the history currently sent with every step
+     */
+    public synchronized int getHistoryTokens() {
+        return turnTokens + summaryTokens;
+    }
+
+    private void compact() {
+        int target = tokenBudget / 2;
+        // The most recent step stays verbatim, the next step most likely builds on it
+        while (turns.size() > 1 && turnTokens + summaryTokens > target) {
+            StepTurn oldest = turns.removeFirst();
+            turnTokens -= oldest.tokens();
+            String line = summaryLine(oldest);
+            summaryLines.addLast(line);
+            summaryTokens += estimateTokens(line);
+        }
+        while (!summaryLines.isEmpty() && summaryTokens > tokenBudget / 4) {
+            summaryTokens -= estimateTokens(summaryLines.removeFirst());
+            omittedSteps++;
+        }
+        if (turnTokens + summaryTokens > tokenBudget) {
+            // A single result larger than the whole budget: keep its beginning
+            StepTurn latest = turns.removeLast();
+            turnTokens -= latest.tokens();
+            int maxChars = Math.max(0, (tokenBudget - summaryTokens) * CHARS_PER_TOKEN
+                                       - stepTurn(latest.description()).length() - TRUNCATION_MARKER.length()
+                                       - 2 * CHARS_PER_TOKEN);
+            StepTurn truncated = new StepTurn(latest.description(),
+                latest.result().substring(0, Math.min(latest.result().length(), maxChars)) + TRUNCATION_MARKER);
+            turns.addLast(truncated);
+            turnTokens += truncated.tokens();
+        }
+
+        messages.clear();
+        messages.add(systemMessage);
+        if (!summaryLines.isEmpty() || omittedSteps > 0) {
+            messages.add(new Message("system", summaryMessage()));
+        }
+        for (StepTurn turn : turns) {
+            messages.add(turn.userMessage());
+            messages.add(turn.assistantMessage());
+        }
+    }
+
+    private String summaryMessage() {
+        StringBuilder summary = new StringBuilder("Summary of earlier steps in this task:\n");
+        if (omittedSteps > 0) {
+            summary.append("- ").append(omittedSteps).append(" earlier step(s) completed, details omitted\n");
+        }
+        for (String line : summaryLines) {
+            summary.append(line).append('\n');
+        }
+        return summary.toString();
+    }
+
+    private static String summaryLine(StepTurn turn) {
+        String result = turn.result().strip().replaceAll("\\s+", " ");
+        int sentenceEnd = result.indexOf(". ");
+        String excerpt = sentenceEnd > 0 ? result.substring(0, sentenceEnd + 1) : result;
+        if (excerpt.length() > SUMMARY_EXCERPT_CHARS) {
+            excerpt = excerpt.substring(0, SUMMARY_EXCERPT_CHARS) + "...";
+        }
+        return "- " + turn.description().strip() + ": " + excerpt;
+    }
+
+    private static String stepTurn(String stepDescription) {
+        return "Step: " + stepDescription;
+    }
+
+    private static int estimateTokens(String text) {
+        return (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+
+    private record StepTurn(String description, String result) {
+
+        int tokens() {
+            return estimateTokens(stepTurn(description)) + estimateTokens(result);
+        }
+
+        Message userMessage() {
+            return new Message("user", stepTurn(description));
+        }
+
+        Message assistantMessage() {
+            return new Message("assistant", result);
+        }
+    }
+}
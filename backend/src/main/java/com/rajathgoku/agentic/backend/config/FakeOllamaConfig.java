@@ -0,0 +1,64 @@
+package com.rajathgoku.agentic.backend.config;
+
+import com.rajathgoku.agentic.backend.llm.FakeOllamaServer;
+import com.rajathgoku.agentic.backend.llm.LlmStatsRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Runs a {@link FakeOllamaServer} inside the application under the {@code fake-ollama}
+ * profile, so the orchestrator can be load-tested without a GPU. The profile's properties
+ * point {@code llm.ollama.base.url} at it.
+ */
+@Configuration
+@Profile("fake-ollama")
+public class FakeOllamaConfig {
+
+    @Value("${llm.fake.port:11435}")
+    private int port;
+
+    @Value("${llm.ollama.model:llama3.1:8b}")
+    private String model;
+
+    @Value("${llm.fake.latency.distribution:LOGNORMAL}")
+    private FakeOllamaServer.LatencyDistribution latencyDistribution;
+
+    @Value("${llm.fake.latency.median.ms:800}")
+    private long latencyMedianMs;
+
+    @Value("${llm.fake.latency.shape:0.5}")
+    private double latencyShape;
+
+    @Value("${llm.fake.latency.max.ms:60000}")
+    private long latencyMaxMs;
+
+    @Value("${llm.fake.tokens.per.second:40}")
+    private double tokensPerSecond;
+
+    @Value("${llm.fake.response.tokens:60}")
+    private int responseTokens;
+
+    @Value("${llm.fake.error.rate:0.0}")
+    private double errorRate;
+
+    @Value("${llm.fake.parallel:4}")
+    private int parallel;
+
+    @Value("${llm.fake.seed:42}")
+    private long seed;
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public FakeOllamaServer fakeOllamaServer(LlmStatsRegistry statsRegistry) {
+        FakeOllamaServer server = new FakeOllamaServer(port, model,
+            new FakeOllamaServer.LatencyProfile(latencyDistribution, latencyMedianMs, latencyShape, latencyMaxMs),
+            tokensPerSecond, responseTokens, errorRate, parallel, seed);
+        // Canned replies for the prompts whose answers the orchestrator parses
+        server.addRule("respond with ONLY 'SUCCESS' or 'FAILURE'", "SUCCESS");
+        server.addRule("You are an expert planning agent",
+            "1. Analyse the requirements\n2. Implement the solution\n3. Verify the result");
+        statsRegistry.register("fakeOllama", server::getStatistics);
+        return server;
+    }
+}
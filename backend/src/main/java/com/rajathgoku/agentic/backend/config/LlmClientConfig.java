@@ -0,0 +1,392 @@
+package com.rajathgoku.agentic.backend.config;
+
+import com.rajathgoku.agentic.backend.llm.AdaptiveConcurrencyLimiter;
+import com.rajathgoku.agentic.backend.llm.BalancingLlmClient;
+import com.rajathgoku.agentic.backend.llm.BatchingLlmClient;
+import com.rajathgoku.agentic.backend.llm.CachingLlmClient;
+import com.rajathgoku.agentic.backend.llm.CircuitBreakerLlmClient;
+import com.rajathgoku.agentic.backend.llm.ConcurrencyLimitingLlmClient;
+import com.rajathgoku.agentic.backend.llm.DiskLlmResponseCache;
+import com.rajathgoku.agentic.backend.llm.HashingTextEmbedder;
+import com.rajathgoku.agentic.backend.llm.HedgingLlmClient;
+import com.rajathgoku.agentic.backend.llm.LlmCacheStore;
+import com.rajathgoku.agentic.backend.llm.LlmClient;
+import com.rajathgoku.agentic.backend.llm.LlmResponseCache;
+import com.rajathgoku.agentic.backend.llm.LlmStatsRegistry;
+import com.rajathgoku.agentic.backend.llm.LlmUsageListener;
+import com.rajathgoku.agentic.backend.llm.ModelWarmer;
+import com.rajathgoku.agentic.backend.llm.OllamaHealthProber;
+import com.rajathgoku.agentic.backend.llm.OllamaLlmClient;
+import com.rajathgoku.agentic.backend.llm.OllamaTextEmbedder;
+import com.rajathgoku.agentic.backend.llm.RoutingLlmClient;
+import com.rajathgoku.agentic.backend.llm.SemanticResponseCache;
+import com.rajathgoku.agentic.backend.llm.SingleFlightLlmClient;
+import com.rajathgoku.agentic.backend.llm.TextEmbedder;
+import com.rajathgoku.agentic.backend.llm.TieredLlmCacheStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assembles the {@link LlmClient} the agents talk to: the Ollama transport wrapped in
+ * the configured decorators. Only the outermost client is exposed as a bean so agents
+ * keep injecting a plain {@code LlmClient}.
+ */
+@Configuration
+public class LlmClientConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(LlmClientConfig.class);
+
+    @Value("${llm.ollama.base.url:http://host.docker.internal:11434}")
+    private String ollamaBaseUrl;
+
+    @Value("${llm.ollama.model:llama3.1:8b}")
+    private String ollamaModel;
+
+    @Value("${llm.ollama.endpoints:}")
+    private String ollamaEndpoints;
+
+    @Value("${llm.ollama.keep.alive:30m}")
+    private String ollamaKeepAlive;
+
+    @Value("${llm.balancer.affinity.enabled:true}")
+    private boolean balancerAffinityEnabled;
+
+    @Value("${llm.balancer.failure.threshold:3}")
+    private int balancerFailureThreshold;
+
+    @Value("${llm.balancer.ejection.seconds:30}")
+    private long balancerEjectionSeconds;
+
+    @Value("${llm.balancer.max.ejection.seconds:300}")
+    private long balancerMaxEjectionSeconds;
+
+    @Value("${llm.http.read.timeout.ms:300000}")
+    private long readTimeoutMs;
+
+    @Value("${llm.cache.enabled:true}")
+    private boolean cacheEnabled;
+
+    @Value("${llm.cache.max.bytes:67108864}")
+    private long cacheMaxBytes;
+
+    @Value("${llm.cache.ttl.minutes:60}")
+    private long cacheTtlMinutes;
+
+    @Value("${llm.limiter.enabled:true}")
+    private boolean limiterEnabled;
+
+    @Value("${llm.limiter.initial.limit:4}")
+    private int limiterInitialLimit;
+
+    @Value("${llm.limiter.min.limit:1}")
+    private int limiterMinLimit;
+
+    @Value("${llm.limiter.max.limit:32}")
+    private int limiterMaxLimit;
+
+    @Value("${llm.limiter.queue.size:100}")
+    private int limiterQueueSize;
+
+    @Value("${llm.limiter.queue.timeout.ms:60000}")
+    private long limiterQueueTimeoutMs;
+
+    @Value("${llm.limiter.latency.tolerance:3.0}")
+    private double limiterLatencyTolerance;
+
+    @Value("${llm.limiter.backoff.ratio:0.9}")
+    private double limiterBackoffRatio;
+
+    @Value("${llm.hedging.enabled:false}")
+    private boolean hedgingEnabled;
+
+    @Value("${llm.hedging.percentile:0.95}")
+    private double hedgingPercentile;
+
+    @Value("${llm.hedging.min.delay.ms:2000}")
+    private long hedgingMinDelayMs;
+
+    @Value("${llm.hedging.min.samples:20}")
+    private int hedgingMinSamples;
+
+    @Value("${llm.hedging.max.ratio:0.1}")
+    private double hedgingMaxRatio;
+
+    @Value("${llm.circuit.enabled:true}")
+    private boolean circuitEnabled;
+
+    @Value("${llm.circuit.failure.rate.threshold:0.5}")
+    private double circuitFailureRateThreshold;
+
+    @Value("${llm.circuit.window.size:20}")
+    private int circuitWindowSize;
+
+    @Value("${llm.circuit.minimum.calls:5}")
+    private int circuitMinimumCalls;
+
+    @Value("${llm.circuit.open.seconds:30}")
+    private long circuitOpenSeconds;
+
+    @Value("${llm.coalescing.enabled:true}")
+    private boolean coalescingEnabled;
+
+    @Value("${llm.cache.disk.dir:./data/llm-cache}")
+    private String diskCacheDir;
+
+    @Value("${llm.cache.disk.max.bytes:1073741824}")
+    private long diskCacheMaxBytes;
+
+    @Value("${llm.cache.disk.segment.bytes:16777216}")
+    private long diskCacheSegmentBytes;
+
+    @Value("${llm.cache.disk.ttl.hours:168}")
+    private long diskCacheTtlHours;
+
+    @Value("${llm.routing.enabled:true}")
+    private boolean routingEnabled;
+
+    @Value("${llm.batch.enabled:true}")
+    private boolean batchEnabled;
+
+    @Value("${llm.batch.max.in.flight.per.endpoint:4}")
+    private int batchMaxInFlightPerEndpoint;
+
+    @Value("${llm.semantic.cache.embedder:ollama}")
+    private String semanticCacheEmbedder;
+
+    @Value("${llm.semantic.cache.embedding.model:nomic-embed-text}")
+    private String semanticCacheEmbeddingModel;
+
+    @Value("${llm.semantic.cache.embedding.timeout.ms:5000}")
+    private long semanticCacheEmbeddingTimeoutMs;
+
+    @Value("${llm.semantic.cache.threshold:0.97}")
+    private double semanticCacheThreshold;
+
+    @Value("${llm.semantic.cache.max.entries:2000}")
+    private int semanticCacheMaxEntries;
+
+    @Value("${llm.semantic.cache.ttl.hours:24}")
+    private long semanticCacheTtlHours;
+
+    @Value("${llm.semantic.cache.hnsw.m:16}")
+    private int semanticCacheHnswM;
+
+    @Value("${llm.semantic.cache.hnsw.ef.construction:100}")
+    private int semanticCacheHnswEfConstruction;
+
+    @Value("${llm.semantic.cache.hnsw.ef.search:50}")
+    private int semanticCacheHnswEfSearch;
+
+    @Value("${llm.semantic.cache.retry.seconds:60}")
+    private long semanticCacheRetrySeconds;
+
+    @Value("${llm.health.probe.interval.ms:15000}")
+    private long healthProbeIntervalMs;
+
+    @Value("${llm.health.probe.timeout.ms:2000}")
+    private long healthProbeTimeoutMs;
+
+    @Value("${llm.warmup.enabled:true}")
+    private boolean warmupEnabled;
+
+    @Value("${llm.warmup.models:}")
+    private String warmupModels;
+
+    @Value("${llm.warmup.timeout.seconds:180}")
+    private long warmupTimeoutSeconds;
+
+    @Value("${llm.warmup.max.wait.seconds:300}")
+    private long warmupMaxWaitSeconds;
+
+    @Value("${llm.warmup.retry.seconds:60}")
+    private long warmupRetrySeconds;
+
+    @Value("${llm.warmup.refresh.minutes:10}")
+    private long warmupRefreshMinutes;
+
+    /**
+     * Background prober behind the LLM health indicator, see {@link OllamaHealthProber}
+     */
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public OllamaHealthProber ollamaHealthProber(@Qualifier("llmAsyncHttpClient") HttpClient llmAsyncHttpClient,
+                                                 LlmStatsRegistry statsRegistry) {
+        OllamaHealthProber prober = new OllamaHealthProber(llmAsyncHttpClient, resolveEndpoints(), ollamaModel,
+            Duration.ofMillis(healthProbeIntervalMs), Duration.ofMillis(healthProbeTimeoutMs));
+        statsRegistry.register("health", prober::getResults);
+        return prober;
+    }
+
+    /**
+     * Loads the models on every host before runs are claimed, see {@link ModelWarmer}
+     */
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public ModelWarmer modelWarmer(@Qualifier("llmAsyncHttpClient") HttpClient llmAsyncHttpClient,
+                                   OllamaHealthProber ollamaHealthProber, LlmStatsRegistry statsRegistry) {
+        List<String> models = List.of();
+        if (warmupEnabled) {
+            models = Arrays.stream(warmupModels.split(","))
+                    .map(String::trim)
+                    .filter(model -> !model.isEmpty())
+                    .distinct()
+                    .toList();
+            if (models.isEmpty()) {
+                models = List.of(ollamaModel);
+            }
+        }
+        ModelWarmer warmer = new ModelWarmer(llmAsyncHttpClient, resolveEndpoints(), models, ollamaKeepAlive,
+            ollamaHealthProber, Duration.ofSeconds(warmupTimeoutSeconds), Duration.ofSeconds(warmupMaxWaitSeconds),
+            Duration.ofSeconds(warmupRetrySeconds), Duration.ofMinutes(warmupRefreshMinutes));
+        statsRegistry.register("warmup", warmer::getStatistics);
+        return warmer;
+    }
+
+    /**
+     * Persistent second cache tier, so completions survive restarts and redeploys
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "llm.cache.disk.enabled", havingValue = "true")
+    public DiskLlmResponseCache llmDiskCache() throws IOException {
+        logger.info("LLM disk cache enabled: dir={}, maxBytes={}, ttl={}h", diskCacheDir, diskCacheMaxBytes, diskCacheTtlHours);
+        return new DiskLlmResponseCache(Path.of(diskCacheDir), diskCacheMaxBytes, diskCacheSegmentBytes,
+                                        Duration.ofHours(diskCacheTtlHours));
+    }
+
+    /**
+     * Meaning-based cache of planner output, see {@link SemanticResponseCache}
+     */
+    @Bean
+    @ConditionalOnProperty(name = "llm.semantic.cache.enabled", havingValue = "true")
+    public SemanticResponseCache semanticResponseCache(@Qualifier("llmAsyncHttpClient") HttpClient llmAsyncHttpClient,
+                                                       LlmStatsRegistry statsRegistry) {
+        TextEmbedder embedder = "hashing".equalsIgnoreCase(semanticCacheEmbedder)
+            ? new HashingTextEmbedder(512)
+            : new OllamaTextEmbedder(llmAsyncHttpClient, resolveEndpoints().get(0), semanticCacheEmbeddingModel,
+                                     ollamaKeepAlive, Duration.ofMillis(semanticCacheEmbeddingTimeoutMs));
+        SemanticResponseCache cache = new SemanticResponseCache(embedder, semanticCacheThreshold, semanticCacheMaxEntries,
+            Duration.ofHours(semanticCacheTtlHours), semanticCacheHnswM, semanticCacheHnswEfConstruction,
+            semanticCacheHnswEfSearch, Duration.ofSeconds(semanticCacheRetrySeconds));
+        statsRegistry.register("semanticCache", cache::getStatistics);
+        logger.info("LLM semantic cache enabled: embedder={}, threshold={}, maxEntries={}",
+                   embedder.getName(), semanticCacheThreshold, semanticCacheMaxEntries);
+        return cache;
+    }
+
+    @Bean
+    public LlmClient agentLlmClient(@Qualifier("llmRestTemplate") RestTemplate llmRestTemplate,
+                                    @Qualifier("llmAsyncHttpClient") HttpClient llmAsyncHttpClient,
+                                    LlmStatsRegistry statsRegistry,
+                                    ObjectProvider<DiskLlmResponseCache> diskCache,
+                                    ObjectProvider<LlmUsageListener> usageListener,
+                                    Environment environment) {
+        List<String> baseUrls = resolveEndpoints();
+        LlmUsageListener usage = usageListener.getIfAvailable(() -> LlmUsageListener.NONE);
+        LlmClient client;
+        if (baseUrls.size() == 1) {
+            client = new OllamaLlmClient(llmRestTemplate, llmAsyncHttpClient, Duration.ofMillis(readTimeoutMs),
+                                         baseUrls.get(0), ollamaModel, ollamaKeepAlive, usage);
+        } else {
+            Map<String, LlmClient> endpointClients = new LinkedHashMap<>();
+            for (String baseUrl : baseUrls) {
+                endpointClients.put(baseUrl, new OllamaLlmClient(llmRestTemplate, llmAsyncHttpClient,
+                                                                 Duration.ofMillis(readTimeoutMs), baseUrl, ollamaModel,
+                                                                 ollamaKeepAlive, usage));
+            }
+            BalancingLlmClient balancer = new BalancingLlmClient(endpointClients, balancerAffinityEnabled,
+                balancerFailureThreshold, Duration.ofSeconds(balancerEjectionSeconds),
+                Duration.ofSeconds(balancerMaxEjectionSeconds));
+            statsRegistry.register("balancer", balancer::getStatistics);
+            client = balancer;
+            logger.info("Balancing LLM calls across {} endpoints: {}", baseUrls.size(), baseUrls);
+        }
+
+        if (limiterEnabled) {
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                limiterInitialLimit, limiterMinLimit, limiterMaxLimit, limiterQueueSize,
+                Duration.ofMillis(limiterQueueTimeoutMs), limiterLatencyTolerance, limiterBackoffRatio);
+            statsRegistry.register("limiter", limiter::getStatistics);
+            client = new ConcurrencyLimitingLlmClient(client, limiter);
+        }
+
+        // A duplicate sent back to the only host would just add load to an already slow backend
+        if (hedgingEnabled && baseUrls.size() > 1) {
+            HedgingLlmClient hedgingClient = new HedgingLlmClient(client, hedgingPercentile, hedgingMinDelayMs,
+                                                                  hedgingMinSamples, hedgingMaxRatio);
+            statsRegistry.register("hedging", hedgingClient::getStatistics);
+            client = hedgingClient;
+        } else if (hedgingEnabled) {
+            logger.info("LLM request hedging disabled: it needs more than one endpoint in llm.ollama.endpoints");
+        }
+
+        if (circuitEnabled) {
+            CircuitBreakerLlmClient circuitBreaker = new CircuitBreakerLlmClient(client, circuitFailureRateThreshold,
+                circuitWindowSize, circuitMinimumCalls, Duration.ofSeconds(circuitOpenSeconds));
+            statsRegistry.register("circuitBreaker", circuitBreaker::getStatistics);
+            client = circuitBreaker;
+        }
+
+        if (coalescingEnabled) {
+            SingleFlightLlmClient singleFlightClient = new SingleFlightLlmClient(client);
+            statsRegistry.register("coalescing", singleFlightClient::getStatistics);
+            client = singleFlightClient;
+        }
+
+        if (cacheEnabled) {
+            LlmResponseCache memoryCache = new LlmResponseCache(cacheMaxBytes, Duration.ofMinutes(cacheTtlMinutes));
+            statsRegistry.register("cache", memoryCache::getStatistics);
+            LlmCacheStore cache = memoryCache;
+
+            DiskLlmResponseCache disk = diskCache.getIfAvailable();
+            if (disk != null) {
+                statsRegistry.register("diskCache", disk::getStatistics);
+                cache = new TieredLlmCacheStore(memoryCache, disk);
+            }
+
+            client = new CachingLlmClient(client, cache);
+            logger.info("LLM response cache enabled: maxBytes={}, ttl={}min, disk tier={}",
+                       cacheMaxBytes, cacheTtlMinutes, disk != null);
+        }
+
+        if (routingEnabled) {
+            RoutingLlmClient routingClient = new RoutingLlmClient(client, environment::getProperty, "llm.route");
+            statsRegistry.register("routing", routingClient::getStatistics);
+            client = routingClient;
+        }
+
+        if (batchEnabled) {
+            BatchingLlmClient batchingClient = new BatchingLlmClient(client, batchMaxInFlightPerEndpoint * baseUrls.size());
+            statsRegistry.register("batch", batchingClient::getStatistics);
+            client = batchingClient;
+        }
+
+        return client;
+    }
+
+    /**
+     * Hosts from {@code llm.ollama.endpoints}, falling back to the single {@code llm.ollama.base.url}
+     */
+    private List<String> resolveEndpoints() {
+        List<String> baseUrls = Arrays.stream(ollamaEndpoints.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .distinct()
+                .toList();
+        return baseUrls.isEmpty() ? List.of(ollamaBaseUrl) : baseUrls;
+    }
+}
@@ -0,0 +1,105 @@
+package com.rajathgoku.agentic.backend.config;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Dedicated HTTP transport for LLM backend calls.
+ *
+ * <p>A run makes several sequential planner/executor/critic calls per step, so connections
+ * are pooled and kept alive between calls instead of paying a TCP handshake each time, and
+ * every phase of a call (pool lease, connect, read) has an explicit timeout so a hung socket
+ * fails the call instead of pinning a worker thread.</p>
+ */
+@Configuration
+public class LlmHttpClientConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(LlmHttpClientConfig.class);
+
+    @Value("${llm.http.pool.max.total:20}")
+    private int maxTotalConnections;
+
+    @Value("${llm.http.pool.max.per.route:10}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${llm.http.pool.acquire.timeout.ms:10000}")
+    private long acquireTimeoutMs;
+
+    @Value("${llm.http.connect.timeout.ms:5000}")
+    private long connectTimeoutMs;
+
+    @Value("${llm.http.read.timeout.ms:300000}")
+    private long readTimeoutMs;
+
+    @Value("${llm.http.idle.timeout.seconds:60}")
+    private long idleTimeoutSeconds;
+
+    @Value("${llm.http.keep.alive.seconds:120}")
+    private long keepAliveSeconds;
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient llmHttpClient() {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotalConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        // Re-check connections that sat idle before reuse, the server may have dropped them
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(acquireTimeoutMs))
+                .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                .build();
+
+        logger.info("Initialized LLM HTTP pool: maxTotal={}, maxPerRoute={}, connectTimeout={}ms, readTimeout={}ms",
+                   maxTotalConnections, maxConnectionsPerRoute, connectTimeoutMs, readTimeoutMs);
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                // Ollama does not advertise a keep-alive duration, so bound it ourselves
+                .setKeepAliveStrategy((response, context) -> TimeValue.ofSeconds(keepAliveSeconds))
+                .evictIdleConnections(TimeValue.ofSeconds(idleTimeoutSeconds))
+                .evictExpiredConnections()
+                .build();
+    }
+
+    @Bean
+    public RestTemplate llmRestTemplate(CloseableHttpClient llmHttpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(llmHttpClient));
+    }
+
+    /**
+     * Non-blocking transport for {@code generateAsync}. Responses are handled on the
+     * client's selector thread, so calls in flight do not each hold a thread; the read
+     * timeout is applied per request by the caller.
+     */
+    @Bean
+    public HttpClient llmAsyncHttpClient() {
+        return HttpClient.newBuilder()
+                // Ollama only speaks HTTP/1.1, skip the h2c upgrade attempt
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+    }
+}
\ No newline at end of file
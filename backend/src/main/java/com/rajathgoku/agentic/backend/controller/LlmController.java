@@ -0,0 +1,27 @@
+package com.rajathgoku.agentic.backend.controller;
+
+import com.rajathgoku.agentic.backend.llm.LlmStatsRegistry;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/llm")
+@CrossOrigin(origins = {"http://localhost:3000", "http://127.0.0.1:3000"})
+public class LlmController {
+
+    private final LlmStatsRegistry statsRegistry;
+
+    public LlmController(LlmStatsRegistry statsRegistry) {
+        this.statsRegistry = statsRegistry;
+    }
+
+    /**
+     * Get statistics for the LLM client chain (cache hits/misses, etc.)
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(statsRegistry.snapshot());
+    }
+}
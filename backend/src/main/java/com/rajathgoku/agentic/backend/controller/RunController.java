@@ -11,9 +11,11 @@ import com.rajathgoku.agentic.backend.entity.Step;
 import com.rajathgoku.agentic.backend.entity.Artifact;
 import com.rajathgoku.agentic.backend.repository.StepRepository;
 import com.rajathgoku.agentic.backend.repository.ArtifactRepository;
+import com.rajathgoku.agentic.backend.repository.LlmUsageTotals;
 import com.rajathgoku.agentic.backend.service.RunService;
 import com.rajathgoku.agentic.backend.service.StepService;
 import com.rajathgoku.agentic.backend.service.ArtifactService;
+import com.rajathgoku.agentic.backend.service.LlmUsageService;
 import com.rajathgoku.agentic.backend.engine.RunOrchestrator;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -56,6 +58,9 @@ public class RunController {
     @Autowired
     private RunOrchestrator runOrchestrator;
 
+    @Autowired
+    private LlmUsageService llmUsageService;
+
     @PostMapping
     public ResponseEntity<RunResponse> createRun(@Valid @RequestBody CreateRunRequest request) {
         RunStatus status = RunStatus.valueOf(request.getStatus().toUpperCase());
@@ -242,22 +247,33 @@ public class RunController {
             Run run = runOpt.get();
             // Use the correct method names from StepService
             List<Step> steps = stepService.getStepsForRun(runId);
-            // Use the existing method from ArtifactRepository that queries by runId
-            List<Artifact> artifacts = artifactRepository.findByStepRunIdOrderByCreatedAt(runId);
+            // Artifacts are only counted and sized in the database, their content is never loaded
+            long artifactCount = artifactRepository.countByStepRunId(runId);
+            long artifactBytes = artifactRepository.sumSizeByStepRunId(runId);
+            // Token counts and timings as reported by the LLM backend for every call of the run
+            LlmUsageTotals usage = llmUsageService.getRunTotals(runId);
             
-            // Calculate real metrics from actual data
-            long tokensProcessed = calculateTokensProcessed(steps, artifacts);
-            int apiCallsMade = steps.size(); // Each step represents an AI agent API call
+            long tokensProcessed = usage.getPromptTokens() + usage.getCompletionTokens();
+            int apiCallsMade = (int) usage.getCalls();
             long processingTimeMs = calculateProcessingTime(run);
-            double complexityScore = calculateComplexityScore(run, steps, artifacts);
+            double complexityScore = calculateComplexityScore(steps.size(), artifactCount, artifactBytes);
             int stepsCompleted = (int) steps.stream().filter(s -> s.getStatus() == Step.StepStatus.DONE).count();
-            int artifactsGenerated = artifacts.size();
+            int artifactsGenerated = (int) artifactCount;
             String currentPhase = determineCurrentPhase(run, steps);
             
             RunMetricsResponse metrics = new RunMetricsResponse(
                 tokensProcessed, apiCallsMade, processingTimeMs, complexityScore,
                 stepsCompleted, artifactsGenerated, currentPhase
             );
+            metrics.setPromptTokens(usage.getPromptTokens());
+            metrics.setCompletionTokens(usage.getCompletionTokens());
+            // Generation speed: generated tokens over the time spent generating them
+            metrics.setTokensPerSecond(usage.getEvalMs() > 0
+                ? usage.getCompletionTokens() * 1000.0 / usage.getEvalMs()
+                : 0.0);
+            metrics.setInferenceTimeMs(usage.getPromptEvalMs() + usage.getEvalMs());
+            metrics.setQueueTimeMs(usage.getQueueMs());
+            metrics.setModelLoadTimeMs(usage.getLoadMs());
             
             return ResponseEntity.ok(metrics);
         } catch (Exception e) {
@@ -266,27 +282,6 @@ public class RunController {
         }
     }
     
-    private long calculateTokensProcessed(List<Step> steps, List<Artifact> artifacts) {
-        // Estimate tokens based on actual content generated
-        long tokens = 0;
-        
-        // Count tokens from step results (approximate: 1 token ≈ 4 characters)
-        for (Step step : steps) {
-            if (step.getResult() != null) {
-                tokens += step.getResult().length() / 4;
-            }
-        }
-        
-        // Count tokens from artifacts
-        for (Artifact artifact : artifacts) {
-            if (artifact.getContent() != null) {
-                tokens += artifact.getContent().length() / 4;
-            }
-        }
-        
-        return Math.max(tokens, 100); // Minimum 100 tokens
-    }
-    
     private long calculateProcessingTime(Run run) {
         if (run.getUpdatedAt() != null && !run.getStatus().equals(RunStatus.PENDING)) {
             return Duration.between(run.getCreatedAt(), run.getUpdatedAt()).toMillis();
@@ -295,19 +290,16 @@ public class RunController {
         }
     }
     
-    private double calculateComplexityScore(Run run, List<Step> steps, List<Artifact> artifacts) {
+    private double calculateComplexityScore(int stepCount, long artifactCount, long totalContentSize) {
         double score = 2.0; // Base complexity
         
         // Add complexity based on number of steps
-        score += Math.min(steps.size() * 0.5, 3.0);
+        score += Math.min(stepCount * 0.5, 3.0);
         
         // Add complexity based on artifacts generated
-        score += Math.min(artifacts.size() * 0.3, 2.0);
+        score += Math.min(artifactCount * 0.3, 2.0);
         
         // Add complexity based on content size
-        long totalContentSize = artifacts.stream()
-            .mapToLong(a -> a.getContent() != null ? a.getContent().length() : 0)
-            .sum();
         score += Math.min(totalContentSize / 1000.0, 2.5);
         
         return Math.min(score, 9.5); // Cap at 9.5
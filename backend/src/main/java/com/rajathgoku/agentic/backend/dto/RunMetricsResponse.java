@@ -8,6 +8,12 @@ public class RunMetricsResponse {
     private int stepsCompleted;
     private int artifactsGenerated;
     private String currentPhase;
+    private long promptTokens;
+    private long completionTokens;
+    private double tokensPerSecond;
+    private long inferenceTimeMs;
+    private long queueTimeMs;
+    private long modelLoadTimeMs;
 
     public RunMetricsResponse() {}
 
@@ -44,4 +50,22 @@ public class RunMetricsResponse {
 
     public String getCurrentPhase() { return currentPhase; }
     public void setCurrentPhase(String currentPhase) { this.currentPhase = currentPhase; }
+
+    public long getPromptTokens() { return promptTokens; }
+    public void setPromptTokens(long promptTokens) { this.promptTokens = promptTokens; }
+
+    public long getCompletionTokens() { return completionTokens; }
+    public void setCompletionTokens(long completionTokens) { this.completionTokens = completionTokens; }
+
+    public double getTokensPerSecond() { return tokensPerSecond; }
+    public void setTokensPerSecond(double tokensPerSecond) { this.tokensPerSecond = tokensPerSecond; }
+
+    public long getInferenceTimeMs() { return inferenceTimeMs; }
+    public void setInferenceTimeMs(long inferenceTimeMs) { this.inferenceTimeMs = inferenceTimeMs; }
+
+    public long getQueueTimeMs() { return queueTimeMs; }
+    public void setQueueTimeMs(long queueTimeMs) { this.queueTimeMs = queueTimeMs; }
+
+    public long getModelLoadTimeMs() { return modelLoadTimeMs; }
+    public void setModelLoadTimeMs(long modelLoadTimeMs) { this.modelLoadTimeMs = modelLoadTimeMs; }
 }
\ No newline at end of file
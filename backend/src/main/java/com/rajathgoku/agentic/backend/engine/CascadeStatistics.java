@@ -0,0 +1,83 @@
+package com.rajathgoku.agentic.backend.engine;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outcome and latency of each tier of the orchestrator's model cascade: how many runs a tier
+ * executed, how many of them the critic accepted, and how long the tier took, execution and
+ * critique included. Runs accepted at the draft tier never pay for the large model.
+ */
+public class CascadeStatistics {
+
+    public enum Tier { DRAFT, ESCALATED }
+
+    private final Map<Tier, TierCounters> tiers = new EnumMap<>(Tier.class);
+    private final AtomicLong rerunSteps = new AtomicLong();
+    private final AtomicLong keptSteps = new AtomicLong();
+
+    CascadeStatistics() {
+        for (Tier tier : Tier.values()) {
+            tiers.put(tier, new TierCounters());
+        }
+    }
+
+    /**
+     * @param steps steps the tier executed
+     * @param elapsedNanos time from the tier's first step to its critique verdict
+     */
+    void record(Tier tier, boolean successful, int steps, long elapsedNanos) {
+        TierCounters counters = tiers.get(tier);
+        counters.runs.incrementAndGet();
+        if (successful) {
+            counters.successes.incrementAndGet();
+        }
+        counters.steps.addAndGet(steps);
+        counters.elapsedNanos.addAndGet(elapsedNanos);
+    }
+
+    /**
+     * @param rerun draft steps executed again on the large model
+     * @param kept draft steps whose results were kept for the escalated run
+     */
+    void recordEscalation(int rerun, int kept) {
+        rerunSteps.addAndGet(rerun);
+        keptSteps.addAndGet(kept);
+    }
+
+    Statistics snapshot() {
+        Map<Tier, TierStatistics> snapshot = new EnumMap<>(Tier.class);
+        tiers.forEach((tier, counters) -> snapshot.put(tier, counters.snapshot()));
+        return new Statistics(snapshot, rerunSteps.get(), keptSteps.get());
+    }
+
+    private static final class TierCounters {
+        private final AtomicLong runs = new AtomicLong();
+        private final AtomicLong successes = new AtomicLong();
+        private final AtomicLong steps = new AtomicLong();
+        private final AtomicLong elapsedNanos = new AtomicLong();
+
+        private TierStatistics snapshot() {
+            long runCount = runs.get();
+            long successCount = successes.get();
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos.get());
+            return new TierStatistics(runCount, successCount,
+                                      runCount > 0 ? (double) successCount / runCount : 0.0,
+                                      steps.get(), runCount > 0 ? elapsedMs / runCount : 0);
+        }
+    }
+
+    /**
+     * @param successRate share of the tier's runs the critic accepted
+     * @param averageMs average time of the tier per run, execution and critique included
+     */
+    public record TierStatistics(long runs, long successes, double successRate, long steps, long averageMs) {}
+
+    /**
+     * @param rerunSteps draft steps executed again on the large model
+     * @param keptSteps draft steps kept when only the failing steps were escalated
+     */
+    public record Statistics(Map<Tier, TierStatistics> tiers, long rerunSteps, long keptSteps) {}
+}
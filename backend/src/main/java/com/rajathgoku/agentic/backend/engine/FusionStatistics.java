@@ -0,0 +1,43 @@
+package com.rajathgoku.agentic.backend.engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Effect of the orchestrator's step fusion: how many executor calls ran several small plan
+ * steps at once, how many steps they completed, and the round trips that saved. Steps whose
+ * results the fused response did not mark are executed separately and counted as unsplit.
+ */
+public class FusionStatistics {
+
+    private final AtomicLong fusedCalls = new AtomicLong();
+    private final AtomicLong fusedSteps = new AtomicLong();
+    private final AtomicLong unsplitSteps = new AtomicLong();
+
+    FusionStatistics() {
+    }
+
+    /**
+     * @param requested steps sent in the fused call
+     * @param completed steps whose results could be split from its response
+     */
+    void record(int requested, int completed) {
+        fusedCalls.incrementAndGet();
+        fusedSteps.addAndGet(completed);
+        unsplitSteps.addAndGet(requested - completed);
+    }
+
+    Statistics snapshot() {
+        long calls = fusedCalls.get();
+        long steps = fusedSteps.get();
+        return new Statistics(calls, steps, unsplitSteps.get(), steps - calls,
+                              calls > 0 ? (double) steps / calls : 0.0);
+    }
+
+    /**
+     * @param unsplitSteps steps sent in a fused call that had to be executed again separately
+     * @param savedCalls executor calls saved, one per completed step beyond the first of each call
+     * @param averageStepsPerCall steps completed per fused call
+     */
+    public record Statistics(long fusedCalls, long fusedSteps, long unsplitSteps, long savedCalls,
+                             double averageStepsPerCall) {}
+}
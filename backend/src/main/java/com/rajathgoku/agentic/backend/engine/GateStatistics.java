@@ -0,0 +1,73 @@
+package com.rajathgoku.agentic.backend.engine;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cost and savings of the orchestrator's per-step gate: how many steps it checked and how
+ * long that took, how many runs it aborted, and the LLM calls and time those aborts saved by
+ * not executing the remaining steps and the critique. Saved time is an estimate, the run's
+ * average step time per call that was not made.
+ */
+public class GateStatistics {
+
+    private final AtomicLong checks = new AtomicLong();
+    private final AtomicLong checkFailures = new AtomicLong();
+    private final AtomicLong truncatedAnswers = new AtomicLong();
+    private final AtomicLong checkNanos = new AtomicLong();
+    private final AtomicLong aborts = new AtomicLong();
+    private final AtomicLong skippedSteps = new AtomicLong();
+    private final AtomicLong savedCalls = new AtomicLong();
+    private final AtomicLong savedNanos = new AtomicLong();
+
+    GateStatistics() {
+    }
+
+    /**
+     * @param failed the check itself failed and the step was let through
+     * @param truncated the gate's answer was cut off by its token limit
+     */
+    void recordCheck(long elapsedNanos, boolean failed, boolean truncated) {
+        checks.incrementAndGet();
+        checkNanos.addAndGet(elapsedNanos);
+        if (failed) {
+            checkFailures.incrementAndGet();
+        }
+        if (truncated) {
+            truncatedAnswers.incrementAndGet();
+        }
+    }
+
+    /**
+     * @param skipped plan steps left unexecuted
+     * @param calls LLM calls not made, skipped steps and critique included
+     * @param estimatedNanos estimated time those calls would have taken
+     */
+    void recordAbort(int skipped, int calls, long estimatedNanos) {
+        aborts.incrementAndGet();
+        skippedSteps.addAndGet(skipped);
+        savedCalls.addAndGet(calls);
+        savedNanos.addAndGet(estimatedNanos);
+    }
+
+    Statistics snapshot() {
+        long checkCount = checks.get();
+        return new Statistics(checkCount, checkFailures.get(), truncatedAnswers.get(),
+                              checkCount > 0 ? TimeUnit.NANOSECONDS.toMillis(checkNanos.get()) / checkCount : 0,
+                              aborts.get(), skippedSteps.get(), savedCalls.get(),
+                              TimeUnit.NANOSECONDS.toSeconds(savedNanos.get()));
+    }
+
+    /**
+     * @param checks steps checked, one LLM call each
+     * @param checkFailures checks that failed and let their step through
+     * @param truncatedAnswers answers cut off by the gate's token limit, failed checks or not
+     * @param averageCheckMs average time of a check
+     * @param aborts runs stopped by the gate
+     * @param skippedSteps plan steps the aborted runs did not execute
+     * @param savedCalls LLM calls the aborted runs did not make
+     * @param estimatedSavedSeconds estimated time of those calls
+     */
+    public record Statistics(long checks, long checkFailures, long truncatedAnswers, long averageCheckMs, long aborts,
+                             long skippedSteps, long savedCalls, long estimatedSavedSeconds) {}
+}
@@ -11,6 +11,10 @@ import com.rajathgoku.agentic.backend.service.TaskService;
 import com.rajathgoku.agentic.backend.agent.PlannerAgent;
 import com.rajathgoku.agentic.backend.agent.ExecutorAgent;
 import com.rajathgoku.agentic.backend.agent.CriticAgent;
+import com.rajathgoku.agentic.backend.agent.StepConversation;
+import com.rajathgoku.agentic.backend.llm.LlmCallContext;
+import com.rajathgoku.agentic.backend.llm.LlmStatsRegistry;
+import com.rajathgoku.agentic.backend.llm.ModelWarmer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -29,7 +33,9 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.List;
 import java.util.ArrayList;
 
@@ -52,6 +58,54 @@ public class RunOrchestrator {
     
     @Value("${orchestrator.retry.backoff.seconds:5}")
     private int retryBackoffSeconds;
+    
+    @Value("${orchestrator.stream.flush.chars:256}")
+    private int streamFlushChars;
+    
+    @Value("${orchestrator.stream.flush.interval.ms:500}")
+    private long streamFlushIntervalMs;
+    
+    @Value("${orchestrator.context.token.budget:6000}")
+    private int contextTokenBudget;
+    
+    @Value("${orchestrator.cascade.enabled:false}")
+    private boolean cascadeEnabled;
+    
+    @Value("${orchestrator.cascade.draft.model:llama3.2:3b}")
+    private String cascadeDraftModel;
+    
+    @Value("${orchestrator.cascade.escalate:steps}")
+    private String cascadeEscalate;
+
+    @Value("${orchestrator.critique.mode:verdict}")
+    private String critiqueMode;
+
+    @Value("${orchestrator.critique.chunk.token.budget:3000}")
+    private int critiqueChunkTokenBudget;
+
+    @Value("${orchestrator.fusion.enabled:false}")
+    private boolean fusionEnabled;
+
+    @Value("${orchestrator.fusion.step.max.tokens:300}")
+    private int fusionStepMaxTokens;
+
+    @Value("${orchestrator.fusion.max.tokens:1200}")
+    private int fusionGroupMaxTokens;
+
+    @Value("${orchestrator.fusion.max.steps:4}")
+    private int fusionMaxSteps;
+
+    @Value("${orchestrator.gate.enabled:false}")
+    private boolean gateEnabled;
+
+    @Value("${orchestrator.gate.min.score:30}")
+    private int gateMinScore;
+
+    /** Escalation mode that re-executes only the draft steps the critic flags as failing */
+    private static final String CASCADE_ESCALATE_STEPS = "steps";
+
+    /** Critique mode that evaluates and decides in one JSON call instead of evaluation then decision */
+    private static final String CRITIQUE_MODE_VERDICT = "verdict";
 
     private final RunService runService;
     private final StepService stepService;
@@ -60,6 +114,13 @@ public class RunOrchestrator {
     private final PlannerAgent plannerAgent;
     private final ExecutorAgent executorAgent;
     private final CriticAgent criticAgent;
+    private final ModelWarmer modelWarmer;
+    private final CascadeStatistics cascadeStatistics = new CascadeStatistics();
+    private final GateStatistics gateStatistics = new GateStatistics();
+    private final FusionStatistics fusionStatistics = new FusionStatistics();
+
+    /** Abandon flag of the step attempt running on this worker thread, for its output streamers */
+    private final ThreadLocal<AtomicBoolean> currentAttemptAbandoned = new ThreadLocal<>();
 
     // Worker pool for concurrent step execution
     private ThreadPoolExecutor stepExecutorPool;
@@ -71,7 +132,9 @@ public class RunOrchestrator {
                           TaskService taskService,
                           PlannerAgent plannerAgent,
                           ExecutorAgent executorAgent,
-                          CriticAgent criticAgent) {
+                          CriticAgent criticAgent,
+                          ModelWarmer modelWarmer,
+                          LlmStatsRegistry statsRegistry) {
         this.runService = runService;
         this.stepService = stepService;
         this.artifactService = artifactService;
@@ -79,6 +142,10 @@ public class RunOrchestrator {
         this.plannerAgent = plannerAgent;
         this.executorAgent = executorAgent;
         this.criticAgent = criticAgent;
+        this.modelWarmer = modelWarmer;
+        statsRegistry.register("cascade", cascadeStatistics::snapshot);
+        statsRegistry.register("gate", gateStatistics::snapshot);
+        statsRegistry.register("fusion", fusionStatistics::snapshot);
     }
 
     @PostConstruct
@@ -100,6 +167,13 @@ public class RunOrchestrator {
         }
 
         try {
+            // Don't start runs on a cold model: its load time would count against the first step's timeout
+            if (!modelWarmer.isReady()
+                    || (runService.getRunCountByStatus(RunStatus.PENDING) > 0 && !modelWarmer.ensureWarm())) {
+                logger.debug("Waiting for LLM models to warm up before claiming runs");
+                return;
+            }
+            
             Optional<Run> claimedRun = runService.claimNextPendingRun();
             
             if (claimedRun.isPresent()) {
@@ -169,6 +243,8 @@ public class RunOrchestrator {
     public CompletableFuture<Void> processRunAsync(Run run) {
         int workerId = activeWorkers.incrementAndGet();
         logger.info("Worker #{} starting AI-driven processing of run ID: {}", workerId, run.getId());
+        // Tag LLM calls made on this thread with the run, e.g. to keep the run on one LLM host
+        LlmCallContext.Scope llmContext = LlmCallContext.forRun(run.getId());
         
         try {
             // 🔍 DB READ: Get the task details from database
@@ -177,17 +253,18 @@ public class RunOrchestrator {
             logger.info("Worker #{} processing task: {}", workerId, taskDescription);
 
             // === PHASE 1: PLANNING ===
+            PlannerAgent.ExecutionPlan plan;
             try {
                 Step planningStep = stepService.createStep(run, "AI Planning Phase", 1);
                 Step startedPlanningStep = stepService.startStep(planningStep);
                 
-                // Create detailed text plan
-                String detailedPlan = plannerAgent.createPlan(task.getDescription());
-                artifactService.createTextArtifact(startedPlanningStep, "execution_plan.md", formatAsMarkdown(detailedPlan));
-                
-                // Create structured JSON plan
-                String jsonPlan = plannerAgent.createStructuredPlan(task.getDescription());
-                artifactService.createJsonArtifact(startedPlanningStep, "structured_plan.json", jsonPlan);
+                // Plan in one JSON call, streaming it into the planning step as it is generated;
+                // the Markdown plan is rendered from the same structure
+                try (StepOutputStreamer planOutput = streamTo(startedPlanningStep)) {
+                    plan = plannerAgent.streamExecutionPlan(task.getDescription(), planOutput);
+                }
+                artifactService.createTextArtifact(startedPlanningStep, "execution_plan.md", plan.toMarkdown());
+                artifactService.createJsonArtifact(startedPlanningStep, "structured_plan.json", plan.json());
                 
                 // Create task analysis artifact
                 String analysisContent = createTaskAnalysis(task);
@@ -203,128 +280,471 @@ public class RunOrchestrator {
             }
 
             // === PHASE 2: SEQUENTIAL EXECUTION (Changed from parallel to avoid race conditions) ===
-            String[] planSteps = plannerAgent.breakDownPlan(taskDescription);
-            List<Step> completedSteps = new ArrayList<>();
+            List<PlannerAgent.PlannedStep> planSteps = plan.steps();
+            int critiqueOrder = planSteps.size() + 2;
+            long draftStart = System.nanoTime();
+            Step[] executedSteps;
+            CritiqueOutcome critique;
+            try {
+                // In cascade mode the run is drafted on the small model first
+                executedSteps = executePlanSteps(run, workerId, planSteps, null, "Execute: ", 2,
+                                                 cascadeEnabled ? cascadeDraftModel : null);
+
+                // === PHASE 3: CRITIQUE & EVALUATION ===
+                critique = critiqueRun(run, workerId, taskDescription, descriptionsOf(planSteps, executedSteps),
+                                       resultsOf(executedSteps), "AI Critique & Evaluation", critiqueOrder);
+            } catch (StepGateAbort abort) {
+                if (!cascadeEnabled) {
+                    throw abort;
+                }
+                // The draft went wrong: escalate it without critiquing it
+                executedSteps = abort.executedSteps();
+                critique = abort.toCritique();
+            }
             
-            // Execute steps sequentially to avoid concurrency issues
-            for (int i = 0; i < planSteps.length; i++) {
-                if (planSteps[i].trim().isEmpty()) continue;
-                
-                final int stepIndex = i;
-                final String stepDescription = planSteps[i];
-                
-                Step stepResult = executeStepWithRetry(run, 
-                    "Execute: " + stepDescription.substring(0, Math.min(50, stepDescription.length())), 
-                    stepIndex + 2, 
+            // === CASCADE: ESCALATE TO THE LARGE MODEL ===
+            if (cascadeEnabled) {
+                cascadeStatistics.record(CascadeStatistics.Tier.DRAFT, critique.successful(),
+                                         countSteps(executedSteps), System.nanoTime() - draftStart);
+                if (!critique.successful()) {
+                    critique = escalateRun(run, workerId, taskDescription, planSteps, executedSteps, critique,
+                                           critiqueOrder + 1);
+                }
+            }
+            
+            boolean isSuccessful = critique.successful();
+            String evaluation = critique.evaluation();
+
+            // === FINALIZE RUN ===
+            if (isSuccessful) {
+                runService.markRunAsCompleted(run.getId());
+                logger.info("Worker #{} ✅ Successfully completed run ID: {} with {} execution steps", 
+                          workerId, run.getId(), planSteps.size());
+            } else {
+                runService.markRunAsFailed(run.getId(), "Critique agent determined execution was not successful: " + evaluation);
+                logger.warn("Worker #{} ❌ Run ID: {} marked as failed after critique evaluation", workerId, run.getId());
+            }
+
+        } catch (StepGateAbort abort) {
+            logger.warn("Worker #{} ❌ Run ID: {} aborted early - {}", workerId, run.getId(), abort.getMessage());
+            runService.markRunAsFailed(run.getId(), abort.getMessage());
+        } catch (Exception e) {
+            logger.error("Worker #{} Error processing run ID: {}, marking as FAILED. Error: {}", workerId, run.getId(), e.getMessage(), e);
+            runService.markRunAsFailed(run.getId(), "Execution failed: " + e.getMessage());
+        } finally {
+            llmContext.close();
+            activeWorkers.decrementAndGet();
+        }
+
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Execute the plan's steps one after another in a single executor conversation
+     * 
+     * @param keep steps whose results are kept instead of executing them again, aligned with
+     *             {@code planSteps}; {@code null} to execute every step
+     * @param firstStepOrder step order of the first plan step, later steps follow their plan index
+     * @param model model to execute on, {@code null} for the configured route
+     * @return the steps aligned with {@code planSteps}
+     * @throws StepGateAbort if the step gate is enabled and a step scores below its threshold
+     */
+    private Step[] executePlanSteps(Run run, int workerId, List<PlannerAgent.PlannedStep> planSteps, Step[] keep,
+                                    String namePrefix, int firstStepOrder, String model) throws Exception {
+        Step[] executedSteps = new Step[planSteps.size()];
+        // Previous steps are carried as conversation turns so the backend can reuse the cached prefix,
+        // within a token budget so long plans don't outgrow the model's context window
+        StepConversation conversation = executorAgent.startConversation(contextTokenBudget, model);
+        long executionNanos = 0;
+        int executedCount = 0;
+        
+        // Execute steps sequentially to avoid concurrency issues
+        for (int i = 0; i < planSteps.size(); i++) {
+            final int stepIndex = i;
+            final PlannerAgent.PlannedStep plannedStep = planSteps.get(i);
+            final String stepDescription = plannedStep.instruction();
+            
+            if (keep != null && keep[i] != null) {
+                executedSteps[i] = keep[i];
+                conversation.recordStep(stepDescription, keep[i].getResult());
+                continue;
+            }
+            
+            long stepStart = System.nanoTime();
+            // Small adjacent steps are executed together in one LLM call
+            int fusedEnd = fusionEnabled ? fusionGroupEnd(planSteps, keep, i) : i + 1;
+            Step[] completedSteps;
+            if (fusedEnd - i > 1) {
+                completedSteps = executeFusedSteps(run, workerId, planSteps, i, fusedEnd, conversation, namePrefix,
+                                                   firstStepOrder);
+            } else {
+                completedSteps = new Step[] {executeStepWithRetry(run, 
+                    stepName(namePrefix, stepDescription), 
+                    firstStepOrder + stepIndex, 
                     () -> {
                         logger.info("Worker #{} Phase 2: Executing step {} of {} for run ID: {}", 
-                                  workerId, stepIndex + 1, planSteps.length, run.getId());
-                        
-                        // Get previous step results for context (thread-safe)
-                        String context = null;
-                        if (stepIndex > 0 && !completedSteps.isEmpty()) {
-                            List<String> previousResults = new ArrayList<>();
-                            for (Step prevStep : completedSteps) {
-                                if (prevStep != null && prevStep.getResult() != null) {
-                                    previousResults.add(prevStep.getResult());
-                                }
-                            }
-                            context = String.join("\n", previousResults);
-                        }
+                                  workerId, stepIndex + 1, planSteps.size(), run.getId());
                         
-                        ExecutorAgent.ExecutionResult result = executorAgent.executeWithArtifact(stepDescription, context);
-                        
-                        // Store multiple artifacts for this step execution
+                        // Stream the step result into its row while the executor generates it
                         Step currentStep = stepService.getCurrentStepForWorker();
+                        ExecutorAgent.ExecutionResult result;
                         if (currentStep != null) {
-                            // Create execution log artifact
-                            artifactService.createTextArtifact(currentStep, 
-                                String.format("step_%d_execution.log", stepIndex + 1), 
-                                result.executionLog());
-                            
-                            // Create code artifact if available
-                            if (result.codeArtifact() != null && !result.codeArtifact().isEmpty()) {
-                                String fileExtension = determineFileExtension(stepDescription);
-                                artifactService.createTextArtifact(currentStep, 
-                                    String.format("step_%d_code%s", stepIndex + 1, fileExtension), 
-                                    result.codeArtifact());
-                            }
-                            
-                            // Create documentation artifact
-                            if (result.documentation() != null && !result.documentation().isEmpty()) {
-                                artifactService.createTextArtifact(currentStep, 
-                                    String.format("step_%d_documentation.md", stepIndex + 1), 
-                                    result.documentation());
+                            try (StepOutputStreamer output = streamTo(currentStep)) {
+                                result = executorAgent.executeInConversationStreaming(conversation, stepDescription, output);
                             }
+                            createStepArtifacts(currentStep, stepIndex, plannedStep, result);
+                        } else {
+                            result = executorAgent.executeInConversation(conversation, stepDescription);
                         }
                         
                         return result.result();
-                    }).get(); // Get the result immediately for sequential processing
-                
-                completedSteps.add(stepResult);
+                    }).get()}; // Get the result immediately for sequential processing
+            }
+            
+            executionNanos += System.nanoTime() - stepStart;
+            executedCount += completedSteps.length;
+            
+            for (int j = 0; j < completedSteps.length; j++) {
+                Step stepResult = completedSteps[j];
+                executedSteps[i + j] = stepResult;
+                conversation.recordStep(planSteps.get(i + j).instruction(), stepResult != null ? stepResult.getResult() : null);
                 logger.info("Worker #{} Completed step {} of {} for run ID: {}", 
-                          workerId, stepIndex + 1, planSteps.length, run.getId());
+                          workerId, i + j + 1, planSteps.size(), run.getId());
             }
             
-            logger.info("Worker #{} All {} execution steps completed for run ID: {}", 
-                      workerId, completedSteps.size(), run.getId());
-
-            // Collect all step results
-            String[] stepResults = new String[completedSteps.size()];
-            for (int i = 0; i < completedSteps.size(); i++) {
-                Step completedStep = completedSteps.get(i);
-                stepResults[i] = completedStep != null ? completedStep.getResult() : "";
+            if (gateEnabled) {
+                for (int j = 0; j < completedSteps.length; j++) {
+                    checkStep(run, workerId, planSteps, keep, executedSteps, i + j, completedSteps[j],
+                              executionNanos / executedCount);
+                }
+            }
+            i += completedSteps.length - 1;
+        }
+        
+        logger.info("Worker #{} All {} execution steps completed for run ID: {}", 
+                  workerId, countSteps(executedSteps), run.getId());
+        return executedSteps;
+    }
+
+    /**
+     * Execute plan steps {@code from} to {@code to} (exclusive) in one executor call and split
+     * its response back into one step row, with its artifacts, per plan step.
+     * 
+     * <p>The first step's row carries the call, with its retries and timeout, and streams the
+     * combined response until it completes with its own part. The other steps get rows of their
+     * own holding their parts.</p>
+     * 
+     * @return the completed steps from {@code from} on; fewer than requested (at least one) when
+     *         the response could not be split for all of them, the rest are then executed separately
+     */
+    private Step[] executeFusedSteps(Run run, int workerId, List<PlannerAgent.PlannedStep> planSteps, int from, int to,
+                                     StepConversation conversation, String namePrefix, int firstStepOrder) throws Exception {
+        List<String> descriptions = planSteps.subList(from, to).stream()
+            .map(PlannerAgent.PlannedStep::instruction)
+            .toList();
+        AtomicReference<List<ExecutorAgent.ExecutionResult>> fused = new AtomicReference<>();
+        Step firstStep = executeStepWithRetry(run, stepName(namePrefix, descriptions.get(0)), firstStepOrder + from, () -> {
+            logger.info("Worker #{} Phase 2: Executing steps {}-{} of {} in one call for run ID: {}", 
+                      workerId, from + 1, to, planSteps.size(), run.getId());
+            
+            Step currentStep = stepService.getCurrentStepForWorker();
+            List<ExecutorAgent.ExecutionResult> results;
+            if (currentStep != null) {
+                try (StepOutputStreamer output = streamTo(currentStep)) {
+                    results = executorAgent.executeFusedInConversationStreaming(conversation, descriptions, output);
+                }
+                createStepArtifacts(currentStep, from, planSteps.get(from), results.get(0));
+            } else {
+                results = executorAgent.executeFusedInConversation(conversation, descriptions);
+            }
+            fused.set(results);
+            return results.get(0).result();
+        }).get();
+        
+        List<ExecutorAgent.ExecutionResult> results = fused.get();
+        Step[] completedSteps = new Step[results.size()];
+        completedSteps[0] = firstStep;
+        for (int j = 1; j < results.size(); j++) {
+            int index = from + j;
+            Step step = stepService.startStep(
+                stepService.createStep(run, stepName(namePrefix, descriptions.get(j)), firstStepOrder + index));
+            createStepArtifacts(step, index, planSteps.get(index), results.get(j));
+            completedSteps[j] = stepService.completeStep(step, results.get(j).result());
+        }
+        
+        fusionStatistics.record(to - from, results.size());
+        if (results.size() < to - from) {
+            logger.warn("Worker #{} Fused response for steps {}-{} of run ID: {} held {} step result(s), executing the rest separately",
+                       workerId, from + 1, to, run.getId(), results.size());
+        }
+        return completedSteps;
+    }
+
+    /**
+     * End (exclusive) of the group of adjacent steps from {@code from} that are small enough to
+     * execute in one call, by the planner's output estimates; {@code from + 1} if there is none
+     */
+    private int fusionGroupEnd(List<PlannerAgent.PlannedStep> planSteps, Step[] keep, int from) {
+        int end = from;
+        int tokens = 0;
+        while (end < planSteps.size() && end - from < fusionMaxSteps) {
+            int estimatedTokens = planSteps.get(end).estimatedTokens();
+            if ((keep != null && keep[end] != null) || estimatedTokens <= 0
+                    || estimatedTokens > fusionStepMaxTokens || tokens + estimatedTokens > fusionGroupMaxTokens) {
+                break;
+            }
+            tokens += estimatedTokens;
+            end++;
+        }
+        return Math.max(end, from + 1);
+    }
+
+    /**
+     * Store a step's execution log, code and documentation artifacts
+     */
+    private void createStepArtifacts(Step step, int stepIndex, PlannerAgent.PlannedStep plannedStep,
+                                     ExecutorAgent.ExecutionResult result) {
+        // Create execution log artifact
+        artifactService.createTextArtifact(step, 
+            String.format("step_%d_execution.log", stepIndex + 1), 
+            result.executionLog());
+        
+        // Create code artifact if available
+        if (result.codeArtifact() != null && !result.codeArtifact().isEmpty()) {
+            String fileExtension = plannedStep.artifactType() != null
+                ? "." + plannedStep.artifactType()
+                : determineFileExtension(plannedStep.instruction());
+            artifactService.createTextArtifact(step, 
+                String.format("step_%d_code%s", stepIndex + 1, fileExtension), 
+                result.codeArtifact());
+        }
+        
+        // Create documentation artifact
+        if (result.documentation() != null && !result.documentation().isEmpty()) {
+            artifactService.createTextArtifact(step, 
+                String.format("step_%d_documentation.md", stepIndex + 1), 
+                result.documentation());
+        }
+    }
+
+    private static String stepName(String namePrefix, String stepDescription) {
+        return namePrefix + stepDescription.substring(0, Math.min(50, stepDescription.length()));
+    }
+
+    /**
+     * Per-step gate: let the critic score the step just executed and stop the run when the
+     * score is below {@code orchestrator.gate.min.score}, before the remaining steps and the
+     * critique are spent on it. A gate check that fails lets the step through.
+     * 
+     * @param averageStepNanos average execution time of this run's steps, to estimate the time saved
+     */
+    private void checkStep(Run run, int workerId, List<PlannerAgent.PlannedStep> planSteps, Step[] keep,
+                           Step[] executedSteps, int stepIndex, Step step, long averageStepNanos) throws StepGateAbort {
+        long checkStart = System.nanoTime();
+        CriticAgent.StepGate gate;
+        try {
+            gate = criticAgent.gateStep(planSteps.get(stepIndex).instruction(), step != null ? step.getResult() : null);
+        } catch (Exception e) {
+            gateStatistics.recordCheck(System.nanoTime() - checkStart, true, e instanceof CriticAgent.TruncatedGateAnswerException);
+            logger.warn("Worker #{} Step gate check failed for run ID: {}, continuing - {}", workerId, run.getId(), e.getMessage());
+            return;
+        }
+        gateStatistics.recordCheck(System.nanoTime() - checkStart, false, gate.truncated());
+        logger.debug("Worker #{} Step gate scored step {} of run ID: {} at {}", workerId, stepIndex + 1, run.getId(), gate.score());
+        if (gate.score() >= gateMinScore) {
+            return;
+        }
+        
+        // Everything the run would still have spent: the steps left to execute and the critique
+        int skipped = 0;
+        for (int i = stepIndex + 1; i < planSteps.size(); i++) {
+            if (executedSteps[i] == null && (keep == null || keep[i] == null)) {
+                skipped++;
             }
+        }
+        int savedCalls = skipped + (CRITIQUE_MODE_VERDICT.equalsIgnoreCase(critiqueMode) ? 1 : 2);
+        long savedNanos = averageStepNanos * savedCalls;
+        gateStatistics.recordAbort(skipped, savedCalls, savedNanos);
+        throw new StepGateAbort(String.format(
+            "Aborted by step gate after step %d of %d (score %d < %d): %s. Saved %d LLM call(s), ~%ds",
+            stepIndex + 1, planSteps.size(), gate.score(), gateMinScore, gate.reason(),
+            savedCalls, TimeUnit.NANOSECONDS.toSeconds(savedNanos)), stepIndex, gate, executedSteps);
+    }
 
-            // === PHASE 3: CRITIQUE & EVALUATION ===
-            Step critiqueStep = executeStepWithRetry(run, "AI Critique & Evaluation", planSteps.length + 2, () -> {
-                logger.info("Worker #{} Phase 3: Critiquing execution with AI agent for run ID: {}", workerId, run.getId());
+    /**
+     * Critique the executed steps in a step of their own and return the critic's verdict.
+     * In verdict mode, runs larger than the chunk token budget are critiqued by map-reduce.
+     */
+    private CritiqueOutcome critiqueRun(Run run, int workerId, String taskDescription, String[] stepDescriptions,
+                                        String[] stepResults, String stepName, int stepOrder) throws Exception {
+        boolean singleCall = CRITIQUE_MODE_VERDICT.equalsIgnoreCase(critiqueMode);
+        // Result of the attempt that completed the step
+        AtomicReference<CriticAgent.CriticResult> outcome = new AtomicReference<>();
+        executeStepWithRetry(run, stepName, stepOrder, () -> {
+            logger.info("Worker #{} Phase 3: Critiquing execution with AI agent for run ID: {}", workerId, run.getId());
+            
+            // Use enhanced critic agent to create comprehensive artifacts
+            Step currentStep = stepService.getCurrentStepForWorker();
+            CriticAgent.CriticResult criticResult;
+            if (currentStep != null) {
+                try (StepOutputStreamer output = streamTo(currentStep)) {
+                    criticResult = singleCall
+                        ? criticAgent.evaluateRunMapReduceStreaming(taskDescription, stepDescriptions, stepResults,
+                                                                    critiqueChunkTokenBudget, output)
+                        : criticAgent.evaluateRunWithArtifactsStreaming(taskDescription, stepResults, output);
+                }
+            } else {
+                criticResult = singleCall
+                    ? criticAgent.evaluateRunMapReduce(taskDescription, stepDescriptions, stepResults,
+                                                       critiqueChunkTokenBudget)
+                    : criticAgent.evaluateRunWithArtifacts(taskDescription, stepResults);
+            }
+            
+            // Store multiple critique artifacts
+            if (currentStep != null) {
+                // Create detailed evaluation report
+                artifactService.createTextArtifact(currentStep, "evaluation_report.md", criticResult.detailedReport());
                 
-                // Use enhanced critic agent to create comprehensive artifacts
-                CriticAgent.CriticResult criticResult = criticAgent.evaluateRunWithArtifacts(taskDescription, stepResults);
+                // Create quality metrics JSON
+                artifactService.createJsonArtifact(currentStep, "quality_metrics.json", criticResult.qualityMetrics());
                 
-                // Store multiple critique artifacts
-                Step currentStep = stepService.getCurrentStepForWorker();
-                if (currentStep != null) {
-                    // Create detailed evaluation report
-                    artifactService.createTextArtifact(currentStep, "evaluation_report.md", criticResult.detailedReport());
-                    
-                    // Create quality metrics JSON
-                    artifactService.createJsonArtifact(currentStep, "quality_metrics.json", criticResult.qualityMetrics());
-                    
-                    // Create improvement suggestions
-                    artifactService.createTextArtifact(currentStep, "improvement_suggestions.md", criticResult.improvementSuggestions());
-                    
-                    // Create executive summary
-                    artifactService.createTextArtifact(currentStep, "executive_summary.md", criticResult.executiveSummary());
-                }
+                // Create improvement suggestions
+                artifactService.createTextArtifact(currentStep, "improvement_suggestions.md", criticResult.improvementSuggestions());
                 
-                return criticResult.evaluation() + "|SUCCESS:" + criticResult.isSuccessful();
-            }).get();
+                // Create executive summary
+                artifactService.createTextArtifact(currentStep, "executive_summary.md", criticResult.executiveSummary());
+            }
+            
+            outcome.set(criticResult);
+            return criticResult.evaluation();
+        }).get();
 
-            // Parse critique results
-            String critiqueResult = critiqueStep.getResult();
-            boolean isSuccessful = critiqueResult.contains("|SUCCESS:true");
-            String evaluation = critiqueResult.split("\\|SUCCESS:")[0];
+        CriticAgent.CriticResult criticResult = outcome.get();
+        return new CritiqueOutcome(criticResult.isSuccessful(), criticResult.evaluation(), criticResult.verdict());
+    }
 
-            // === FINALIZE RUN ===
-            if (isSuccessful) {
-                runService.markRunAsCompleted(run.getId());
-                logger.info("Worker #{} ✅ Successfully completed run ID: {} with {} execution steps", 
-                          workerId, run.getId(), planSteps.length);
-            } else {
-                runService.markRunAsFailed(run.getId(), "Critique agent determined execution was not successful: " + evaluation);
-                logger.warn("Worker #{} ❌ Run ID: {} marked as failed after critique evaluation", workerId, run.getId());
+    /**
+     * Cascade escalation: execute the draft's failing steps again on the large model (or the
+     * whole run, see {@code orchestrator.cascade.escalate}) and critique the result once more
+     * 
+     * @param firstStepOrder step order after the draft's critique
+     */
+    private CritiqueOutcome escalateRun(Run run, int workerId, String taskDescription,
+                                        List<PlannerAgent.PlannedStep> planSteps, Step[] draftSteps,
+                                        CritiqueOutcome draftCritique, int firstStepOrder) throws Exception {
+        long escalationStart = System.nanoTime();
+        Step[] keep = null;
+        if (CASCADE_ESCALATE_STEPS.equalsIgnoreCase(cascadeEscalate)) {
+            keep = new Step[draftSteps.length];
+            for (int i = 0; i < draftSteps.length; i++) {
+                Step draftStep = draftSteps[i];
+                if (draftStep != null && !draftCritique.isStepFailing(i, draftStep.getResult(), criticAgent)) {
+                    keep[i] = draftStep;
+                }
+            }
+            // The critic rejected the run as a whole without pointing at a step: redo all of them
+            if (countSteps(keep) == countSteps(draftSteps)) {
+                keep = null;
             }
+        }
+        int kept = keep != null ? countSteps(keep) : 0;
+        int rerun = countSteps(draftSteps) - kept;
+        cascadeStatistics.recordEscalation(rerun, kept);
+        logger.info("Worker #{} Draft of run ID: {} was rejected, escalating {} step(s) to the large model ({} kept)",
+                   workerId, run.getId(), rerun, kept);
+        
+        Step[] escalatedSteps = executePlanSteps(run, workerId, planSteps, keep, "Escalate: ", firstStepOrder, null);
+        CritiqueOutcome critique = critiqueRun(run, workerId, taskDescription, descriptionsOf(planSteps, escalatedSteps),
+                                               resultsOf(escalatedSteps), "AI Critique & Evaluation (escalated)",
+                                               firstStepOrder + planSteps.size());
+        cascadeStatistics.record(CascadeStatistics.Tier.ESCALATED, critique.successful(), rerun,
+                                 System.nanoTime() - escalationStart);
+        return critique;
+    }
 
-        } catch (Exception e) {
-            logger.error("Worker #{} Error processing run ID: {}, marking as FAILED. Error: {}", workerId, run.getId(), e.getMessage(), e);
-            runService.markRunAsFailed(run.getId(), "Execution failed: " + e.getMessage());
-        } finally {
-            activeWorkers.decrementAndGet();
+    private static String[] resultsOf(Step[] steps) {
+        List<String> results = new ArrayList<>();
+        for (Step step : steps) {
+            if (step != null) {
+                results.add(step.getResult() != null ? step.getResult() : "");
+            }
         }
+        return results.toArray(new String[0]);
+    }
 
-        return CompletableFuture.completedFuture(null);
+    /**
+     * The instructions of the executed steps, aligned with {@link #resultsOf(Step[])}
+     */
+    private static String[] descriptionsOf(List<PlannerAgent.PlannedStep> planSteps, Step[] steps) {
+        List<String> descriptions = new ArrayList<>();
+        for (int i = 0; i < steps.length; i++) {
+            if (steps[i] != null) {
+                descriptions.add(planSteps.get(i).instruction());
+            }
+        }
+        return descriptions.toArray(new String[0]);
+    }
+
+    private static int countSteps(Step[] steps) {
+        int count = 0;
+        for (Step step : steps) {
+            if (step != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * The critic's verdict on a run
+     * 
+     * @param verdict the structured verdict in single-call mode, {@code null} otherwise
+     */
+    private record CritiqueOutcome(boolean successful, String evaluation, CriticAgent.CriticVerdict verdict) {
+
+        /**
+         * Whether the critic found a step failing: by its own assessment of the step when it
+         * gave one, otherwise by the step result heuristic
+         * 
+         * @param index the step's index among the critiqued results
+         */
+        boolean isStepFailing(int index, String stepResult, CriticAgent criticAgent) {
+            CriticAgent.StepAssessment assessment = verdict != null ? verdict.stepAssessment(index + 1) : null;
+            return assessment != null ? assessment.isFailing() : criticAgent.isStepFailing(stepResult);
+        }
+    }
+
+    /**
+     * Thrown when the step gate stops a run
+     */
+    private static final class StepGateAbort extends Exception {
+
+        private final int stepIndex;
+        private final CriticAgent.StepGate gate;
+        private final Step[] executedSteps;
+
+        private StepGateAbort(String message, int stepIndex, CriticAgent.StepGate gate, Step[] executedSteps) {
+            super(message);
+            this.stepIndex = stepIndex;
+            this.gate = gate;
+            this.executedSteps = executedSteps;
+        }
+
+        /**
+         * The steps executed before the abort, aligned with the plan, {@code null} for the rest
+         */
+        Step[] executedSteps() {
+            return executedSteps;
+        }
+
+        /**
+         * The abort as a failed critique that marks the gated step failing
+         */
+        CritiqueOutcome toCritique() {
+            CriticAgent.CriticVerdict verdict = new CriticAgent.CriticVerdict(false, gate.score(), getMessage(),
+                List.of(new CriticAgent.StepAssessment(stepIndex + 1, "FAILURE", gate.reason())), List.of());
+            return new CritiqueOutcome(false, getMessage(), verdict);
+        }
     }
 
     /**
@@ -337,6 +757,8 @@ public class RunOrchestrator {
             Exception lastException = null;
             
             for (int attempt = 1; attempt <= maxRetries; attempt++) {
+                // Set when this attempt times out, so its still running executor stops streaming
+                AtomicBoolean abandoned = new AtomicBoolean(false);
                 try {
                     // Create step only once, reuse for retries
                     if (step == null) {
@@ -354,18 +776,27 @@ public class RunOrchestrator {
                             try {
                                 // Set step context in THIS worker thread
                                 stepService.setCurrentStepForWorker(startedStep);
-                                try {
+                                currentAttemptAbandoned.set(abandoned);
+                                try (LlmCallContext.Scope llmContext = LlmCallContext.forStep(run.getId(), startedStep.getId())) {
                                     return executor.execute();
                                 } finally {
                                     // Clear step context in THIS worker thread
                                     stepService.clearCurrentStepForWorker();
+                                    currentAttemptAbandoned.remove();
                                 }
                             } catch (Exception e) {
                                 throw new RuntimeException("Step execution failed", e);
                             }
                         }, stepExecutorPool);
                         
-                        String result = stepExecution.get(stepTimeoutMinutes, TimeUnit.MINUTES);
+                        String result;
+                        try {
+                            result = stepExecution.get(stepTimeoutMinutes, TimeUnit.MINUTES);
+                        } catch (TimeoutException e) {
+                            abandoned.set(true);
+                            stepExecution.cancel(true);
+                            throw e;
+                        }
                         
                         // Complete step with result
                         Step completedStep = stepService.completeStep(startedStep, result);
@@ -420,6 +851,15 @@ public class RunOrchestrator {
         }, stepExecutorPool);
     }
 
+    /**
+     * Create a streamer that appends LLM output to the given step as it arrives
+     */
+    private StepOutputStreamer streamTo(Step step) {
+        AtomicBoolean abandoned = currentAttemptAbandoned.get();
+        return new StepOutputStreamer(stepService, step.getId(), streamFlushChars, streamFlushIntervalMs,
+                                      abandoned != null ? abandoned : new AtomicBoolean(false));
+    }
+
     /**
      * Functional interface for step execution
      */
@@ -520,45 +960,6 @@ public class RunOrchestrator {
         }
     }
 
-    /**
-     * Format plan content as Markdown for better readability
-     */
-    private String formatAsMarkdown(String content) {
-        StringBuilder markdown = new StringBuilder();
-        markdown.append("# Execution Plan\n\n");
-        
-        String[] lines = content.split("\n");
-        
-        for (String line : lines) {
-            String trimmed = line.trim();
-            if (trimmed.isEmpty()) {
-                markdown.append("\n");
-                continue;
-            }
-            
-            // Detect section headers
-            if (trimmed.matches("\\d+\\..+") || trimmed.contains("Overview") || 
-                trimmed.contains("Objectives") || trimmed.contains("Deliverables") || 
-                trimmed.contains("Success Criteria") || trimmed.contains("Risk")) {
-                markdown.append("\n## ").append(trimmed).append("\n\n");
-            }
-            // Detect numbered steps
-            else if (trimmed.matches("Step \\d+:.*")) {
-                markdown.append("### ").append(trimmed).append("\n\n");
-            }
-            // Detect bullet points
-            else if (trimmed.startsWith("-") || trimmed.startsWith("•")) {
-                markdown.append("- ").append(trimmed.substring(1).trim()).append("\n");
-            }
-            // Regular content
-            else {
-                markdown.append(trimmed).append("\n\n");
-            }
-        }
-        
-        return markdown.toString();
-    }
-    
     /**
      * Create comprehensive task analysis
      */
@@ -0,0 +1,92 @@
+package com.rajathgoku.agentic.backend.engine;
+
+import com.rajathgoku.agentic.backend.service.StepService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Receives streamed LLM output for a step and appends it to the step's result in batches,
+ * so partial output shows up while the model is still generating without issuing one
+ * database write per token.
+ *
+ * <p>A failed progress write is logged and further appends are skipped; the step's final
+ * result is still written by {@link StepService#completeStep} when the step finishes.</p>
+ *
+ * <p>A streamer belongs to one execution attempt: once that attempt is abandoned (it timed
+ * out and the step may be retried) the streamer discards its output, so it cannot mix into
+ * the retry's output.</p>
+ */
+public class StepOutputStreamer implements Consumer<String>, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(StepOutputStreamer.class);
+
+    private final StepService stepService;
+    private final UUID stepId;
+    private final int flushChars;
+    private final long flushIntervalMs;
+    private final AtomicBoolean abandoned;
+
+    private final StringBuilder pending = new StringBuilder();
+    private long lastFlushAt = System.currentTimeMillis();
+    private boolean disabled = false;
+
+    public StepOutputStreamer(StepService stepService, UUID stepId, int flushChars, long flushIntervalMs) {
+        this(stepService, stepId, flushChars, flushIntervalMs, new AtomicBoolean(false));
+    }
+
+    /**
+     * @param abandoned set when the attempt this streamer writes for is given up
+     */
+    public StepOutputStreamer(StepService stepService, UUID stepId, int flushChars, long flushIntervalMs,
+                              AtomicBoolean abandoned) {
+        this.stepService = stepService;
+        this.stepId = stepId;
+        this.flushChars = flushChars;
+        this.flushIntervalMs = flushIntervalMs;
+        this.abandoned = abandoned;
+    }
+
+    @Override
+    public void accept(String chunk) {
+        if (disabled || abandoned.get() || chunk == null || chunk.isEmpty()) {
+            return;
+        }
+
+        pending.append(chunk);
+        if (pending.length() >= flushChars || System.currentTimeMillis() - lastFlushAt >= flushIntervalMs) {
+            flush();
+        }
+    }
+
+    /**
+     * Write any buffered output to the step
+     */
+    public void flush() {
+        if (disabled || pending.length() == 0) {
+            return;
+        }
+        if (abandoned.get()) {
+            pending.setLength(0);
+            return;
+        }
+
+        try {
+            stepService.appendStepOutput(stepId, pending.toString());
+        } catch (Exception e) {
+            logger.warn("Disabling streamed output for step ID: {} after write failure: {}", stepId, e.getMessage());
+            disabled = true;
+        } finally {
+            pending.setLength(0);
+            lastFlushAt = System.currentTimeMillis();
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+}
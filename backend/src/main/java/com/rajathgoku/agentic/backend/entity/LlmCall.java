@@ -0,0 +1,167 @@
+package com.rajathgoku.agentic.backend.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Accounting record of one LLM call made for a run: the tokens it processed and where its
+ * time went. Written once and never updated; runs and steps are referenced by id only so
+ * recording a call never loads them.
+ */
+@Entity
+@Table(name = "llm_calls", indexes = {
+    @Index(name = "idx_llm_calls_run_id", columnList = "run_id"),
+    @Index(name = "idx_llm_calls_step_id", columnList = "step_id")
+})
+public class LlmCall {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(columnDefinition = "UUID")
+    private UUID id;
+
+    @Column(name = "run_id", nullable = false, columnDefinition = "UUID")
+    private UUID runId;
+
+    @Column(name = "step_id", columnDefinition = "UUID")
+    private UUID stepId;
+
+    @Column
+    private String operation;
+
+    @Column
+    private String model;
+
+    @Column(name = "prompt_tokens", nullable = false)
+    private long promptTokens;
+
+    @Column(name = "completion_tokens", nullable = false)
+    private long completionTokens;
+
+    @Column(name = "load_ms", nullable = false)
+    private long loadMs;
+
+    @Column(name = "prompt_eval_ms", nullable = false)
+    private long promptEvalMs;
+
+    @Column(name = "eval_ms", nullable = false)
+    private long evalMs;
+
+    @Column(name = "queue_ms", nullable = false)
+    private long queueMs;
+
+    @Column(name = "wall_ms", nullable = false)
+    private long wallMs;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt = Instant.now();
+
+    // Constructors
+    public LlmCall() {}
+
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public UUID getRunId() {
+        return runId;
+    }
+
+    public void setRunId(UUID runId) {
+        this.runId = runId;
+    }
+
+    public UUID getStepId() {
+        return stepId;
+    }
+
+    public void setStepId(UUID stepId) {
+        this.stepId = stepId;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public void setModel(String model) {
+        this.model = model;
+    }
+
+    public long getPromptTokens() {
+        return promptTokens;
+    }
+
+    public void setPromptTokens(long promptTokens) {
+        this.promptTokens = promptTokens;
+    }
+
+    public long getCompletionTokens() {
+        return completionTokens;
+    }
+
+    public void setCompletionTokens(long completionTokens) {
+        this.completionTokens = completionTokens;
+    }
+
+    public long getLoadMs() {
+        return loadMs;
+    }
+
+    public void setLoadMs(long loadMs) {
+        this.loadMs = loadMs;
+    }
+
+    public long getPromptEvalMs() {
+        return promptEvalMs;
+    }
+
+    public void setPromptEvalMs(long promptEvalMs) {
+        this.promptEvalMs = promptEvalMs;
+    }
+
+    public long getEvalMs() {
+        return evalMs;
+    }
+
+    public void setEvalMs(long evalMs) {
+        this.evalMs = evalMs;
+    }
+
+    public long getQueueMs() {
+        return queueMs;
+    }
+
+    public void setQueueMs(long queueMs) {
+        this.queueMs = queueMs;
+    }
+
+    public long getWallMs() {
+        return wallMs;
+    }
+
+    public void setWallMs(long wallMs) {
+        this.wallMs = wallMs;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,255 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit for LLM calls that adapts to the backend using AIMD driven by latency.
+ *
+ * <p>A call that fails, or takes longer than {@code latencyTolerance} times the baseline
+ * latency, shrinks the limit multiplicatively; a successful call made while demand is at the
+ * limit grows it by roughly one per limit's worth of calls. The baseline approximates the
+ * backend's latency without our queueing on top: it follows decreases quickly, and rises only
+ * from calls made while nothing was waiting for a slot, so a backend that starts queueing
+ * internally is detected as a slowdown instead of becoming the new normal.</p>
+ *
+ * <p>Each operation ({@link LlmRequest#operation()}) has its own baseline: an eight-token
+ * critic decision and a multi-thousand-token executor step take very different times, and
+ * one shared baseline would make every long call look slow.</p>
+ *
+ * <p>Calls over the limit wait in a bounded FIFO queue for at most {@code maxWait}; when the
+ * queue is full, or the wait expires, they fail with {@link LlmOverloadedException}.</p>
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+    private static final double BASELINE_DECREASE_ALPHA = 0.2;
+    private static final double BASELINE_INCREASE_ALPHA = 0.05;
+    private static final String DEFAULT_OPERATION = "default";
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueue;
+    private final Duration maxWait;
+    private final double latencyTolerance;
+    private final double backoffRatio;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+    private double limit;
+    private int inFlight = 0;
+    private final Map<String, Double> baselineLatencyNanos = new HashMap<>();
+
+    private long shed = 0;
+    private long queueTimeouts = 0;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, int maxQueue, Duration maxWait,
+                                      double latencyTolerance, double backoffRatio) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxQueue = maxQueue;
+        this.maxWait = maxWait;
+        this.latencyTolerance = latencyTolerance;
+        this.backoffRatio = backoffRatio;
+    }
+
+    /**
+     * Reserve a slot. The future completes once the call may proceed, or fails with
+     * {@link LlmOverloadedException} if the call was shed or waited too long. Every
+     * successful acquire must be paired with a {@link #release(long, boolean)}.
+     */
+    public CompletableFuture<Void> acquire() {
+        CompletableFuture<Void> waiter = new CompletableFuture<>();
+        lock.lock();
+        try {
+            if (waiters.isEmpty() && inFlight < currentLimit()) {
+                inFlight++;
+                return CompletableFuture.completedFuture(null);
+            }
+            if (waiters.size() >= maxQueue) {
+                shed++;
+                return CompletableFuture.failedFuture(new LlmOverloadedException(
+                    "LLM backend at capacity: " + inFlight + " calls in flight and " + waiters.size() + " queued"));
+            }
+            waiters.addLast(waiter);
+        } finally {
+            lock.unlock();
+        }
+
+        CompletableFuture.delayedExecutor(maxWait.toMillis(), TimeUnit.MILLISECONDS).execute(() -> {
+            if (waiter.completeExceptionally(new LlmOverloadedException(
+                    "Timed out after " + maxWait.toMillis() + "ms waiting for an LLM call slot"))) {
+                lock.lock();
+                try {
+                    waiters.remove(waiter);
+                    queueTimeouts++;
+                } finally {
+                    lock.unlock();
+                }
+            }
+        });
+        return waiter;
+    }
+
+    /**
+     * Block until a slot is available
+     *
+     * @throws LlmOverloadedException if the call was shed or waited too long
+     */
+    public void acquireBlocking() {
+        try {
+            acquire().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Return a slot and feed the call's outcome into the limit, judged against the latency of
+     * calls without an operation
+     *
+     * @see #release(String, long, boolean)
+     */
+    public void release(long latencyNanos, boolean failed) {
+        release(null, latencyNanos, failed);
+    }
+
+    /**
+     * Return a slot and feed the call's outcome into the limit
+     *
+     * @param operation the call's operation, whose own baseline latency it is compared with
+     * @param latencyNanos how long the call held the slot
+     * @param failed whether the call failed in a way that suggests the backend is struggling
+     */
+    public void release(String operation, long latencyNanos, boolean failed) {
+        lock.lock();
+        try {
+            inFlight--;
+            adjustLimit(operation != null ? operation : DEFAULT_OPERATION, latencyNanos, failed);
+        } finally {
+            lock.unlock();
+        }
+        dispatch();
+    }
+
+    /**
+     * Return a slot whose call never ran or was abandoned, without counting it as a
+     * latency sample
+     */
+    public void releaseUnused() {
+        lock.lock();
+        try {
+            inFlight--;
+        } finally {
+            lock.unlock();
+        }
+        dispatch();
+    }
+
+    public Statistics getStatistics() {
+        lock.lock();
+        try {
+            Map<String, Long> baselines = new HashMap<>();
+            baselineLatencyNanos.forEach((operation, nanos) ->
+                baselines.put(operation, TimeUnit.NANOSECONDS.toMillis(nanos.longValue())));
+            return new Statistics(currentLimit(), inFlight, waiters.size(), maxQueue, shed, queueTimeouts, baselines);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void adjustLimit(String operation, long latencyNanos, boolean failed) {
+        int previous = currentLimit();
+        double baseline = baselineLatencyNanos.getOrDefault(operation, 0.0);
+        boolean slow = baseline > 0 && latencyNanos > baseline * latencyTolerance;
+
+        if (failed || slow) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (inFlight + 1 + waiters.size() >= previous) {
+            // Only probe upwards while demand actually reaches the limit
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+
+        // While calls are queued the latency reflects our own load, so it may only lower the
+        // baseline; otherwise it would slowly accept ever higher latency as normal. Once backed
+        // off to the floor the latency there is the best the backend can do, so it is adopted.
+        boolean contended = !waiters.isEmpty() && previous > minLimit;
+        if (!failed && (baseline == 0 || latencyNanos < baseline || !contended)) {
+            double alpha = latencyNanos < baseline ? BASELINE_DECREASE_ALPHA : BASELINE_INCREASE_ALPHA;
+            baselineLatencyNanos.put(operation, baseline == 0 ? latencyNanos : baseline + alpha * (latencyNanos - baseline));
+        }
+
+        if (currentLimit() != previous) {
+            logger.debug("LLM concurrency limit {} -> {} ({} latency={}ms, failed={})",
+                        previous, currentLimit(), operation, TimeUnit.NANOSECONDS.toMillis(latencyNanos), failed);
+        }
+    }
+
+    /**
+     * Hand free slots to queued callers. Waiters are completed outside the lock since
+     * their continuations may start the next call on this thread.
+     */
+    private void dispatch() {
+        while (true) {
+            List<CompletableFuture<Void>> granted = new ArrayList<>();
+            lock.lock();
+            try {
+                while (!waiters.isEmpty() && inFlight < currentLimit()) {
+                    granted.add(waiters.pollFirst());
+                    inFlight++;
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (granted.isEmpty()) {
+                return;
+            }
+
+            int abandoned = 0;
+            for (CompletableFuture<Void> waiter : granted) {
+                // A waiter that timed out meanwhile gives its slot back
+                if (!waiter.complete(null)) {
+                    abandoned++;
+                }
+            }
+            if (abandoned == 0) {
+                return;
+            }
+            lock.lock();
+            try {
+                inFlight -= abandoned;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private int currentLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * @param baselineLatencyMs baseline latency per operation
+     */
+    public record Statistics(int limit, int inFlight, int queueDepth, int maxQueueDepth,
+                             long shedCalls, long queueTimeouts, Map<String, Long> baselineLatencyMs) {}
+}
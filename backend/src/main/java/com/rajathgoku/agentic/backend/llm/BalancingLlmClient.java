@@ -0,0 +1,282 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * {@link LlmClient} that spreads calls over several backend hosts.
+ *
+ * <ul>
+ *   <li>Calls made inside a run ({@link LlmCallContext}) are pinned to one host per run by
+ *       rendezvous hashing, so the host's loaded model and prompt cache stay warm across the
+ *       run's steps. Only runs pinned to a host that drops out move elsewhere.</li>
+ *   <li>Other calls go to the host with the fewest outstanding requests, and so do hedged
+ *       duplicates of a run's calls, excluding the run's own host.</li>
+ *   <li>A host that fails {@code failureThreshold} calls in a row is ejected for a while,
+ *       doubling on every repeated ejection up to {@code maxEjection}. If every host is ejected
+ *       calls are spread over all of them anyway rather than failed without trying.</li>
+ * </ul>
+ */
+public class BalancingLlmClient implements LlmClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(BalancingLlmClient.class);
+
+    private final List<Endpoint> endpoints = new ArrayList<>();
+    private final boolean runAffinity;
+    private final int failureThreshold;
+    private final long baseEjectionNanos;
+    private final long maxEjectionNanos;
+
+    private final AtomicInteger tieBreaker = new AtomicInteger();
+    private final AtomicLong panicSelections = new AtomicLong();
+
+    /**
+     * @param clients backend clients keyed by a display name (typically the base URL), in order
+     */
+    public BalancingLlmClient(Map<String, LlmClient> clients, boolean runAffinity, int failureThreshold,
+                              Duration baseEjection, Duration maxEjection) {
+        if (clients.isEmpty()) {
+            throw new IllegalArgumentException("At least one LLM endpoint is required");
+        }
+        clients.forEach((name, client) -> endpoints.add(new Endpoint(name, client)));
+        this.runAffinity = runAffinity;
+        this.failureThreshold = failureThreshold;
+        this.baseEjectionNanos = baseEjection.toNanos();
+        this.maxEjectionNanos = maxEjection.toNanos();
+    }
+
+    @Override
+    public String generateResponse(String prompt) {
+        return generate(LlmRequest.ofPrompt(prompt));
+    }
+
+    @Override
+    public String generateResponse(List<Message> messages) {
+        return generate(LlmRequest.ofMessages(messages));
+    }
+
+    @Override
+    public String generate(LlmRequest request) {
+        Endpoint endpoint = select();
+        endpoint.begin();
+        try {
+            String response = endpoint.client.generate(request);
+            endpoint.onSuccess();
+            return response;
+        } catch (RuntimeException e) {
+            endpoint.onFailure(e);
+            throw e;
+        } finally {
+            endpoint.end();
+        }
+    }
+
+    @Override
+    public void stream(LlmRequest request, Consumer<String> onChunk) {
+        Endpoint endpoint = select();
+        endpoint.begin();
+        try {
+            endpoint.client.stream(request, onChunk);
+            endpoint.onSuccess();
+        } catch (RuntimeException e) {
+            endpoint.onFailure(e);
+            throw e;
+        } finally {
+            endpoint.end();
+        }
+    }
+
+    @Override
+    public CompletableFuture<String> generateAsync(LlmRequest request) {
+        Endpoint endpoint = select();
+        endpoint.begin();
+        CompletableFuture<String> call;
+        try {
+            call = endpoint.client.generateAsync(request);
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        return LlmFutures.onCompletion(call, (response, failure) -> {
+            endpoint.end();
+            if (failure == null) {
+                endpoint.onSuccess();
+            } else {
+                endpoint.onFailure(failure);
+            }
+        });
+    }
+
+    /**
+     * Healthy when at least one host is
+     */
+    @Override
+    public boolean isHealthy() {
+        return endpoints.stream().anyMatch(endpoint -> endpoint.client.isHealthy());
+    }
+
+    @Override
+    public String getModelName() {
+        return endpoints.get(0).client.getModelName();
+    }
+
+    public Statistics getStatistics() {
+        long now = System.nanoTime();
+        List<EndpointStatistics> endpointStatistics = new ArrayList<>();
+        for (Endpoint endpoint : endpoints) {
+            endpointStatistics.add(endpoint.statistics(now));
+        }
+        return new Statistics(endpointStatistics, panicSelections.get());
+    }
+
+    private Endpoint select() {
+        long now = System.nanoTime();
+        List<Endpoint> available = new ArrayList<>(endpoints.size());
+        for (Endpoint endpoint : endpoints) {
+            if (!endpoint.isEjected(now)) {
+                available.add(endpoint);
+            }
+        }
+        if (available.isEmpty()) {
+            panicSelections.incrementAndGet();
+            available = endpoints;
+        }
+
+        LlmCallContext context = LlmCallContext.current();
+        if (runAffinity && context != null && context.runId() != null) {
+            Endpoint pinned = pinned(available, context.runId());
+            if (!context.hedge() || available.size() == 1) {
+                return pinned;
+            }
+            // A hedge races the run's host, so it has to go somewhere else
+            available = new ArrayList<>(available);
+            available.remove(pinned);
+        }
+        return leastOutstanding(available);
+    }
+
+    /**
+     * Rendezvous hashing: the run goes to the available host with the highest score for it
+     */
+    private static Endpoint pinned(List<Endpoint> available, UUID runId) {
+        long runHash = runId.getMostSignificantBits() * 31 + runId.getLeastSignificantBits();
+        Endpoint best = null;
+        long bestScore = Long.MIN_VALUE;
+        for (Endpoint endpoint : available) {
+            long score = mix(runHash ^ endpoint.seed);
+            if (best == null || score > bestScore) {
+                best = endpoint;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    private Endpoint leastOutstanding(List<Endpoint> available) {
+        // Start the scan at a rotating offset so ties do not always favour the first host
+        int offset = Math.floorMod(tieBreaker.getAndIncrement(), available.size());
+        Endpoint best = null;
+        for (int i = 0; i < available.size(); i++) {
+            Endpoint candidate = available.get((offset + i) % available.size());
+            if (best == null || candidate.outstanding.get() < best.outstanding.get()) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 64-bit finalizer from MurmurHash3, spreads similar inputs across the whole range
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static boolean countsAsFailure(Throwable failure) {
+        // Cancelled or locally rejected calls say nothing about the host
+        return !LlmFutures.isCancellation(failure) && !(LlmFutures.unwrap(failure) instanceof LlmOverloadedException);
+    }
+
+    private final class Endpoint {
+        private final String name;
+        private final LlmClient client;
+        private final long seed;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+
+        // Guarded by this
+        private int consecutiveFailures = 0;
+        private int ejections = 0;
+        private long ejectedUntil = 0;
+        private boolean ejected = false;
+
+        private Endpoint(String name, LlmClient client) {
+            this.name = name;
+            this.client = client;
+            this.seed = mix(name.hashCode());
+        }
+
+        private void begin() {
+            outstanding.incrementAndGet();
+            requests.incrementAndGet();
+        }
+
+        private void end() {
+            outstanding.decrementAndGet();
+        }
+
+        private synchronized boolean isEjected(long now) {
+            return ejected && now - ejectedUntil < 0;
+        }
+
+        private synchronized void onSuccess() {
+            consecutiveFailures = 0;
+            ejections = 0;
+            ejected = false;
+        }
+
+        private synchronized void onFailure(Throwable failure) {
+            if (!countsAsFailure(failure)) {
+                return;
+            }
+            failures.incrementAndGet();
+            long now = System.nanoTime();
+            if (isEjected(now) || ++consecutiveFailures < failureThreshold) {
+                return;
+            }
+
+            ejections++;
+            long duration = Math.min(maxEjectionNanos, baseEjectionNanos << Math.min(ejections - 1, 16));
+            ejected = true;
+            ejectedUntil = now + duration;
+            // Back on probation once the ejection ends: the next failure ejects it again
+            consecutiveFailures = failureThreshold - 1;
+            logger.warn("Ejecting LLM endpoint {} for {}s after repeated failures: {}",
+                       name, Duration.ofNanos(duration).toSeconds(), failure.getMessage());
+        }
+
+        private synchronized EndpointStatistics statistics(long now) {
+            return new EndpointStatistics(name, outstanding.get(), requests.get(), failures.get(), isEjected(now), ejections);
+        }
+    }
+
+    public record EndpointStatistics(String endpoint, int outstanding, long requests, long failures,
+                                     boolean ejected, int ejections) {}
+
+    public record Statistics(List<EndpointStatistics> endpoints, long panicSelections) {}
+}
@@ -0,0 +1,55 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link LlmClient} decorator that sends batches with a bounded number of requests in
+ * flight, matched to the parallel slots the Ollama hosts offer. A batch then costs about
+ * one round trip per slot-sized wave instead of one per request, without flooding the
+ * concurrency limiter's queue with requests the hosts could not start anyway.
+ *
+ * <p>Ollama has no batch endpoint for completions, so the batch is fanned out as
+ * individual requests. It is meant to wrap the whole chain, so each request is still
+ * cached, coalesced, limited and balanced like any other call.</p>
+ */
+public class BatchingLlmClient extends DelegatingLlmClient {
+
+    private final int maxInFlight;
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failedRequests = new AtomicLong();
+    private final AtomicLong largestBatch = new AtomicLong();
+
+    /**
+     * @param maxInFlight requests of one batch outstanding at a time, usually the parallel
+     *                    slots per host times the number of hosts
+     */
+    public BatchingLlmClient(LlmClient delegate, int maxInFlight) {
+        super(delegate);
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1");
+        }
+        this.maxInFlight = maxInFlight;
+    }
+
+    @Override
+    public CompletableFuture<List<LlmBatchResult>> generateBatchAsync(List<LlmRequest> batch) {
+        batches.incrementAndGet();
+        requests.addAndGet(batch.size());
+        largestBatch.accumulateAndGet(batch.size(), Math::max);
+        CompletableFuture<List<LlmBatchResult>> dispatched = LlmBatch.dispatch(this, batch, maxInFlight);
+        return LlmFutures.propagateCancellation(dispatched.thenApply(results -> {
+            failedRequests.addAndGet(results.stream().filter(item -> !item.isSuccess()).count());
+            return results;
+        }), dispatched);
+    }
+
+    public Statistics getStatistics() {
+        return new Statistics(maxInFlight, batches.get(), requests.get(), failedRequests.get(), largestBatch.get());
+    }
+
+    public record Statistics(int maxInFlight, long batches, long requests, long failedRequests, long largestBatch) {}
+}
@@ -0,0 +1,105 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * {@link LlmClient} decorator that serves repeated prompts from a {@link LlmCacheStore}.
+ *
+ * <p>The cache key is a SHA-256 hash of the model, the generation options and the prompt
+ * (or message list), so a hit only happens for byte-identical requests. Requests built with
+ * {@link LlmRequest#uncached()} bypass the cache in both directions.</p>
+ */
+public class CachingLlmClient extends DelegatingLlmClient {
+
+    private final LlmCacheStore cache;
+
+    public CachingLlmClient(LlmClient delegate, LlmCacheStore cache) {
+        super(delegate);
+        this.cache = cache;
+    }
+
+    @Override
+    public String generate(LlmRequest request) {
+        if (!request.cacheable()) {
+            return delegate.generate(request);
+        }
+
+        String key = cacheKey(request);
+        Optional<String> cached = cache.get(key);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        String response = delegate.generate(request);
+        if (response != null) {
+            cache.put(key, response);
+        }
+        return response;
+    }
+
+    @Override
+    public CompletableFuture<String> generateAsync(LlmRequest request) {
+        if (!request.cacheable()) {
+            return delegate.generateAsync(request);
+        }
+
+        String key = cacheKey(request);
+        Optional<String> cached = cache.get(key);
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(cached.get());
+        }
+
+        CompletableFuture<String> call = delegate.generateAsync(request);
+        return LlmFutures.propagateCancellation(call.thenApply(response -> {
+            if (response != null) {
+                cache.put(key, response);
+            }
+            return response;
+        }), call);
+    }
+
+    /**
+     * Streams are served from the cache as a single chunk on a hit. On a miss the chunks are
+     * forwarded as they arrive and captured for the cache unless the completion outgrows the
+     * largest entry the cache would accept.
+     */
+    @Override
+    public void stream(LlmRequest request, Consumer<String> onChunk) {
+        if (!request.cacheable()) {
+            delegate.stream(request, onChunk);
+            return;
+        }
+
+        String key = cacheKey(request);
+        Optional<String> cached = cache.get(key);
+        if (cached.isPresent()) {
+            onChunk.accept(cached.get());
+            return;
+        }
+
+        long maxCapturedChars = cache.maxEntryBytes() / 2;
+        StringBuilder captured = new StringBuilder();
+        boolean[] overflowed = {false};
+        delegate.stream(request, chunk -> {
+            if (!overflowed[0]) {
+                if (captured.length() + chunk.length() > maxCapturedChars) {
+                    overflowed[0] = true;
+                    captured.setLength(0);
+                } else {
+                    captured.append(chunk);
+                }
+            }
+            onChunk.accept(chunk);
+        });
+
+        if (!overflowed[0]) {
+            cache.put(key, captured.toString());
+        }
+    }
+
+    private String cacheKey(LlmRequest request) {
+        return LlmRequestKeys.contentKey(request, delegate.getModelName());
+    }
+}
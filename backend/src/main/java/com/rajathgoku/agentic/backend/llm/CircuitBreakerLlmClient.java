@@ -0,0 +1,187 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * {@link LlmClient} decorator that fails fast while the backend is down, instead of letting
+ * every step wait out its timeout and retries against a dead host.
+ *
+ * <p>The outcomes of the last {@code windowSize} calls are kept; once at least
+ * {@code minimumCalls} of them are recorded and the failure rate reaches
+ * {@code failureRateThreshold} the circuit opens and calls are rejected with
+ * {@link LlmCircuitOpenException}. After {@code openDuration} a single trial call is let
+ * through: its success closes the circuit, its failure opens it again.</p>
+ *
+ * <p>Cancelled calls and calls shed locally with {@link LlmOverloadedException} are not
+ * counted, they say nothing about whether the backend is up.</p>
+ */
+public class CircuitBreakerLlmClient extends DelegatingLlmClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreakerLlmClient.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final long openDurationNanos;
+
+    // Guarded by this
+    private final boolean[] outcomes;
+    private int recorded = 0;
+    private int next = 0;
+    private int failuresInWindow = 0;
+    private State state = State.CLOSED;
+    private long openedAt = 0;
+    private boolean trialInFlight = false;
+    private long rejected = 0;
+    private long opened = 0;
+
+    public CircuitBreakerLlmClient(LlmClient delegate, double failureRateThreshold, int windowSize,
+                                   int minimumCalls, Duration openDuration) {
+        super(delegate);
+        this.failureRateThreshold = failureRateThreshold;
+        this.outcomes = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.openDurationNanos = openDuration.toNanos();
+    }
+
+    @Override
+    public String generate(LlmRequest request) {
+        boolean trial = admit();
+        try {
+            String response = delegate.generate(request);
+            onSuccess(trial);
+            return response;
+        } catch (RuntimeException e) {
+            onFailure(trial, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public void stream(LlmRequest request, Consumer<String> onChunk) {
+        boolean trial = admit();
+        try {
+            delegate.stream(request, onChunk);
+            onSuccess(trial);
+        } catch (RuntimeException e) {
+            onFailure(trial, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public CompletableFuture<String> generateAsync(LlmRequest request) {
+        boolean trial;
+        try {
+            trial = admit();
+        } catch (LlmCircuitOpenException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        CompletableFuture<String> call;
+        try {
+            call = delegate.generateAsync(request);
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        return LlmFutures.onCompletion(call, (response, failure) -> {
+            if (failure == null) {
+                onSuccess(trial);
+            } else {
+                onFailure(trial, failure);
+            }
+        });
+    }
+
+    public synchronized Statistics getStatistics() {
+        double failureRate = recorded == 0 ? 0.0 : (double) failuresInWindow / recorded;
+        return new Statistics(state, failureRate, recorded, opened, rejected);
+    }
+
+    /**
+     * Let a call through or reject it
+     *
+     * @return whether the call is the half-open trial call
+     */
+    private synchronized boolean admit() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openDurationNanos) {
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        if (state == State.CLOSED) {
+            return false;
+        }
+        if (state == State.HALF_OPEN && !trialInFlight) {
+            trialInFlight = true;
+            return true;
+        }
+        rejected++;
+        throw new LlmCircuitOpenException("LLM backend circuit is open after repeated failures, failing fast");
+    }
+
+    private synchronized void onSuccess(boolean trial) {
+        if (trial) {
+            logger.info("LLM backend trial call succeeded, closing circuit");
+            state = State.CLOSED;
+            resetWindow();
+            return;
+        }
+        record(false);
+    }
+
+    private synchronized void onFailure(boolean trial, Throwable failure) {
+        if (LlmFutures.isCancellation(failure) || LlmFutures.unwrap(failure) instanceof LlmOverloadedException) {
+            if (trial) {
+                // Inconclusive, let the next call try instead
+                trialInFlight = false;
+            }
+            return;
+        }
+        if (trial) {
+            open("trial call failed: " + failure.getMessage());
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED && recorded >= minimumCalls
+                && (double) failuresInWindow / recorded >= failureRateThreshold) {
+            open(failuresInWindow + " of the last " + recorded + " calls failed");
+        }
+    }
+
+    private void record(boolean failed) {
+        if (recorded == outcomes.length) {
+            if (outcomes[next]) {
+                failuresInWindow--;
+            }
+        } else {
+            recorded++;
+        }
+        outcomes[next] = failed;
+        if (failed) {
+            failuresInWindow++;
+        }
+        next = (next + 1) % outcomes.length;
+    }
+
+    private void open(String reason) {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+        opened++;
+        resetWindow();
+        logger.warn("Opening LLM circuit for {}s: {}", Duration.ofNanos(openDurationNanos).toSeconds(), reason);
+    }
+
+    private void resetWindow() {
+        recorded = 0;
+        next = 0;
+        failuresInWindow = 0;
+    }
+
+    public record Statistics(State state, double failureRate, int windowCalls, long timesOpened, long rejectedCalls) {}
+}
@@ -0,0 +1,101 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * {@link LlmClient} decorator that admits calls through an {@link AdaptiveConcurrencyLimiter},
+ * so the backend is kept near its throughput sweet spot instead of being flooded when the
+ * worker pool grows. Calls over the limit queue briefly and are shed with
+ * {@link LlmOverloadedException} when the queue is full.
+ */
+public class ConcurrencyLimitingLlmClient extends DelegatingLlmClient {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public ConcurrencyLimitingLlmClient(LlmClient delegate, AdaptiveConcurrencyLimiter limiter) {
+        super(delegate);
+        this.limiter = limiter;
+    }
+
+    @Override
+    public String generate(LlmRequest request) {
+        limiter.acquireBlocking();
+        long start = System.nanoTime();
+        Throwable failure = null;
+        try {
+            return delegate.generate(request);
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            release(request, start, failure);
+        }
+    }
+
+    @Override
+    public void stream(LlmRequest request, Consumer<String> onChunk) {
+        limiter.acquireBlocking();
+        long start = System.nanoTime();
+        Throwable failure = null;
+        try {
+            delegate.stream(request, onChunk);
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            release(request, start, failure);
+        }
+    }
+
+    /**
+     * Cancelling the returned future while the call is queued gives up its place; once
+     * started, the cancellation is passed on to the call
+     */
+    @Override
+    public CompletableFuture<String> generateAsync(LlmRequest request) {
+        // A queued call is started on whichever thread frees the slot, so carry the caller's context over
+        LlmCallContext context = LlmCallContext.current();
+        CompletableFuture<String> result = new CompletableFuture<>();
+        limiter.acquire().whenComplete((granted, acquireFailure) -> {
+            if (acquireFailure != null) {
+                result.completeExceptionally(LlmFutures.unwrap(acquireFailure));
+                return;
+            }
+            if (result.isDone()) {
+                limiter.releaseUnused();
+                return;
+            }
+
+            long start = System.nanoTime();
+            CompletableFuture<String> call;
+            try (LlmCallContext.Scope scope = LlmCallContext.open(context)) {
+                call = delegate.generateAsync(request);
+            } catch (RuntimeException e) {
+                call = CompletableFuture.failedFuture(e);
+            }
+            LlmFutures.propagateCancellation(result, call);
+            call.whenComplete((response, failure) -> {
+                release(request, start, failure);
+                if (failure == null) {
+                    result.complete(response);
+                } else {
+                    result.completeExceptionally(LlmFutures.unwrap(failure));
+                }
+            });
+        });
+        return result;
+    }
+
+    /**
+     * Return the call's slot, whatever it threw
+     */
+    private void release(LlmRequest request, long start, Throwable failure) {
+        if (failure != null && LlmFutures.isCancellation(failure)) {
+            // A call we cancelled ourselves (or an abandoned stream) says nothing about backend health
+            limiter.releaseUnused();
+        } else {
+            limiter.release(request.operation(), System.nanoTime() - start, failure != null);
+        }
+    }
+}
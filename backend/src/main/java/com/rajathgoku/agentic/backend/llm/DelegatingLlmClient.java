@@ -0,0 +1,64 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Base class for {@link LlmClient} decorators.
+ *
+ * <p>The convenience entry points are funnelled into {@link #generate(LlmRequest)},
+ * {@link #stream(LlmRequest, Consumer)} and {@link #generateAsync(LlmRequest)}, so a
+ * decorator only overrides those methods and everything else is forwarded to the
+ * wrapped client.</p>
+ *
+ * <p>Batches are not forwarded: {@link #generateBatchAsync(List)} sends each request
+ * through this client's own {@link #generateAsync(LlmRequest)}, so every item passes
+ * the whole decorator chain.</p>
+ */
+public abstract class DelegatingLlmClient implements LlmClient {
+
+    protected final LlmClient delegate;
+
+    protected DelegatingLlmClient(LlmClient delegate) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate LlmClient cannot be null");
+        }
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String generateResponse(String prompt) {
+        return generate(LlmRequest.ofPrompt(prompt));
+    }
+
+    @Override
+    public String generateResponse(List<Message> messages) {
+        return generate(LlmRequest.ofMessages(messages));
+    }
+
+    @Override
+    public String generate(LlmRequest request) {
+        return delegate.generate(request);
+    }
+
+    @Override
+    public void stream(LlmRequest request, Consumer<String> onChunk) {
+        delegate.stream(request, onChunk);
+    }
+
+    @Override
+    public CompletableFuture<String> generateAsync(LlmRequest request) {
+        return delegate.generateAsync(request);
+    }
+
+    @Override
+    public boolean isHealthy() {
+        return delegate.isHealthy();
+    }
+
+    @Override
+    public String getModelName() {
+        return delegate.getModelName();
+    }
+}
@@ -0,0 +1,406 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Persistent LLM completion cache on local disk, so a restarted node keeps its warm cache.
+ *
+ * <p>Completions are appended to segment files; an in-memory hash index maps each key to
+ * its record. Sealed segments are memory-mapped for reads, only the active segment is
+ * written. On startup every segment is scanned to rebuild the index, and a torn record at
+ * the tail of the last segment (from a crash mid-write) is truncated away.</p>
+ *
+ * <p>Record layout: {@code createdAt:long, keyLength:int, valueLength:int, key, value, crc32:int}.</p>
+ *
+ * <p>Space is reclaimed when a segment is rolled: whole segments are dropped oldest first
+ * once they are past the TTL or the store is over its byte budget, and sealed segments that
+ * are mostly dead (expired or superseded records) are compacted by copying their live
+ * records into the active segment.</p>
+ */
+public class DiskLlmResponseCache implements LlmCacheStore, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(DiskLlmResponseCache.class);
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int HEADER_BYTES = Long.BYTES + Integer.BYTES + Integer.BYTES;
+    private static final int CRC_BYTES = Integer.BYTES;
+
+    private final Path directory;
+    private final long maxBytes;
+    private final long segmentBytes;
+    private final long ttlMillis;
+
+    // Ordered by segment id, which is also write order, so the first entry is the oldest
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private final Map<String, Location> index = new HashMap<>();
+    private Segment active;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long expirations = 0;
+    private long writes = 0;
+    private long evictedSegments = 0;
+    private long compactedSegments = 0;
+
+    public DiskLlmResponseCache(Path directory, long maxBytes, long segmentBytes, Duration ttl) throws IOException {
+        if (segmentBytes <= 0 || segmentBytes >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Segment size must be between 1 byte and 2GB");
+        }
+        if (maxBytes < segmentBytes) {
+            throw new IllegalArgumentException("Disk cache budget must hold at least one segment");
+        }
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.segmentBytes = segmentBytes;
+        this.ttlMillis = ttl.toMillis();
+
+        Files.createDirectories(directory);
+        recover();
+        logger.info("Opened disk LLM cache at {} with {} entries in {} segments",
+                   directory, index.size(), segments.size());
+    }
+
+    @Override
+    public synchronized Optional<String> get(String key) {
+        Location location = index.get(key);
+        if (location == null) {
+            misses++;
+            return Optional.empty();
+        }
+
+        Segment segment = segments.get(location.segmentId());
+        if (isExpired(location.createdAt())) {
+            index.remove(key);
+            segment.liveEntries--;
+            expirations++;
+            misses++;
+            return Optional.empty();
+        }
+
+        try {
+            byte[] value = segment.read(location.offset() + HEADER_BYTES + location.keyLength(), location.valueLength());
+            hits++;
+            return Optional.of(new String(value, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            logger.warn("Failed to read cached entry from {}: {}", segment.path, e.getMessage());
+            index.remove(key);
+            segment.liveEntries--;
+            misses++;
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public synchronized void put(String key, String value) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] valueBytes = value.getBytes(StandardCharsets.UTF_8);
+        long recordBytes = HEADER_BYTES + keyBytes.length + valueBytes.length + CRC_BYTES;
+        if (recordBytes > maxEntryBytes()) {
+            return;
+        }
+
+        try {
+            if (!hasRoomFor(recordBytes)) {
+                roll();
+                // Records compacted during the roll may have filled the new segment
+                if (!hasRoomFor(recordBytes)) {
+                    startSegment();
+                }
+            }
+            append(key, keyBytes, valueBytes, System.currentTimeMillis());
+            writes++;
+        } catch (IOException e) {
+            logger.warn("Failed to write entry to disk LLM cache: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public long maxEntryBytes() {
+        return segmentBytes / 2;
+    }
+
+    public synchronized Statistics getStatistics() {
+        long diskBytes = segments.values().stream().mapToLong(s -> s.size).sum();
+        return new Statistics(hits, misses, expirations, writes, index.size(), segments.size(),
+                              diskBytes, maxBytes, evictedSegments, compactedSegments);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (Segment segment : segments.values()) {
+            segment.close();
+        }
+        segments.clear();
+        index.clear();
+    }
+
+    /**
+     * Append a record to the active segment without rolling, so compaction can copy
+     * records without recursing into another roll
+     */
+    private void append(String key, byte[] keyBytes, byte[] valueBytes, long createdAt) throws IOException {
+        int recordBytes = HEADER_BYTES + keyBytes.length + valueBytes.length + CRC_BYTES;
+        ByteBuffer record = ByteBuffer.allocate(recordBytes);
+        record.putLong(createdAt).putInt(keyBytes.length).putInt(valueBytes.length).put(keyBytes).put(valueBytes);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 0, recordBytes - CRC_BYTES);
+        record.putInt((int) crc.getValue());
+        record.flip();
+
+        long offset = active.size;
+        while (record.hasRemaining()) {
+            active.channel.write(record, offset + record.position());
+        }
+        active.size += recordBytes;
+        active.totalEntries++;
+        active.liveEntries++;
+        active.newestRecordAt = Math.max(active.newestRecordAt, createdAt);
+
+        Location previous = index.put(key, new Location(active.id, offset, keyBytes.length, valueBytes.length, createdAt));
+        if (previous != null) {
+            segments.get(previous.segmentId()).liveEntries--;
+        }
+    }
+
+    private void roll() throws IOException {
+        startSegment();
+        evictAndCompact();
+    }
+
+    /**
+     * Whether a record fits in the active segment; an empty segment takes any record
+     */
+    private boolean hasRoomFor(long recordBytes) {
+        return active.size == 0 || active.size + recordBytes <= segmentBytes;
+    }
+
+    /**
+     * Seal the active segment and start writing to a new one
+     */
+    private void startSegment() throws IOException {
+        active.seal();
+        active = openSegment(active.id + 1);
+    }
+
+    private void evictAndCompact() throws IOException {
+        long cutoff = System.currentTimeMillis() - ttlMillis;
+
+        // Drop whole segments oldest first while they are expired or the store is over budget
+        while (segments.size() > 1) {
+            Segment oldest = segments.firstEntry().getValue();
+            boolean expired = oldest.newestRecordAt < cutoff;
+            boolean overBudget = segments.values().stream().mapToLong(s -> s.size).sum() > maxBytes;
+            if (!expired && !overBudget) {
+                break;
+            }
+            dropSegment(oldest);
+            evictedSegments++;
+        }
+
+        // Rewrite mostly-dead sealed segments so their space can be released
+        for (Segment segment : new ArrayList<>(segments.values())) {
+            if (segment != active && segment.liveEntries * 2 < segment.totalEntries) {
+                compact(segment, cutoff);
+            }
+        }
+    }
+
+    private void compact(Segment segment, long cutoff) throws IOException {
+        List<Map.Entry<String, Location>> live = new ArrayList<>();
+        for (Map.Entry<String, Location> entry : index.entrySet()) {
+            if (entry.getValue().segmentId() == segment.id) {
+                live.add(entry);
+            }
+        }
+
+        for (Map.Entry<String, Location> entry : live) {
+            Location location = entry.getValue();
+            if (location.createdAt() < cutoff) {
+                continue;
+            }
+            byte[] keyBytes = segment.read(location.offset() + HEADER_BYTES, location.keyLength());
+            byte[] valueBytes = segment.read(location.offset() + HEADER_BYTES + location.keyLength(), location.valueLength());
+            // Several compactions can land in one active segment, keep it within the segment size
+            if (!hasRoomFor(HEADER_BYTES + keyBytes.length + valueBytes.length + CRC_BYTES)) {
+                startSegment();
+            }
+            // Keep the original timestamp so compaction does not extend an entry's lifetime
+            append(entry.getKey(), keyBytes, valueBytes, location.createdAt());
+        }
+
+        dropSegment(segment);
+        compactedSegments++;
+        logger.debug("Compacted disk cache segment {} ({} live records kept)", segment.path, live.size());
+    }
+
+    private void dropSegment(Segment segment) throws IOException {
+        index.values().removeIf(location -> location.segmentId() == segment.id);
+        segments.remove(segment.id);
+        segment.close();
+        Files.deleteIfExists(segment.path);
+    }
+
+    /**
+     * Rebuild the index from the segment files left by a previous process
+     */
+    private void recover() throws IOException {
+        List<Long> ids = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                 .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                 .forEach(name -> ids.add(Long.parseLong(
+                     name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()))));
+        }
+        ids.sort(null);
+
+        for (Long id : ids) {
+            Segment segment = openSegment(id);
+            load(segment);
+            active = segment;
+        }
+
+        // Every segment but the last is sealed; the last one keeps taking writes
+        for (Segment segment : segments.values()) {
+            if (segment != active) {
+                segment.seal();
+            }
+        }
+        if (active == null) {
+            active = openSegment(1);
+        }
+
+        evictAndCompact();
+    }
+
+    private void load(Segment segment) throws IOException {
+        long fileSize = segment.channel.size();
+        long cutoff = System.currentTimeMillis() - ttlMillis;
+        MappedByteBuffer buffer = segment.channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+
+        long offset = 0;
+        while (offset + HEADER_BYTES + CRC_BYTES <= fileSize) {
+            buffer.position((int) offset);
+            long createdAt = buffer.getLong();
+            int keyLength = buffer.getInt();
+            int valueLength = buffer.getInt();
+            long recordBytes = (long) HEADER_BYTES + keyLength + valueLength + CRC_BYTES;
+            if (keyLength < 0 || valueLength < 0 || offset + recordBytes > fileSize) {
+                break;
+            }
+
+            byte[] body = new byte[(int) recordBytes - CRC_BYTES];
+            buffer.position((int) offset);
+            buffer.get(body);
+            CRC32 crc = new CRC32();
+            crc.update(body);
+            if ((int) crc.getValue() != buffer.getInt()) {
+                break;
+            }
+
+            segment.totalEntries++;
+            segment.newestRecordAt = Math.max(segment.newestRecordAt, createdAt);
+            if (createdAt >= cutoff) {
+                String key = new String(body, HEADER_BYTES, keyLength, StandardCharsets.UTF_8);
+                Location previous = index.put(key, new Location(segment.id, offset, keyLength, valueLength, createdAt));
+                if (previous != null) {
+                    segments.get(previous.segmentId()).liveEntries--;
+                }
+                segment.liveEntries++;
+            }
+            offset += recordBytes;
+        }
+
+        if (offset < fileSize) {
+            logger.warn("Truncating torn tail of disk cache segment {} at offset {}", segment.path, offset);
+            segment.channel.truncate(offset);
+        }
+        segment.size = offset;
+    }
+
+    private Segment openSegment(long id) throws IOException {
+        Path path = directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        Segment segment = new Segment(id, path, channel);
+        segment.size = channel.size();
+        segments.put(id, segment);
+        return segment;
+    }
+
+    private boolean isExpired(long createdAt) {
+        return System.currentTimeMillis() - createdAt > ttlMillis;
+    }
+
+    private record Location(long segmentId, long offset, int keyLength, int valueLength, long createdAt) {}
+
+    private static final class Segment {
+        private final long id;
+        private final Path path;
+        private final FileChannel channel;
+        private long size;
+        private int totalEntries;
+        private int liveEntries;
+        private long newestRecordAt;
+        // Set once the segment stops taking writes
+        private MappedByteBuffer mapped;
+
+        private Segment(long id, Path path, FileChannel channel) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+        }
+
+        private void seal() throws IOException {
+            channel.force(false);
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+
+        private byte[] read(long position, int length) throws IOException {
+            byte[] bytes = new byte[length];
+            if (mapped != null) {
+                ByteBuffer view = mapped.duplicate();
+                view.position((int) position);
+                view.get(bytes);
+                return bytes;
+            }
+
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new IOException("Unexpected end of segment " + path);
+                }
+            }
+            return bytes;
+        }
+
+        private void close() throws IOException {
+            if (mapped == null) {
+                channel.force(false);
+            }
+            channel.close();
+        }
+    }
+
+    public record Statistics(long hits, long misses, long expirations, long writes, int entries, int segments,
+                             long diskBytes, long maxDiskBytes, long evictedSegments, long compactedSegments) {}
+}
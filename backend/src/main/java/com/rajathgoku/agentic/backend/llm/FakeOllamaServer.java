@@ -0,0 +1,352 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stand-in for an Ollama server, for load and failure testing without a GPU. Runs on the
+ * JDK's built-in HTTP server and speaks enough of the Ollama API for the client chain:
+ * {@code /api/generate} and {@code /api/chat} (streaming and not), {@code /api/embed},
+ * {@code /api/tags} and {@code /api/ps}. Embeddings come from a {@link HashingTextEmbedder}.
+ *
+ * <p>Completions are deterministic: the first configured rule whose text is contained in
+ * the prompt (or the last chat message) supplies the reply, otherwise the reply template is
+ * used with {@code {prompt}} replaced by the start of the prompt and padded to
+ * {@code responseTokens} words.</p>
+ *
+ * <p>Timing mimics a real server: at most {@code parallel} calls are processed at once and
+ * the rest wait, each call spends a time drawn from the {@link LatencyProfile} before its
+ * first token and then produces {@code tokensPerSecond}. A fraction {@code errorRate} of
+ * calls fail with HTTP 500. Responses carry the usual token counts and durations.</p>
+ */
+public class FakeOllamaServer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(FakeOllamaServer.class);
+
+    private static final int PROMPT_EXCERPT_CHARS = 80;
+
+    private final int port;
+    private final String modelName;
+    private final LatencyProfile latency;
+    private final double tokensPerSecond;
+    private final int responseTokens;
+    private final double errorRate;
+    private final Semaphore slots;
+    private final Random random;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HashingTextEmbedder embedder = new HashingTextEmbedder(768);
+
+    private final List<Rule> rules = new CopyOnWriteArrayList<>();
+    private volatile String replyTemplate = "Completed: {prompt}";
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * @param port port to listen on, 0 for any free port
+     * @param modelName model name reported by the server
+     * @param latency time before the first token of each call
+     * @param tokensPerSecond generation speed after the first token
+     * @param responseTokens minimum number of words in a reply
+     * @param errorRate fraction of completion calls that fail
+     * @param parallel calls processed at once, further calls queue
+     * @param seed seed for latency and error sampling
+     */
+    public FakeOllamaServer(int port, String modelName, LatencyProfile latency, double tokensPerSecond,
+                            int responseTokens, double errorRate, int parallel, long seed) {
+        this.port = port;
+        this.modelName = modelName;
+        this.latency = latency;
+        this.tokensPerSecond = tokensPerSecond;
+        this.responseTokens = responseTokens;
+        this.errorRate = errorRate;
+        this.slots = new Semaphore(parallel, true);
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Reply with {@code reply} to every prompt containing {@code promptContains}; rules are
+     * checked in the order they were added
+     */
+    public FakeOllamaServer addRule(String promptContains, String reply) {
+        rules.add(new Rule(promptContains, reply));
+        return this;
+    }
+
+    /**
+     * Template for prompts no rule matches; {@code {prompt}} is replaced by the start of the prompt
+     */
+    public FakeOllamaServer setReplyTemplate(String replyTemplate) {
+        this.replyTemplate = replyTemplate;
+        return this;
+    }
+
+    public synchronized void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "fake-ollama");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/api/generate", exchange -> handle(exchange, false));
+        server.createContext("/api/chat", exchange -> handle(exchange, true));
+        server.createContext("/api/embed", this::handleEmbed);
+        server.createContext("/api/tags", exchange -> sendJson(exchange, 200, modelList(false)));
+        server.createContext("/api/ps", exchange -> sendJson(exchange, 200, modelList(true)));
+        server.start();
+        logger.info("Fake Ollama server listening on {} (model {}, latency {}, {} tokens/s, error rate {})",
+                   getBaseUrl(), modelName, latency, tokensPerSecond, errorRate);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+        }
+    }
+
+    public synchronized String getBaseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public Statistics getStatistics() {
+        return new Statistics(requests.get(), injectedErrors.get());
+    }
+
+    /**
+     * The reply the server gives to a prompt, without any delay
+     */
+    public String replyFor(String prompt) {
+        for (Rule rule : rules) {
+            if (prompt.contains(rule.promptContains())) {
+                return rule.reply();
+            }
+        }
+
+        String excerpt = prompt.strip().replaceAll("\\s+", " ");
+        if (excerpt.length() > PROMPT_EXCERPT_CHARS) {
+            excerpt = excerpt.substring(0, PROMPT_EXCERPT_CHARS);
+        }
+        String reply = replyTemplate.replace("{prompt}", excerpt);
+        StringBuilder padded = new StringBuilder(reply);
+        int words = reply.isBlank() ? 0 : reply.strip().split("\\s+").length;
+        for (int i = words; i < responseTokens; i++) {
+            padded.append(i == words ? "\n" : " ").append("token").append(i - words + 1);
+        }
+        return padded.toString();
+    }
+
+    private void handle(HttpExchange exchange, boolean chat) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+            String model = request.path("model").asText(modelName);
+            boolean stream = request.path("stream").asBoolean(true);
+            String prompt = chat ? lastMessage(request.path("messages")) : request.path("prompt").asText("");
+
+            // A request without input only loads the model
+            if (prompt.isEmpty()) {
+                sendJson(exchange, 200, finalObject(model, chat, "", 0, 0, 0));
+                return;
+            }
+            if (sampleError()) {
+                injectedErrors.incrementAndGet();
+                sendJson(exchange, 500, Map.of("error", "injected failure"));
+                return;
+            }
+
+            slots.acquire();
+            try {
+                String reply = replyFor(prompt);
+                String[] tokens = reply.split("(?<=\\s)");
+                long promptTokens = Math.max(1, promptLength(request, chat) / 4);
+                long firstTokenNanos = TimeUnit.MILLISECONDS.toNanos(sampleLatencyMs());
+                long perTokenNanos = (long) (TimeUnit.SECONDS.toNanos(1) / tokensPerSecond);
+
+                TimeUnit.NANOSECONDS.sleep(firstTokenNanos);
+                if (stream) {
+                    exchange.getResponseHeaders().set("Content-Type", "application/x-ndjson");
+                    exchange.sendResponseHeaders(200, 0);
+                    OutputStream body = exchange.getResponseBody();
+                    for (String token : tokens) {
+                        TimeUnit.NANOSECONDS.sleep(perTokenNanos);
+                        body.write(objectMapper.writeValueAsBytes(chunk(model, chat, token)));
+                        body.write('\n');
+                        body.flush();
+                    }
+                    body.write(objectMapper.writeValueAsBytes(
+                        finalObject(model, chat, "", promptTokens, tokens.length, firstTokenNanos)));
+                    body.write('\n');
+                } else {
+                    TimeUnit.NANOSECONDS.sleep(perTokenNanos * tokens.length);
+                    sendJson(exchange, 200, finalObject(model, chat, reply, promptTokens, tokens.length, firstTokenNanos));
+                }
+            } finally {
+                slots.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // The client went away, e.g. a cancelled hedge
+            logger.debug("Fake Ollama request aborted: {}", e.getMessage());
+        }
+    }
+
+    private Map<String, Object> chunk(String model, boolean chat, String token) {
+        Map<String, Object> chunk = new LinkedHashMap<>();
+        chunk.put("model", model);
+        chunk.put("created_at", Instant.now().toString());
+        putText(chunk, chat, token);
+        chunk.put("done", false);
+        return chunk;
+    }
+
+    /**
+     * Final response object; like Ollama's, its durations do not include time spent queued
+     */
+    private Map<String, Object> finalObject(String model, boolean chat, String text, long promptTokens, long evalTokens,
+                                            long promptEvalNanos) {
+        long evalNanos = evalTokens == 0 ? 0 : (long) (TimeUnit.SECONDS.toNanos(1) / tokensPerSecond) * evalTokens;
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("model", model);
+        body.put("created_at", Instant.now().toString());
+        putText(body, chat, text);
+        body.put("done", true);
+        body.put("done_reason", "stop");
+        body.put("total_duration", promptEvalNanos + evalNanos);
+        body.put("load_duration", 0);
+        body.put("prompt_eval_count", promptTokens);
+        body.put("prompt_eval_duration", promptEvalNanos);
+        body.put("eval_count", evalTokens);
+        body.put("eval_duration", evalNanos);
+        return body;
+    }
+
+    private static void putText(Map<String, Object> body, boolean chat, String text) {
+        if (chat) {
+            body.put("message", Map.of("role", "assistant", "content", text));
+        } else {
+            body.put("response", text);
+        }
+    }
+
+    private void handleEmbed(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+            JsonNode input = request.path("input");
+            List<float[]> embeddings = new ArrayList<>();
+            if (input.isArray()) {
+                input.forEach(text -> embeddings.add(embedder.embed(text.asText(""))));
+            } else {
+                embeddings.add(embedder.embed(input.asText("")));
+            }
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("model", request.path("model").asText(modelName));
+            body.put("embeddings", embeddings);
+            sendJson(exchange, 200, body);
+        }
+    }
+
+    private Map<String, Object> modelList(boolean running) {
+        Map<String, Object> model = new LinkedHashMap<>();
+        model.put("name", modelName);
+        model.put("model", modelName);
+        model.put("size", 4_920_000_000L);
+        if (running) {
+            model.put("size_vram", 4_920_000_000L);
+            model.put("expires_at", Instant.now().plusSeconds(1800).toString());
+        }
+        return Map.of("models", List.of(model));
+    }
+
+    private void sendJson(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+
+    private static String lastMessage(JsonNode messages) {
+        return messages.isArray() && messages.size() > 0
+            ? messages.get(messages.size() - 1).path("content").asText("")
+            : "";
+    }
+
+    private static int promptLength(JsonNode request, boolean chat) {
+        if (!chat) {
+            return request.path("prompt").asText("").length();
+        }
+        int length = 0;
+        for (JsonNode message : request.path("messages")) {
+            length += message.path("content").asText("").length();
+        }
+        return length;
+    }
+
+    private synchronized boolean sampleError() {
+        return errorRate > 0 && random.nextDouble() < errorRate;
+    }
+
+    private synchronized long sampleLatencyMs() {
+        return latency.sample(random);
+    }
+
+    private record Rule(String promptContains, String reply) {}
+
+    public enum LatencyDistribution { FIXED, LOGNORMAL, HEAVY_TAIL }
+
+    /**
+     * Distribution of the time before a call's first token.
+     *
+     * @param medianMs the fixed latency, or the median of the distribution
+     * @param shape spread: sigma of the underlying normal for {@code LOGNORMAL}, Pareto tail
+     *              index for {@code HEAVY_TAIL} (smaller means heavier, must be positive)
+     * @param maxMs cap on sampled latencies
+     */
+    public record LatencyProfile(LatencyDistribution distribution, long medianMs, double shape, long maxMs) {
+
+        public static LatencyProfile fixed(long latencyMs) {
+            return new LatencyProfile(LatencyDistribution.FIXED, latencyMs, 0, latencyMs);
+        }
+
+        long sample(Random random) {
+            double sample = switch (distribution) {
+                case FIXED -> medianMs;
+                case LOGNORMAL -> medianMs * Math.exp(shape * random.nextGaussian());
+                // Pareto with the given median: scale * (1 - u)^(-1/alpha), median = scale * 2^(1/alpha)
+                case HEAVY_TAIL -> medianMs / Math.pow(2, 1 / shape) * Math.pow(1 - random.nextDouble(), -1 / shape);
+            };
+            return Math.min(maxMs, Math.max(0, Math.round(sample)));
+        }
+    }
+
+    public record Statistics(long requests, long injectedErrors) {}
+}
@@ -0,0 +1,53 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import java.util.Locale;
+
+/**
+ * Local stand-in for an embedding model: hashes the words of a text and their character
+ * trigrams into a fixed number of dimensions. Texts sharing most of their words (or word
+ * fragments, as in "tic tac toe" and "tic-tac-toe") end up close, which is enough to catch
+ * near-duplicate task descriptions without a model, though it knows nothing of synonyms.
+ */
+public class HashingTextEmbedder implements TextEmbedder {
+
+    private static final float WORD_WEIGHT = 1.0f;
+    private static final float TRIGRAM_WEIGHT = 0.5f;
+
+    private final int dimensions;
+
+    public HashingTextEmbedder(int dimensions) {
+        if (dimensions < 1) {
+            throw new IllegalArgumentException("dimensions must be at least 1");
+        }
+        this.dimensions = dimensions;
+    }
+
+    @Override
+    public float[] embed(String text) {
+        float[] vector = new float[dimensions];
+        String normalized = text.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").strip();
+        if (normalized.isEmpty()) {
+            return vector;
+        }
+        for (String word : normalized.split(" ")) {
+            add(vector, word, WORD_WEIGHT);
+            String padded = " " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                add(vector, padded.substring(i, i + 3), TRIGRAM_WEIGHT);
+            }
+        }
+        return TextEmbedder.normalize(vector);
+    }
+
+    @Override
+    public String getName() {
+        return "hashing-" + dimensions;
+    }
+
+    private void add(float[] vector, String feature, float weight) {
+        int hash = feature.hashCode() * 0x9E3779B1;
+        int index = Math.floorMod(hash, dimensions);
+        // The sign bit spreads collisions around zero instead of piling them up
+        vector[index] += (hash & 0x40000000) != 0 ? weight : -weight;
+    }
+}
@@ -0,0 +1,396 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * {@link LlmClient} decorator that cuts tail latency with hedged requests: when a call has
+ * not answered within the recent p95 latency of its operation ({@link LlmRequest#operation()},
+ * so executor steps and critic verdicts each have their own), a duplicate is sent and the
+ * first answer wins; the other call is cancelled.
+ *
+ * <p>The duplicate carries a hedge {@link LlmCallContext}, so a balancing client sends it to
+ * a different host than the run's own. Hedging starts once an operation has enough latency
+ * samples, never waits less than {@code minDelayMs}, and hedges at most {@code maxHedgeRatio}
+ * of all calls so a slow backend is not hit with twice the load.</p>
+ *
+ * <p>Streams are hedged on time to first token instead, tracked per operation separately
+ * from whole-call latency: once a stream has produced nothing for its operation's recent p95
+ * wait, a duplicate stream is started and the call commits to whichever attempt delivers a
+ * token first. Only the committed attempt's output reaches the caller; the other is abandoned
+ * at its next chunk. A stream that has started delivering is never switched, so a failure
+ * after the first token fails the call.</p>
+ *
+ * <p>Blocking calls keep using the blocking transport until their operation has a hedge
+ * delay; from then on they run as hedged asynchronous calls and wait for the winner.</p>
+ */
+public class HedgingLlmClient extends DelegatingLlmClient {
+
+    private static final String DEFAULT_OPERATION = "default";
+    private static final int WINDOW_SIZE = 200;
+
+    private final double percentile;
+    private final long minDelayMs;
+    private final int minSamples;
+    private final double maxHedgeRatio;
+
+    private final Map<String, LatencyWindow> windows = new ConcurrentHashMap<>();
+    private final Map<String, LatencyWindow> firstTokenWindows = new ConcurrentHashMap<>();
+    // Hedged streams block while they generate, each attempt gets a thread of its own
+    private final ExecutorService streamExecutor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "llm-hedged-stream");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+
+    public HedgingLlmClient(LlmClient delegate, double percentile, long minDelayMs, int minSamples, double maxHedgeRatio) {
+        super(delegate);
+        this.percentile = percentile;
+        this.minDelayMs = minDelayMs;
+        this.minSamples = minSamples;
+        this.maxHedgeRatio = maxHedgeRatio;
+    }
+
+    @Override
+    public String generate(LlmRequest request) {
+        calls.incrementAndGet();
+        LatencyWindow window = windowFor(request);
+        long hedgeDelayMs = window.hedgeDelayMillis();
+        if (hedgeDelayMs < 0) {
+            long start = System.nanoTime();
+            String response = delegate.generate(request);
+            window.record(System.nanoTime() - start);
+            return response;
+        }
+
+        try {
+            return hedged(request, window, hedgeDelayMs).join();
+        } catch (CompletionException e) {
+            if (LlmFutures.unwrap(e) instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public CompletableFuture<String> generateAsync(LlmRequest request) {
+        calls.incrementAndGet();
+        LatencyWindow window = windowFor(request);
+        return hedged(request, window, window.hedgeDelayMillis());
+    }
+
+    @Override
+    public void stream(LlmRequest request, Consumer<String> onChunk) {
+        calls.incrementAndGet();
+        LatencyWindow window = windowFor(firstTokenWindows, request);
+        long hedgeDelayMs = window.hedgeDelayMillis();
+        if (hedgeDelayMs < 0) {
+            long start = System.nanoTime();
+            boolean[] first = {true};
+            delegate.stream(request, chunk -> {
+                if (first[0]) {
+                    first[0] = false;
+                    window.record(System.nanoTime() - start);
+                }
+                onChunk.accept(chunk);
+            });
+            return;
+        }
+
+        HedgedStream stream = new HedgedStream(window, onChunk);
+        stream.launch(request, LlmCallContext.current(), false);
+        LlmCallContext hedgeContext = LlmCallContext.hedgeOf(LlmCallContext.current());
+        CompletableFuture.delayedExecutor(hedgeDelayMs, TimeUnit.MILLISECONDS)
+            .execute(() -> stream.launch(request, hedgeContext, true));
+        try {
+            stream.result.get();
+        } catch (InterruptedException e) {
+            stream.result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while streaming an LLM response", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private CompletableFuture<String> hedged(LlmRequest request, LatencyWindow window, long hedgeDelayMs) {
+        HedgedCall call = new HedgedCall(window);
+        call.launch(request, LlmCallContext.current(), false);
+        if (hedgeDelayMs >= 0) {
+            LlmCallContext hedgeContext = LlmCallContext.hedgeOf(LlmCallContext.current());
+            CompletableFuture.delayedExecutor(hedgeDelayMs, TimeUnit.MILLISECONDS)
+                .execute(() -> call.launch(request, hedgeContext, true));
+        }
+        return call.result;
+    }
+
+    private LatencyWindow windowFor(LlmRequest request) {
+        return windowFor(windows, request);
+    }
+
+    private LatencyWindow windowFor(Map<String, LatencyWindow> windows, LlmRequest request) {
+        return windows.computeIfAbsent(
+            request.operation() != null ? request.operation() : DEFAULT_OPERATION, operation -> new LatencyWindow());
+    }
+
+    public Statistics getStatistics() {
+        return new Statistics(calls.get(), hedges.get(), hedgeWins.get(), delays(windows), delays(firstTokenWindows));
+    }
+
+    private static Map<String, Long> delays(Map<String, LatencyWindow> windows) {
+        return windows.entrySet().stream()
+            .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().hedgeDelayMillis()));
+    }
+
+    private boolean withinHedgeBudget() {
+        return hedges.get() < maxHedgeRatio * calls.get();
+    }
+
+    /**
+     * One logical call and its (at most two) attempts
+     */
+    private final class HedgedCall {
+        private final LatencyWindow window;
+        private final CompletableFuture<String> result = new CompletableFuture<>();
+        private final AtomicBoolean answered = new AtomicBoolean();
+        private final long start = System.nanoTime();
+
+        // Guarded by this
+        private int running = 0;
+        private int launched = 0;
+        private CompletableFuture<String> primary;
+        private CompletableFuture<String> hedge;
+
+        private HedgedCall(LatencyWindow window) {
+            this.window = window;
+            result.whenComplete((response, failure) -> cancelAttempts());
+        }
+
+        private void launch(LlmRequest request, LlmCallContext context, boolean isHedge) {
+            synchronized (this) {
+                // The primary already answered, failed on its own, or the budget is spent
+                if (result.isDone() || (isHedge && (launched == 0 || running == 0 || !withinHedgeBudget()))) {
+                    return;
+                }
+                running++;
+                launched++;
+            }
+            if (isHedge) {
+                hedges.incrementAndGet();
+            }
+
+            CompletableFuture<String> attempt;
+            try (LlmCallContext.Scope scope = LlmCallContext.open(context)) {
+                attempt = delegate.generateAsync(request);
+            } catch (RuntimeException e) {
+                attempt = CompletableFuture.failedFuture(e);
+            }
+            synchronized (this) {
+                if (isHedge) {
+                    hedge = attempt;
+                } else {
+                    primary = attempt;
+                }
+            }
+            attempt.whenComplete((response, failure) -> onAttemptDone(response, failure, isHedge));
+            if (result.isDone()) {
+                attempt.cancel(true);
+            }
+        }
+
+        private void onAttemptDone(String response, Throwable failure, boolean isHedge) {
+            if (failure == null) {
+                // Count the answer before the caller can see it
+                if (answered.compareAndSet(false, true)) {
+                    window.record(System.nanoTime() - start);
+                    if (isHedge) {
+                        hedgeWins.incrementAndGet();
+                    }
+                    result.complete(response);
+                }
+                return;
+            }
+
+            boolean last;
+            synchronized (this) {
+                last = --running == 0;
+            }
+            // Wait for the other attempt if there is one, it may still succeed
+            if (last) {
+                result.completeExceptionally(LlmFutures.unwrap(failure));
+            }
+        }
+
+        private void cancelAttempts() {
+            CompletableFuture<String> primaryAttempt;
+            CompletableFuture<String> hedgeAttempt;
+            synchronized (this) {
+                primaryAttempt = primary;
+                hedgeAttempt = hedge;
+            }
+            if (primaryAttempt != null) {
+                primaryAttempt.cancel(true);
+            }
+            if (hedgeAttempt != null) {
+                hedgeAttempt.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * One logical stream and its (at most two) attempts, racing for the first token
+     */
+    private final class HedgedStream {
+        private static final int NONE = 0;
+        private static final int PRIMARY = 1;
+        private static final int HEDGE = 2;
+
+        private final LatencyWindow window;
+        private final Consumer<String> onChunk;
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+        private final long start = System.nanoTime();
+
+        // The attempt whose output is forwarded, set once by the first token
+        private volatile int owner = NONE;
+        // Guarded by this
+        private int running = 0;
+        private int launched = 0;
+
+        private HedgedStream(LatencyWindow window, Consumer<String> onChunk) {
+            this.window = window;
+            this.onChunk = onChunk;
+        }
+
+        private void launch(LlmRequest request, LlmCallContext context, boolean isHedge) {
+            synchronized (this) {
+                // An attempt already delivered, the primary failed on its own, or the budget is spent
+                if (result.isDone() || owner != NONE
+                        || (isHedge && (launched == 0 || running == 0 || !withinHedgeBudget()))) {
+                    return;
+                }
+                running++;
+                launched++;
+            }
+            if (isHedge) {
+                hedges.incrementAndGet();
+            }
+
+            int attempt = isHedge ? HEDGE : PRIMARY;
+            try {
+                streamExecutor.execute(() -> run(request, context, attempt));
+            } catch (RejectedExecutionException e) {
+                onAttemptDone(attempt, e);
+            }
+        }
+
+        private void run(LlmRequest request, LlmCallContext context, int attempt) {
+            try (LlmCallContext.Scope scope = LlmCallContext.open(context)) {
+                delegate.stream(request, chunk -> {
+                    if (!claim(attempt)) {
+                        throw new CancellationException("Another attempt of this hedged stream delivered first");
+                    }
+                    onChunk.accept(chunk);
+                });
+                // A stream without any output still answers the call
+                claim(attempt);
+                onAttemptDone(attempt, null);
+            } catch (Throwable e) {
+                onAttemptDone(attempt, e);
+            }
+        }
+
+        /**
+         * @return whether the attempt owns the call's output, taking it if nobody does yet
+         */
+        private boolean claim(int attempt) {
+            if (owner == NONE && !result.isDone()) {
+                synchronized (this) {
+                    if (owner == NONE) {
+                        owner = attempt;
+                        window.record(System.nanoTime() - start);
+                        if (attempt == HEDGE) {
+                            hedgeWins.incrementAndGet();
+                        }
+                    }
+                }
+            }
+            return owner == attempt && !result.isDone();
+        }
+
+        private void onAttemptDone(int attempt, Throwable failure) {
+            boolean last;
+            synchronized (this) {
+                last = --running == 0;
+            }
+            if (owner == attempt) {
+                if (failure == null) {
+                    result.complete(null);
+                } else {
+                    result.completeExceptionally(failure);
+                }
+            } else if (owner == NONE && last) {
+                // Nobody delivered and nothing is left running that still could
+                result.completeExceptionally(failure != null
+                    ? failure : new IllegalStateException("Hedged stream ended without an answer"));
+            }
+        }
+    }
+
+    /**
+     * Latencies of the most recent successful calls of one operation
+     */
+    private final class LatencyWindow {
+        private final long[] samples = new long[WINDOW_SIZE];
+        private int count = 0;
+        private int next = 0;
+
+        private synchronized void record(long latencyNanos) {
+            samples[next] = latencyNanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        }
+
+        /**
+         * Delay after which to hedge, or -1 while there are too few samples to know
+         */
+        private synchronized long hedgeDelayMillis() {
+            if (count < minSamples) {
+                return -1;
+            }
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            int index = Math.min(count - 1, (int) Math.ceil(percentile * count) - 1);
+            return Math.max(minDelayMs, TimeUnit.NANOSECONDS.toMillis(sorted[Math.max(0, index)]));
+        }
+    }
+
+    /**
+     * @param hedgeDelaysMs current hedge delay per operation, -1 while still collecting samples
+     * @param streamHedgeDelaysMs current hedge delay per operation for streams, by time to first token
+     */
+    public record Statistics(long calls, long hedges, long hedgeWins, Map<String, Long> hedgeDelaysMs,
+                             Map<String, Long> streamHedgeDelaysMs) {}
+}
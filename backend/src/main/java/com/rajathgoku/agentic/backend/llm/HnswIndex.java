@@ -0,0 +1,247 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Approximate nearest-neighbour index over unit-length {@code float[]} vectors by cosine
+ * similarity, as a Hierarchical Navigable Small World graph (Malkov and Yashunin).
+ *
+ * <p>Each vector is a node on layer 0 and, with geometrically decreasing probability, on
+ * higher layers. A search descends greedily through the sparse upper layers to a good entry
+ * point and then explores layer 0 with a candidate list of {@code ef} nodes, so it visits a
+ * small fraction of the index. Neighbour lists are pruned to the closest nodes.</p>
+ *
+ * <p>Removal only marks a node deleted: it keeps routing searches but is no longer returned.
+ * Owners rebuild the index once too many nodes are deleted. Not thread-safe.</p>
+ */
+final class HnswIndex {
+
+    private static final int[] NO_NEIGHBOURS = new int[0];
+
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final Random random;
+
+    private int dimensions = -1;
+    private float[][] vectors = new float[16][];
+    private int[][][] neighbours = new int[16][][];
+    private final BitSet deleted = new BitSet();
+    private int count = 0;
+    private int deletedCount = 0;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    /**
+     * @param m neighbours per node on the upper layers, twice as many on layer 0
+     * @param efConstruction candidate list size while inserting, higher builds a better graph
+     */
+    HnswIndex(int m, int efConstruction, long seed) {
+        if (m < 2) {
+            throw new IllegalArgumentException("m must be at least 2");
+        }
+        this.m = m;
+        this.maxM0 = 2 * m;
+        this.efConstruction = Math.max(efConstruction, m);
+        this.levelMultiplier = 1 / Math.log(m);
+        this.random = new Random(seed);
+    }
+
+    /**
+     * @param vector unit-length vector, kept by reference
+     * @return the id of the new node
+     */
+    int add(float[] vector) {
+        if (dimensions < 0) {
+            dimensions = vector.length;
+        } else if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " dimensions but got " + vector.length);
+        }
+
+        int id = count++;
+        if (id == vectors.length) {
+            vectors = Arrays.copyOf(vectors, id * 2);
+            neighbours = Arrays.copyOf(neighbours, id * 2);
+        }
+        int level = randomLevel();
+        vectors[id] = vector;
+        neighbours[id] = new int[level + 1][];
+        Arrays.fill(neighbours[id], NO_NEIGHBOURS);
+
+        if (entryPoint < 0) {
+            entryPoint = id;
+            maxLevel = level;
+            return id;
+        }
+
+        int current = entryPoint;
+        for (int layer = maxLevel; layer > level; layer--) {
+            current = closest(searchLayer(vector, current, 1, layer));
+        }
+        for (int layer = Math.min(level, maxLevel); layer >= 0; layer--) {
+            List<Candidate> found = ascending(searchLayer(vector, current, efConstruction, layer));
+            int[] selected = new int[Math.min(m, found.size())];
+            for (int i = 0; i < selected.length; i++) {
+                selected[i] = found.get(i).id();
+            }
+            neighbours[id][layer] = selected;
+            for (int neighbour : selected) {
+                connect(neighbour, id, layer);
+            }
+            current = found.get(0).id();
+        }
+        if (level > maxLevel) {
+            maxLevel = level;
+            entryPoint = id;
+        }
+        return id;
+    }
+
+    /**
+     * Stop returning a node from searches
+     */
+    void remove(int id) {
+        if (id >= 0 && id < count && !deleted.get(id)) {
+            deleted.set(id);
+            deletedCount++;
+        }
+    }
+
+    /**
+     * The {@code k} most similar live nodes, most similar first
+     *
+     * @param ef candidate list size on layer 0, higher finds the true neighbours more reliably
+     */
+    List<Match> search(float[] query, int k, int ef) {
+        if (entryPoint < 0 || query.length != dimensions) {
+            return List.of();
+        }
+        int current = entryPoint;
+        for (int layer = maxLevel; layer > 0; layer--) {
+            current = closest(searchLayer(query, current, 1, layer));
+        }
+        List<Match> matches = new ArrayList<>(k);
+        for (Candidate candidate : ascending(searchLayer(query, current, Math.max(ef, k), 0))) {
+            if (!deleted.get(candidate.id())) {
+                matches.add(new Match(candidate.id(), 1 - candidate.distance()));
+                if (matches.size() == k) {
+                    break;
+                }
+            }
+        }
+        return matches;
+    }
+
+    int size() {
+        return count - deletedCount;
+    }
+
+    int deletedCount() {
+        return deletedCount;
+    }
+
+    /**
+     * The {@code ef} nodes closest to the query found from {@code entry} on one layer, as a
+     * max-heap so the farthest is at the head
+     */
+    private PriorityQueue<Candidate> searchLayer(float[] query, int entry, int ef, int layer) {
+        BitSet visited = new BitSet(count);
+        Candidate start = new Candidate(entry, distance(query, entry));
+        visited.set(entry);
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>(Comparator.comparingDouble(Candidate::distance));
+        PriorityQueue<Candidate> results = new PriorityQueue<>(Comparator.comparingDouble(Candidate::distance).reversed());
+        candidates.add(start);
+        results.add(start);
+
+        while (!candidates.isEmpty()) {
+            Candidate nearest = candidates.poll();
+            if (results.size() >= ef && nearest.distance() > results.peek().distance()) {
+                break;
+            }
+            for (int neighbour : neighboursOf(nearest.id(), layer)) {
+                if (visited.get(neighbour)) {
+                    continue;
+                }
+                visited.set(neighbour);
+                float distance = distance(query, neighbour);
+                if (results.size() < ef || distance < results.peek().distance()) {
+                    Candidate candidate = new Candidate(neighbour, distance);
+                    candidates.add(candidate);
+                    results.add(candidate);
+                    if (results.size() > ef) {
+                        results.poll();
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Add {@code id} to the neighbours of {@code node}, dropping the farthest when over the limit
+     */
+    private void connect(int node, int id, int layer) {
+        int[] current = neighbours[node][layer];
+        int[] extended = Arrays.copyOf(current, current.length + 1);
+        extended[current.length] = id;
+        int limit = layer == 0 ? maxM0 : m;
+        if (extended.length <= limit) {
+            neighbours[node][layer] = extended;
+            return;
+        }
+
+        float[] vector = vectors[node];
+        List<Candidate> byDistance = new ArrayList<>(extended.length);
+        for (int neighbour : extended) {
+            byDistance.add(new Candidate(neighbour, distance(vector, neighbour)));
+        }
+        byDistance.sort(Comparator.comparingDouble(Candidate::distance));
+        int[] pruned = new int[limit];
+        for (int i = 0; i < limit; i++) {
+            pruned[i] = byDistance.get(i).id();
+        }
+        neighbours[node][layer] = pruned;
+    }
+
+    private int[] neighboursOf(int node, int layer) {
+        int[][] layers = neighbours[node];
+        return layer < layers.length ? layers[layer] : NO_NEIGHBOURS;
+    }
+
+    private float distance(float[] query, int node) {
+        float[] vector = vectors[node];
+        float dot = 0;
+        for (int i = 0; i < vector.length; i++) {
+            dot += query[i] * vector[i];
+        }
+        return 1 - dot;
+    }
+
+    private int randomLevel() {
+        return (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier);
+    }
+
+    private static int closest(PriorityQueue<Candidate> results) {
+        return ascending(results).get(0).id();
+    }
+
+    private static List<Candidate> ascending(PriorityQueue<Candidate> results) {
+        List<Candidate> sorted = new ArrayList<>(results);
+        sorted.sort(Comparator.comparingDouble(Candidate::distance));
+        return sorted;
+    }
+
+    private record Candidate(int id, float distance) {}
+
+    /**
+     * @param similarity cosine similarity to the query, 1 for the same direction
+     */
+    record Match(int id, float similarity) {}
+}
@@ -0,0 +1,89 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * One batch in flight: sends the requests through a client's {@link LlmClient#generateAsync(LlmRequest)}
+ * with at most {@code maxInFlight} outstanding, starting the next request whenever one completes.
+ */
+final class LlmBatch {
+
+    private final LlmClient client;
+    private final List<LlmRequest> requests;
+    // Requests after the first window start on completion threads, carry the caller's context over
+    private final LlmCallContext context = LlmCallContext.current();
+    private final LlmBatchResult[] results;
+    private final AtomicReferenceArray<CompletableFuture<String>> calls;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicInteger remaining;
+    private final CompletableFuture<List<LlmBatchResult>> result = new CompletableFuture<>();
+
+    private LlmBatch(LlmClient client, List<LlmRequest> requests) {
+        this.client = client;
+        this.requests = List.copyOf(requests);
+        this.results = new LlmBatchResult[requests.size()];
+        this.calls = new AtomicReferenceArray<>(requests.size());
+        this.remaining = new AtomicInteger(requests.size());
+    }
+
+    /**
+     * The returned future completes with one result per request, in request order, once
+     * every request has completed. Cancelling it cancels the requests still outstanding.
+     */
+    static CompletableFuture<List<LlmBatchResult>> dispatch(LlmClient client, List<LlmRequest> requests, int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1");
+        }
+        if (requests.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+
+        LlmBatch batch = new LlmBatch(client, requests);
+        batch.result.whenComplete((results, failure) -> {
+            if (batch.result.isCancelled()) {
+                batch.cancelOutstanding();
+            }
+        });
+        for (int i = 0; i < Math.min(maxInFlight, requests.size()); i++) {
+            batch.startNext();
+        }
+        return batch.result;
+    }
+
+    private void startNext() {
+        int index = next.getAndIncrement();
+        if (index >= requests.size() || result.isDone()) {
+            return;
+        }
+
+        CompletableFuture<String> call;
+        try (LlmCallContext.Scope scope = LlmCallContext.open(context)) {
+            call = client.generateAsync(requests.get(index));
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        calls.set(index, call);
+        call.whenComplete((response, failure) -> {
+            results[index] = failure == null
+                ? LlmBatchResult.success(response)
+                : LlmBatchResult.failure(LlmFutures.unwrap(failure));
+            if (remaining.decrementAndGet() == 0) {
+                result.complete(List.of(results));
+            } else {
+                startNext();
+            }
+        });
+    }
+
+    private void cancelOutstanding() {
+        for (int i = 0; i < calls.length(); i++) {
+            CompletableFuture<String> call = calls.get(i);
+            if (call != null) {
+                call.cancel(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.rajathgoku.agentic.backend.llm;
+
+/**
+ * Outcome of one request of a batch: either its response or the failure of that request
+ * alone, so one failed item does not discard the others.
+ *
+ * @see LlmClient#generateBatch(java.util.List)
+ */
+public record LlmBatchResult(String response, Throwable error) {
+
+    public static LlmBatchResult success(String response) {
+        return new LlmBatchResult(response, null);
+    }
+
+    public static LlmBatchResult failure(Throwable error) {
+        return new LlmBatchResult(null, error);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
@@ -0,0 +1,19 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import java.util.Optional;
+
+/**
+ * Storage tier for cached LLM completions, addressed by the content hash computed in
+ * {@link CachingLlmClient}.
+ */
+public interface LlmCacheStore {
+
+    Optional<String> get(String key);
+
+    void put(String key, String value);
+
+    /**
+     * Largest completion, in bytes, the store will accept
+     */
+    long maxEntryBytes();
+}
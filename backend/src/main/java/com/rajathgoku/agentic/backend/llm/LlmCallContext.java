@@ -0,0 +1,63 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import java.util.UUID;
+
+/**
+ * What an LLM call is being made for, bound to the calling thread by the orchestrator so
+ * the client chain can act on it (for example routing all calls of a run to the same host)
+ * without threading it through every agent method.
+ *
+ * <p>Decorators must read the context on the caller's thread, i.e. before handing work to
+ * another thread in an async call.</p>
+ */
+public record LlmCallContext(UUID runId, UUID stepId, boolean hedge) {
+
+    private static final ThreadLocal<LlmCallContext> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Context bound to the current thread, or {@code null} outside a run
+     */
+    public static LlmCallContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Bind a context to the current thread until the returned scope is closed, which
+     * restores whatever context was bound before
+     */
+    public static Scope open(LlmCallContext context) {
+        LlmCallContext previous = CURRENT.get();
+        CURRENT.set(context);
+        return () -> {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        };
+    }
+
+    public static Scope forRun(UUID runId) {
+        return open(new LlmCallContext(runId, null, false));
+    }
+
+    public static Scope forStep(UUID runId, UUID stepId) {
+        return open(new LlmCallContext(runId, stepId, false));
+    }
+
+    /**
+     * The same context for a hedged duplicate of a call, which should race the original
+     * rather than follow it
+     */
+    public static LlmCallContext hedgeOf(LlmCallContext context) {
+        return context != null
+            ? new LlmCallContext(context.runId(), context.stepId(), true)
+            : new LlmCallContext(null, null, true);
+    }
+
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,12 @@
+package com.rajathgoku.agentic.backend.llm;
+
+/**
+ * Thrown without contacting the backend while the LLM circuit breaker is open, i.e. after
+ * recent calls failed at a rate that suggests the backend is down.
+ */
+public class LlmCircuitOpenException extends RuntimeException {
+
+    public LlmCircuitOpenException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,8 @@
 package com.rajathgoku.agentic.backend.llm;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public interface LlmClient {
     
@@ -13,7 +15,88 @@ public interface LlmClient {
      * Send a conversation (list of messages) to the LLM
      */
     String generateResponse(List<Message> messages);
-    
+
+    /**
+     * Send a request carrying per-call settings (model, options, caching opt-out).
+     * Implementations that do not support a setting ignore it.
+     */
+    default String generate(LlmRequest request) {
+        return request.isChat() ? generateResponse(request.messages()) : generateResponse(request.prompt());
+    }
+
+    /**
+     * Stream the response for a request, handing each token chunk to the callback
+     * as soon as it arrives. The client does not buffer the completion; callers that need
+     * the full text accumulate it themselves.
+     *
+     * <p>The default implementation falls back to a blocking call and emits the whole
+     * response as a single chunk.</p>
+     */
+    default void stream(LlmRequest request, Consumer<String> onChunk) {
+        onChunk.accept(generate(request));
+    }
+
+    /**
+     * Stream the response for a single prompt
+     *
+     * @see #stream(LlmRequest, Consumer)
+     */
+    default void streamResponse(String prompt, Consumer<String> onChunk) {
+        stream(LlmRequest.ofPrompt(prompt), onChunk);
+    }
+
+    /**
+     * Send a request without blocking the caller. The future completes when the
+     * response arrives; cancelling it abandons the call where the transport allows.
+     *
+     * <p>The default implementation runs the blocking {@link #generate(LlmRequest)} on
+     * the common pool, so it only frees the caller's thread. Transports that support
+     * non-blocking I/O override it to keep no thread busy while the model generates.</p>
+     */
+    default CompletableFuture<String> generateAsync(LlmRequest request) {
+        return CompletableFuture.supplyAsync(() -> generate(request));
+    }
+
+    /**
+     * Send a single prompt without blocking the caller
+     *
+     * @see #generateAsync(LlmRequest)
+     */
+    default CompletableFuture<String> generateResponseAsync(String prompt) {
+        return generateAsync(LlmRequest.ofPrompt(prompt));
+    }
+
+    /**
+     * Send a conversation without blocking the caller
+     *
+     * @see #generateAsync(LlmRequest)
+     */
+    default CompletableFuture<String> generateResponseAsync(List<Message> messages) {
+        return generateAsync(LlmRequest.ofMessages(messages));
+    }
+
+    /**
+     * Send several independent requests together and wait for all of them. The results
+     * are returned in request order, each carrying either its response or its own failure.
+     *
+     * @see #generateBatchAsync(List)
+     */
+    default List<LlmBatchResult> generateBatch(List<LlmRequest> requests) {
+        return generateBatchAsync(requests).join();
+    }
+
+    /**
+     * Send several independent requests together without blocking the caller.
+     *
+     * <p>The default implementation sends every request at once through
+     * {@link #generateAsync(LlmRequest)}. Clients in front of a backend with a fixed
+     * number of parallel slots override it to keep only as many requests in flight as
+     * the backend can serve at the same time.</p>
+     */
+    default CompletableFuture<List<LlmBatchResult>> generateBatchAsync(List<LlmRequest> requests) {
+        return LlmBatch.dispatch(this, requests, Math.max(1, requests.size()));
+    }
+
     /**
      * Check if the LLM client is available/healthy
      */
@@ -0,0 +1,61 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiConsumer;
+
+/**
+ * Small helpers for the asynchronous paths of the {@link LlmClient} decorators.
+ */
+final class LlmFutures {
+
+    private LlmFutures() {
+    }
+
+    /**
+     * The failure a caller would act on, without the {@link CompletionException} wrapper
+     * that dependent stages add
+     */
+    static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
+    /**
+     * Whether the failure is, or was caused by, a cancellation; a stream abandoned from its
+     * chunk callback surfaces as the transport's own exception wrapping it
+     */
+    static boolean isCancellation(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CancellationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Cancel {@code source} when {@code derived} is cancelled. Dependent stages do not pass
+     * cancellation upstream on their own, and an abandoned LLM call should stop generating.
+     */
+    static <T> CompletableFuture<T> propagateCancellation(CompletableFuture<T> derived, CompletableFuture<?> source) {
+        derived.whenComplete((result, failure) -> {
+            if (derived.isCancelled()) {
+                source.cancel(true);
+            }
+        });
+        return derived;
+    }
+
+    /**
+     * Run {@code action} once {@code source} completes, and return a future for the caller
+     * whose cancellation cancels {@code source}. The action hangs off the source itself: a
+     * dependent stage that gets cancelled never runs its action, which would lose the
+     * bookkeeping of every call the caller abandons.
+     */
+    static <T> CompletableFuture<T> onCompletion(CompletableFuture<T> source,
+                                                 BiConsumer<? super T, ? super Throwable> action) {
+        source.whenComplete(action);
+        return propagateCancellation(source.thenApply(result -> result), source);
+    }
+}
@@ -0,0 +1,13 @@
+package com.rajathgoku.agentic.backend.llm;
+
+/**
+ * Thrown when an LLM call is rejected locally because the backend is already at capacity
+ * (for example the concurrency limiter's queue is full), rather than failing on the wire.
+ * Callers can treat it as a signal to back off instead of retrying immediately.
+ */
+public class LlmOverloadedException extends RuntimeException {
+
+    public LlmOverloadedException(String message) {
+        super(message);
+    }
+}
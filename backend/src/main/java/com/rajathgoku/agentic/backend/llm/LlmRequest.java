@@ -0,0 +1,69 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A single LLM call with its per-call settings.
+ *
+ * <p>Either {@code prompt} or {@code messages} is set. {@code model} overrides the client's
+ * default model when non-null, {@code options} are passed through as backend generation
+ * options, and {@code cacheable} lets callers opt out of response caching for prompts whose
+ * answer should not be reused. {@code operation} names the agent call that issued the request
+ * (for example {@code executor.step}) so the client chain can keep per-operation statistics;
+ * it is not part of the request sent to the backend.</p>
+ *
+ * <p>{@code format} constrains the output to JSON: {@code "json"} for any JSON value, or a
+ * JSON schema (as nested maps and lists) the response must follow; {@code null} for free
+ * text.</p>
+ */
+public record LlmRequest(String prompt,
+                         List<LlmClient.Message> messages,
+                         String model,
+                         Map<String, Object> options,
+                         boolean cacheable,
+                         String operation,
+                         Object format) {
+
+    public LlmRequest {
+        options = options != null ? Map.copyOf(options) : Map.of();
+    }
+
+    public static LlmRequest ofPrompt(String prompt) {
+        return new LlmRequest(prompt, null, null, Map.of(), true, null, null);
+    }
+
+    public static LlmRequest ofMessages(List<LlmClient.Message> messages) {
+        return new LlmRequest(null, List.copyOf(messages), null, Map.of(), true, null, null);
+    }
+
+    public boolean isChat() {
+        return messages != null;
+    }
+
+    public LlmRequest withModel(String model) {
+        return new LlmRequest(prompt, messages, model, options, cacheable, operation, format);
+    }
+
+    public LlmRequest withOptions(Map<String, Object> options) {
+        return new LlmRequest(prompt, messages, model, options, cacheable, operation, format);
+    }
+
+    public LlmRequest forOperation(String operation) {
+        return new LlmRequest(prompt, messages, model, options, cacheable, operation, format);
+    }
+
+    /**
+     * Constrain the response to JSON, see {@link #format()}
+     */
+    public LlmRequest withFormat(Object format) {
+        return new LlmRequest(prompt, messages, model, options, cacheable, operation, format);
+    }
+
+    /**
+     * Mark this call as non-deterministic so response caches neither serve nor store it
+     */
+    public LlmRequest uncached() {
+        return new LlmRequest(prompt, messages, model, options, false, operation, format);
+    }
+}
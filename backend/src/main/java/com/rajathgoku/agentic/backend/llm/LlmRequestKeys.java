@@ -0,0 +1,70 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Content addresses for {@link LlmRequest}s, shared by the decorators that need to
+ * recognise identical requests (caching, coalescing).
+ */
+final class LlmRequestKeys {
+
+    private LlmRequestKeys() {
+    }
+
+    /**
+     * SHA-256 of model, options and output format (in key order) and prompt or messages, so only
+     * byte-identical requests share a key
+     *
+     * @param defaultModel model to assume when the request does not override it
+     */
+    static String contentKey(LlmRequest request, String defaultModel) {
+        MessageDigest digest = sha256();
+        update(digest, request.model() != null ? request.model() : defaultModel);
+        update(digest, new TreeMap<>(request.options()).toString());
+        update(digest, String.valueOf(canonical(request.format())));
+        if (request.isChat()) {
+            for (LlmClient.Message message : request.messages()) {
+                update(digest, message.role());
+                update(digest, message.content());
+            }
+        } else {
+            update(digest, request.prompt());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Maps (at any depth) with sorted keys, so a schema hashes the same whatever its map order
+     */
+    private static Object canonical(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            TreeMap<String, Object> sorted = new TreeMap<>();
+            map.forEach((key, entry) -> sorted.put(String.valueOf(key), canonical(entry)));
+            return sorted;
+        }
+        if (value instanceof List<?> list) {
+            return list.stream().map(LlmRequestKeys::canonical).toList();
+        }
+        return value;
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+        // Field separator so ("ab", "c") and ("a", "bc") hash differently
+        digest.update((byte) 0);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-memory LRU cache of LLM completions keyed by content hash.
+ *
+ * <p>Capacity is bounded by the approximate heap weight of the cached text rather than by
+ * entry count, because completions range from a one-word verdict to multi-kilobyte plans.
+ * Entries also expire after a fixed time-to-live.</p>
+ */
+public class LlmResponseCache implements LlmCacheStore {
+
+    /** Rough per-entry overhead of the map node, entry record and key string */
+    private static final long ENTRY_OVERHEAD_BYTES = 96;
+
+    private final long maxWeightBytes;
+    private final long ttlNanos;
+
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long weightBytes = 0;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+    private long expirations = 0;
+
+    public LlmResponseCache(long maxWeightBytes, Duration ttl) {
+        if (maxWeightBytes <= 0) {
+            throw new IllegalArgumentException("Cache weight limit must be positive");
+        }
+        this.maxWeightBytes = maxWeightBytes;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    @Override
+    public synchronized Optional<String> get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return Optional.empty();
+        }
+        if (System.nanoTime() - entry.expiresAtNanos() > 0) {
+            remove(key, entry);
+            expirations++;
+            misses++;
+            return Optional.empty();
+        }
+        hits++;
+        return Optional.of(entry.value());
+    }
+
+    @Override
+    public synchronized void put(String key, String value) {
+        long weight = weigh(key, value);
+        if (weight > maxEntryBytes()) {
+            return;
+        }
+
+        Entry previous = entries.put(key, new Entry(value, weight, System.nanoTime() + ttlNanos));
+        if (previous != null) {
+            weightBytes -= previous.weight();
+        }
+        weightBytes += weight;
+        evictIfNeeded();
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        weightBytes = 0;
+    }
+
+    /**
+     * Largest single entry the cache accepts; bigger completions are not worth pushing
+     * a quarter of the cache out for
+     */
+    @Override
+    public long maxEntryBytes() {
+        return maxWeightBytes / 4;
+    }
+
+    /**
+     * Approximate heap footprint of a cached completion (UTF-16 text plus bookkeeping)
+     */
+    public static long weigh(String key, String value) {
+        return 2L * (key.length() + value.length()) + ENTRY_OVERHEAD_BYTES;
+    }
+
+    public synchronized Statistics getStatistics() {
+        return new Statistics(hits, misses, evictions, expirations, entries.size(), weightBytes, maxWeightBytes);
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (weightBytes > maxWeightBytes && eldest.hasNext()) {
+            Entry entry = eldest.next().getValue();
+            eldest.remove();
+            weightBytes -= entry.weight();
+            evictions++;
+        }
+    }
+
+    private void remove(String key, Entry entry) {
+        entries.remove(key);
+        weightBytes -= entry.weight();
+    }
+
+    private record Entry(String value, long weight, long expiresAtNanos) {}
+
+    public record Statistics(long hits, long misses, long evictions, long expirations,
+                             int entries, long weightBytes, long maxWeightBytes) {
+        public double getHitRate() {
+            long lookups = hits + misses;
+            return lookups > 0 ? (double) hits / lookups : 0.0;
+        }
+    }
+}
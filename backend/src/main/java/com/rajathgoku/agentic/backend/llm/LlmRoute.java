@@ -0,0 +1,67 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Model and generation options for the calls of one operation, see {@link RoutingLlmClient}.
+ * Every setting is optional; {@code null} (or an empty stop list) keeps the request's own
+ * setting, or the backend default.
+ *
+ * @param model model to run the calls on
+ * @param numPredict maximum tokens to generate ({@code num_predict})
+ * @param numCtx context window size ({@code num_ctx})
+ * @param temperature sampling temperature
+ * @param stop sequences that end the generation
+ */
+public record LlmRoute(String model, Integer numPredict, Integer numCtx, Double temperature, List<String> stop) {
+
+    public static final LlmRoute NONE = new LlmRoute(null, null, null, null, List.of());
+
+    public LlmRoute {
+        stop = stop != null ? List.copyOf(stop) : List.of();
+    }
+
+    public boolean isEmpty() {
+        return model == null && numPredict == null && numCtx == null && temperature == null && stop.isEmpty();
+    }
+
+    /**
+     * This route's settings filled in where {@code fallback} leaves them unset
+     */
+    LlmRoute orElse(LlmRoute fallback) {
+        return new LlmRoute(
+            model != null ? model : fallback.model,
+            numPredict != null ? numPredict : fallback.numPredict,
+            numCtx != null ? numCtx : fallback.numCtx,
+            temperature != null ? temperature : fallback.temperature,
+            !stop.isEmpty() ? stop : fallback.stop);
+    }
+
+    /**
+     * The request with this route's settings; a model or option the request sets itself wins
+     */
+    LlmRequest applyTo(LlmRequest request) {
+        if (isEmpty()) {
+            return request;
+        }
+        Map<String, Object> options = new HashMap<>();
+        if (numPredict != null) {
+            options.put("num_predict", numPredict);
+        }
+        if (numCtx != null) {
+            options.put("num_ctx", numCtx);
+        }
+        if (temperature != null) {
+            options.put("temperature", temperature);
+        }
+        if (!stop.isEmpty()) {
+            options.put("stop", stop);
+        }
+        options.putAll(request.options());
+
+        LlmRequest routed = request.withOptions(options);
+        return request.model() == null && model != null ? routed.withModel(model) : routed;
+    }
+}
@@ -0,0 +1,31 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Collects runtime statistics from the components of the LLM client chain (cache,
+ * coalescing, limiting, ...) so they can be reported together without each decorator
+ * having to be a separately injectable bean.
+ */
+@Component
+public class LlmStatsRegistry {
+
+    private final Map<String, Supplier<?>> sources = new LinkedHashMap<>();
+
+    public synchronized void register(String name, Supplier<?> statistics) {
+        sources.put(name, statistics);
+    }
+
+    /**
+     * Current statistics of every registered component, in registration order
+     */
+    public synchronized Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        sources.forEach((name, statistics) -> snapshot.put(name, statistics.get()));
+        return snapshot;
+    }
+}
@@ -0,0 +1,51 @@
+package com.rajathgoku.agentic.backend.llm;
+
+/**
+ * Token counts and timings of one completed backend call, as reported by Ollama in the final
+ * response object, plus the wall time the call took as seen by the client.
+ *
+ * @param model the model that served the call
+ * @param operation the request's {@link LlmRequest#operation()}, may be null
+ * @param promptTokens tokens of the prompt that had to be evaluated ({@code prompt_eval_count});
+ *                     a prefix reused from the server's cache is not counted
+ * @param completionTokens generated tokens ({@code eval_count})
+ * @param loadNanos time spent loading the model ({@code load_duration})
+ * @param promptEvalNanos time spent evaluating the prompt ({@code prompt_eval_duration})
+ * @param evalNanos time spent generating ({@code eval_duration})
+ * @param serverNanos total time the server spent on the call ({@code total_duration})
+ * @param wallNanos time from sending the request to receiving the last byte of the answer
+ */
+public record LlmUsage(String model, String operation, long promptTokens, long completionTokens,
+                       long loadNanos, long promptEvalNanos, long evalNanos, long serverNanos, long wallNanos) {
+
+    /**
+     * Usage of a call from Ollama's final response object
+     */
+    static LlmUsage fromResponse(OllamaResponse body, String defaultModel, String operation, long wallNanos) {
+        return new LlmUsage(
+            body.model() != null ? body.model() : defaultModel,
+            operation,
+            body.promptEvalCount(),
+            body.evalCount(),
+            body.loadDuration(),
+            body.promptEvalDuration(),
+            body.evalDuration(),
+            body.totalDuration(),
+            wallNanos);
+    }
+
+    /**
+     * Time spent evaluating the prompt and generating
+     */
+    public long inferenceNanos() {
+        return promptEvalNanos + evalNanos;
+    }
+
+    /**
+     * Time the call spent waiting rather than being worked on: queued in the server behind
+     * other requests, plus transport overhead
+     */
+    public long queueNanos() {
+        return Math.max(0, wallNanos - serverNanos);
+    }
+}
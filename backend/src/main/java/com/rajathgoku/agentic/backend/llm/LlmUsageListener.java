@@ -0,0 +1,19 @@
+package com.rajathgoku.agentic.backend.llm;
+
+/**
+ * Receives the {@link LlmUsage} of every call that reached the backend. Responses served from
+ * a cache or shared with a coalesced call are not reported, they cost no backend work.
+ *
+ * <p>Called on whichever thread completed the call; implementations must not throw.</p>
+ */
+@FunctionalInterface
+public interface LlmUsageListener {
+
+    LlmUsageListener NONE = (context, usage) -> {};
+
+    /**
+     * @param context the call's context as it was when the call was made, {@code null} outside a run
+     * @param usage what the call cost
+     */
+    void onUsage(LlmCallContext context, LlmUsage usage);
+}
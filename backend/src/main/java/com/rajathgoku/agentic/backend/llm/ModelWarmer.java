@@ -0,0 +1,316 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Loads the configured models on every Ollama host before runs need them, so the model load
+ * (tens of seconds for an 8B model) is not paid inside a run's first call.
+ *
+ * <p>A model is loaded by a generate request without a prompt, which makes Ollama load it
+ * and keep it resident for {@code keep_alive} without generating anything. Warm-up starts
+ * when the application starts and the warmer is not {@link #isReady() ready} until it has
+ * finished, or until {@code maxStartupWait} has passed if a host cannot be reached.</p>
+ *
+ * <p>While runs are waiting, the orchestrator calls {@link #ensureWarm()}: models that the
+ * {@link OllamaHealthProber} no longer sees loaded (unloaded after an idle period) are loaded
+ * again before the next run is claimed, and loaded models have their keep-alive refreshed
+ * every {@code refreshInterval} so they stay resident.</p>
+ */
+public class ModelWarmer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModelWarmer.class);
+
+    private final HttpClient httpClient;
+    private final List<String> baseUrls;
+    private final List<String> models;
+    private final String keepAlive;
+    private final OllamaHealthProber prober;
+    private final Duration loadTimeout;
+    private final Duration maxStartupWait;
+    private final Duration retryInterval;
+    private final Duration refreshInterval;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "llm-model-warmer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicBoolean warming = new AtomicBoolean(false);
+    private final Map<String, ModelState> states = new LinkedHashMap<>();
+    private volatile boolean startupComplete = false;
+    private volatile boolean rewarming = false;
+    private volatile long startedAt;
+    private volatile long lastAttemptAt;
+    private volatile long lastSuccessAt;
+
+    /**
+     * @param models models to load on every host
+     * @param keepAlive how long the hosts keep a model resident after loading or using it
+     * @param loadTimeout timeout of one model load
+     * @param maxStartupWait how long readiness waits for the initial warm-up to succeed
+     * @param retryInterval minimum time between two warm-up attempts
+     * @param refreshInterval how often the keep-alive of loaded models is refreshed while runs are waiting
+     */
+    public ModelWarmer(HttpClient httpClient, List<String> baseUrls, List<String> models, String keepAlive,
+                       OllamaHealthProber prober, Duration loadTimeout, Duration maxStartupWait,
+                       Duration retryInterval, Duration refreshInterval) {
+        this.httpClient = httpClient;
+        this.baseUrls = List.copyOf(baseUrls);
+        this.models = List.copyOf(models);
+        this.keepAlive = keepAlive;
+        this.prober = prober;
+        this.loadTimeout = loadTimeout;
+        this.maxStartupWait = maxStartupWait;
+        this.retryInterval = retryInterval;
+        this.refreshInterval = refreshInterval;
+        for (String baseUrl : this.baseUrls) {
+            for (String model : this.models) {
+                states.put(key(baseUrl, model), new ModelState(baseUrl, model));
+            }
+        }
+    }
+
+    public void start() {
+        startedAt = System.nanoTime();
+        lastAttemptAt = startedAt;
+        lastSuccessAt = startedAt;
+        if (models.isEmpty()) {
+            startupComplete = true;
+            return;
+        }
+        logger.info("Warming up LLM models {} on {}", models, baseUrls);
+        trigger(false);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Whether runs may be claimed: the initial warm-up has finished (or given up waiting) and
+     * no unloaded model is being loaded again
+     */
+    public boolean isReady() {
+        if (!startupComplete) {
+            if (System.nanoTime() - startedAt < maxStartupWait.toNanos()) {
+                return false;
+            }
+            logger.warn("LLM model warm-up did not succeed within {}s, claiming runs anyway", maxStartupWait.toSeconds());
+            startupComplete = true;
+        }
+        return !rewarming;
+    }
+
+    /**
+     * Keep the models resident for waiting runs: load them again if a host unloaded them and
+     * refresh their keep-alive when it is due
+     *
+     * @return whether runs may be claimed now, false while an unloaded model is being loaded
+     */
+    public boolean ensureWarm() {
+        if (!isReady()) {
+            return false;
+        }
+        long now = System.nanoTime();
+        if (now - lastAttemptAt < retryInterval.toNanos()) {
+            return true;
+        }
+        if (anyUnloaded()) {
+            logger.info("LLM models were unloaded while idle, loading them again before claiming runs");
+            trigger(true);
+            return !rewarming;
+        }
+        if (now - lastSuccessAt >= refreshInterval.toNanos()) {
+            trigger(false);
+        }
+        return true;
+    }
+
+    public Statistics getStatistics() {
+        List<ModelStatistics> modelStatistics = new ArrayList<>();
+        synchronized (states) {
+            for (ModelState state : states.values()) {
+                modelStatistics.add(new ModelStatistics(state.endpoint, state.model, state.warm, state.loadMs,
+                                                        state.lastLoadMs, state.loads, state.warmedAt, state.error));
+            }
+        }
+        return new Statistics(isReady(), startupComplete, rewarming, modelStatistics);
+    }
+
+    private boolean anyUnloaded() {
+        for (String baseUrl : baseUrls) {
+            OllamaHealthProber.EndpointHealth health = prober.getResult(baseUrl);
+            if (health == null || !health.up()) {
+                continue;
+            }
+            for (String model : models) {
+                boolean loaded = health.loadedModels().stream().anyMatch(loadedModel -> loadedModel.name().equals(model));
+                if (!loaded) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void trigger(boolean gating) {
+        if (!warming.compareAndSet(false, true)) {
+            return;
+        }
+        lastAttemptAt = System.nanoTime();
+        rewarming = gating;
+        try {
+            executor.execute(() -> {
+                try {
+                    boolean allWarm = warmAll();
+                    if (allWarm) {
+                        lastSuccessAt = System.nanoTime();
+                        if (!startupComplete) {
+                            logger.info("LLM models are warm, runs may be claimed");
+                            startupComplete = true;
+                        }
+                    } else if (!startupComplete) {
+                        // Keep retrying until the hosts are reachable or the startup wait expires
+                        executor.execute(this::retryStartup);
+                    }
+                } finally {
+                    rewarming = false;
+                    warming.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            rewarming = false;
+            warming.set(false);
+            throw e;
+        }
+    }
+
+    private void retryStartup() {
+        try {
+            Thread.sleep(retryInterval.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (!startupComplete) {
+            trigger(false);
+        }
+    }
+
+    /**
+     * @return whether every model was loaded on every host
+     */
+    private boolean warmAll() {
+        boolean allWarm = true;
+        for (String baseUrl : baseUrls) {
+            for (String model : models) {
+                allWarm &= warm(baseUrl, model);
+            }
+        }
+        return allWarm;
+    }
+
+    private boolean warm(String baseUrl, String model) {
+        long start = System.nanoTime();
+        try {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("model", model);
+            if (keepAlive != null && !keepAlive.isBlank()) {
+                body.put("keep_alive", keepAlive);
+            }
+            String base = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+            HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/api/generate"))
+                .timeout(loadTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("HTTP " + response.statusCode());
+            }
+            JsonNode result = objectMapper.readTree(response.body());
+            if (result.hasNonNull("error")) {
+                throw new IllegalStateException(result.get("error").asText());
+            }
+
+            long loadMs = TimeUnit.NANOSECONDS.toMillis(result.path("load_duration").asLong(0));
+            ModelState state = states.get(key(baseUrl, model));
+            synchronized (states) {
+                state.warm = true;
+                state.lastLoadMs = loadMs;
+                state.loadMs += loadMs;
+                state.loads++;
+                state.warmedAt = Instant.now();
+                state.error = null;
+            }
+            logger.info("Warmed {} on {}: load {}ms, total {}ms", model, baseUrl, loadMs,
+                       TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return true;
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            ModelState state = states.get(key(baseUrl, model));
+            synchronized (states) {
+                state.warm = false;
+                state.error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            }
+            logger.warn("Failed to warm {} on {}: {}", model, baseUrl, e.getMessage());
+            return false;
+        }
+    }
+
+    private static String key(String baseUrl, String model) {
+        return baseUrl + "|" + model;
+    }
+
+    /**
+     * Warm-up state of one model on one host, guarded by the states map
+     */
+    private static final class ModelState {
+        private final String endpoint;
+        private final String model;
+        private boolean warm = false;
+        private long loadMs = 0;
+        private long lastLoadMs = 0;
+        private long loads = 0;
+        private Instant warmedAt;
+        private String error;
+
+        private ModelState(String endpoint, String model) {
+            this.endpoint = endpoint;
+            this.model = model;
+        }
+    }
+
+    /**
+     * @param loadMs time the host spent loading the model over all warm-ups; a warm-up of a
+     *               model that was still loaded costs nothing
+     * @param lastLoadMs load time of the most recent warm-up
+     */
+    public record ModelStatistics(String endpoint, String model, boolean warm, long loadMs, long lastLoadMs,
+                                  long warmUps, Instant warmedAt, String error) {}
+
+    public record Statistics(boolean ready, boolean startupComplete, boolean rewarming, List<ModelStatistics> models) {}
+}
@@ -0,0 +1,52 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.boot.health.contributor.Status;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Reports the LLM backend under {@code /actuator/health} from the results cached by
+ * {@link OllamaHealthProber}, so a health check never calls the backend itself.
+ *
+ * <p>Up when at least one host answered its last probe, down when none did, and unknown
+ * before the first probe or when the cached results are too old to trust.</p>
+ */
+@Component
+public class OllamaHealthIndicator implements HealthIndicator {
+
+    /** Results older than this many probe intervals are considered stale */
+    private static final int STALE_INTERVALS = 3;
+
+    private final OllamaHealthProber prober;
+
+    public OllamaHealthIndicator(OllamaHealthProber prober) {
+        this.prober = prober;
+    }
+
+    @Override
+    public Health health() {
+        List<OllamaHealthProber.EndpointHealth> results = prober.getResults();
+        if (results.isEmpty()) {
+            return Health.unknown().withDetail("reason", "Not probed yet").build();
+        }
+
+        Instant oldest = results.stream()
+            .map(OllamaHealthProber.EndpointHealth::checkedAt)
+            .min(Instant::compareTo)
+            .orElseThrow();
+        boolean stale = Duration.between(oldest, Instant.now())
+            .compareTo(prober.getInterval().multipliedBy(STALE_INTERVALS)) > 0;
+        boolean anyUp = results.stream().anyMatch(OllamaHealthProber.EndpointHealth::up);
+
+        Status status = stale ? Status.UNKNOWN : anyUp ? Status.UP : Status.DOWN;
+        return Health.status(status)
+            .withDetail("endpoints", results)
+            .withDetail("lastChecked", oldest)
+            .build();
+    }
+}
@@ -0,0 +1,170 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Probes the Ollama hosts in the background and caches the outcome, so health checks read a
+ * recent result instead of sending work to a busy backend.
+ *
+ * <p>Each probe only lists models: {@code /api/tags} for the models a host has and
+ * {@code /api/ps} for the ones currently loaded in memory. Neither runs the model, so probing
+ * never competes with real calls for the GPU.</p>
+ */
+public class OllamaHealthProber implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(OllamaHealthProber.class);
+
+    private final HttpClient httpClient;
+    private final List<String> baseUrls;
+    private final String modelName;
+    private final Duration interval;
+    private final Duration timeout;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ollama-health-prober");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<String, EndpointHealth> results = new LinkedHashMap<>();
+
+    /**
+     * @param baseUrls the hosts to probe
+     * @param modelName the model the hosts are expected to serve
+     * @param interval delay between the end of one probe round and the start of the next
+     * @param timeout timeout of each probe request
+     */
+    public OllamaHealthProber(HttpClient httpClient, List<String> baseUrls, String modelName,
+                              Duration interval, Duration timeout) {
+        this.httpClient = httpClient;
+        this.baseUrls = List.copyOf(baseUrls);
+        this.modelName = modelName;
+        this.interval = interval;
+        this.timeout = timeout;
+    }
+
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::probeAll, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Probe every host now and cache the results
+     */
+    public void probeAll() {
+        for (String baseUrl : baseUrls) {
+            EndpointHealth health = probe(baseUrl);
+            EndpointHealth previous;
+            synchronized (results) {
+                previous = results.put(baseUrl, health);
+            }
+            if (previous != null && previous.up() != health.up()) {
+                if (health.up()) {
+                    logger.info("LLM endpoint {} is reachable again", baseUrl);
+                } else {
+                    logger.warn("LLM endpoint {} is unreachable: {}", baseUrl, health.error());
+                }
+            }
+        }
+    }
+
+    /**
+     * The most recent result of every host probed so far, in configuration order
+     */
+    public List<EndpointHealth> getResults() {
+        synchronized (results) {
+            return List.copyOf(results.values());
+        }
+    }
+
+    /**
+     * The most recent result of one host, or {@code null} if it has not been probed yet
+     */
+    public EndpointHealth getResult(String baseUrl) {
+        synchronized (results) {
+            return results.get(baseUrl);
+        }
+    }
+
+    public Duration getInterval() {
+        return interval;
+    }
+
+    private EndpointHealth probe(String baseUrl) {
+        long start = System.nanoTime();
+        try {
+            JsonNode tags = get(baseUrl, "/api/tags");
+            long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            JsonNode running = get(baseUrl, "/api/ps");
+
+            List<String> availableModels = new ArrayList<>();
+            for (JsonNode model : tags.path("models")) {
+                availableModels.add(model.path("name").asText());
+            }
+            List<LoadedModel> loadedModels = new ArrayList<>();
+            for (JsonNode model : running.path("models")) {
+                loadedModels.add(new LoadedModel(model.path("name").asText(), model.path("size_vram").asLong(0),
+                                                 model.path("expires_at").asText(null)));
+            }
+            return new EndpointHealth(baseUrl, true, latencyMs, availableModels.contains(modelName),
+                                      loadedModels.stream().anyMatch(model -> model.name().equals(modelName)),
+                                      availableModels, loadedModels, Instant.now(), null);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            logger.debug("Health probe of {} failed: {}", baseUrl, e.getMessage());
+            return new EndpointHealth(baseUrl, false, latencyMs, false, false, List.of(), List.of(), Instant.now(),
+                                      e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+
+    private JsonNode get(String baseUrl, String path) throws Exception {
+        String base = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        HttpRequest request = HttpRequest.newBuilder(URI.create(base + path)).timeout(timeout).GET().build();
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(path + " returned HTTP " + response.statusCode());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    /**
+     * @param sizeVram bytes of the model held in GPU memory
+     * @param expiresAt when the server will unload the model unless it is used again
+     */
+    public record LoadedModel(String name, long sizeVram, String expiresAt) {}
+
+    /**
+     * @param latencyMs round trip of the {@code /api/tags} request, or time until the probe failed
+     * @param modelAvailable whether the host has the configured model
+     * @param modelLoaded whether the configured model is loaded in memory
+     * @param error why the probe failed, {@code null} if the host is up
+     */
+    public record EndpointHealth(String endpoint, boolean up, long latencyMs, boolean modelAvailable,
+                                 boolean modelLoaded, List<String> availableModels, List<LoadedModel> loadedModels,
+                                 Instant checkedAt, String error) {}
+}
@@ -1,14 +1,26 @@
 package com.rajathgoku.agentic.backend.llm;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.*;
-import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Ollama LLM Client - Free local LLM for the Agentic AI system
@@ -17,41 +29,86 @@ import java.util.Map;
  * 1. Install Ollama: curl -fsSL https://ollama.com/install.sh | sh
  * 2. Pull a model: ollama pull llama3.1:8b
  * 3. Start Ollama: ollama serve
+ * 
+ * Prompts are sent to {@code /api/generate} and conversations to {@code /api/chat}, so a
+ * multi-turn conversation reaches the server as messages and a request that extends the
+ * previous one only has its new turn prefilled while the model stays loaded
+ * ({@code keep_alive}).
+ * 
+ * Responses are read with {@link OllamaResponseParser}, which extracts only the completion
+ * text, token counts and timings and skips the rest (notably the {@code context} array).
+ * 
+ * The token counts and timings Ollama reports with every completed call are passed to an
+ * {@link LlmUsageListener} together with the call's {@link LlmCallContext}.
+ * 
+ * The endpoint and model come from {@code llm.ollama.*} properties; blocking HTTP calls go
+ * through the pooled {@code llmRestTemplate} transport and asynchronous ones through the
+ * non-blocking {@code llmAsyncHttpClient}. Instances are assembled into the agent-facing
+ * client chain by {@link com.rajathgoku.agentic.backend.config.LlmClientConfig}.
  */
-@Component
 public class OllamaLlmClient implements LlmClient {
     
     private static final Logger logger = LoggerFactory.getLogger(OllamaLlmClient.class);
     
-    private final RestTemplate restTemplate = new RestTemplate();
-    private final String ollamaUrl = "http://host.docker.internal:11434/api/generate";
-    private final String modelName = "llama3.1:8b";
+    private final RestTemplate restTemplate;
+    private final HttpClient asyncHttpClient;
+    private final Duration asyncTimeout;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final OllamaResponseParser responseParser = new OllamaResponseParser(objectMapper.getFactory(), false);
+    private final String ollamaUrl;
+    private final String chatUrl;
+    private final String tagsUrl;
+    private final String modelName;
+    private final String keepAlive;
+    private final LlmUsageListener usageListener;
     
-    public OllamaLlmClient() {
-        logger.info("🦙 OllamaLlmClient initialized - using free local Llama 3.1 8B model");
+    /**
+     * @param keepAlive how long the server keeps the model loaded after a call (Ollama duration
+     *                  such as {@code 30m}), or {@code null} for the server default
+     * @param usageListener receives the usage of every completed call
+     */
+    public OllamaLlmClient(RestTemplate restTemplate, HttpClient asyncHttpClient, Duration asyncTimeout,
+                           String baseUrl, String modelName, String keepAlive, LlmUsageListener usageListener) {
+        this.restTemplate = restTemplate;
+        this.asyncHttpClient = asyncHttpClient;
+        this.asyncTimeout = asyncTimeout;
+        this.ollamaUrl = stripTrailingSlash(baseUrl) + "/api/generate";
+        this.chatUrl = stripTrailingSlash(baseUrl) + "/api/chat";
+        this.tagsUrl = stripTrailingSlash(baseUrl) + "/api/tags";
+        this.modelName = modelName;
+        this.keepAlive = keepAlive;
+        this.usageListener = usageListener;
+        logger.info("🦙 OllamaLlmClient initialized - using free local model {}", modelName);
         logger.info("📡 Connecting to Ollama at: {}", ollamaUrl);
     }
     
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+    
     @Override
     public String generateResponse(String prompt) {
+        return generate(LlmRequest.ofPrompt(prompt));
+    }
+    
+    @Override
+    public String generate(LlmRequest llmRequest) {
+        LlmCallContext context = LlmCallContext.current();
+        long start = System.nanoTime();
         try {
-            Map<String, Object> request = new HashMap<>();
-            request.put("model", modelName);
-            request.put("prompt", prompt);
-            request.put("stream", false);
+            Map<String, Object> request = buildRequestBody(llmRequest, false);
             
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_JSON);
             
             HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, headers);
             
-            @SuppressWarnings("rawtypes")
-            ResponseEntity<Map> response = restTemplate.postForEntity(ollamaUrl, entity, Map.class);
+            ResponseEntity<byte[]> response = restTemplate.postForEntity(endpointFor(llmRequest), entity, byte[].class);
             
             if (response.getStatusCode() == HttpStatus.OK) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> responseBody = (Map<String, Object>) response.getBody();
-                return (String) responseBody.get("response");
+                OllamaResponse body = parseResponse(response.getBody());
+                reportUsage(context, llmRequest, body, start);
+                return body.text();
             } else {
                 throw new RuntimeException("Ollama API error: " + response.getStatusCode());
             }
@@ -62,35 +119,191 @@ public class OllamaLlmClient implements LlmClient {
         }
     }
     
+    /**
+     * Send a completion request on the non-blocking client. Cancelling the returned
+     * future aborts the HTTP exchange.
+     */
+    @Override
+    public CompletableFuture<String> generateAsync(LlmRequest llmRequest) {
+        LlmCallContext context = LlmCallContext.current();
+        long start = System.nanoTime();
+        HttpRequest httpRequest;
+        try {
+            byte[] requestBody = objectMapper.writeValueAsBytes(buildRequestBody(llmRequest, false));
+            httpRequest = HttpRequest.newBuilder(URI.create(endpointFor(llmRequest)))
+                    .timeout(asyncTimeout)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(requestBody))
+                    .build();
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(
+                new RuntimeException("Failed to generate response from Ollama: " + e.getMessage(), e));
+        }
+        
+        CompletableFuture<HttpResponse<byte[]>> exchange =
+            asyncHttpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofByteArray());
+        CompletableFuture<String> result = exchange.thenApply(response -> {
+            OllamaResponse body = readGenerateResponse(response);
+            reportUsage(context, llmRequest, body, start);
+            return body.text();
+        });
+        result.whenComplete((response, failure) -> {
+            if (failure instanceof CancellationException) {
+                exchange.cancel(true);
+            } else if (failure != null) {
+                logger.error("Error calling Ollama: {}", failure.getMessage());
+            }
+        });
+        return result;
+    }
+    
+    private OllamaResponse readGenerateResponse(HttpResponse<byte[]> response) {
+        if (response.statusCode() != HttpStatus.OK.value()) {
+            throw new RuntimeException("Ollama API error: " + response.statusCode());
+        }
+        return parseResponse(response.body());
+    }
+    
+    private OllamaResponse parseResponse(byte[] responseBody) {
+        if (responseBody == null) {
+            throw new RuntimeException("Ollama API error: empty response");
+        }
+        OllamaResponse body;
+        try {
+            body = responseParser.parse(responseBody);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to parse Ollama response: " + e.getMessage(), e);
+        }
+        if (body.error() != null) {
+            throw new RuntimeException("Ollama API error: " + body.error());
+        }
+        return body;
+    }
+    
+    /**
+     * Stream a completion using Ollama's {@code stream=true} mode. Ollama answers with
+     * newline-delimited JSON objects, one per token chunk; each chunk is parsed as it is
+     * read off the socket and its text handed to the callback.
+     */
+    @Override
+    public void stream(LlmRequest llmRequest, Consumer<String> onChunk) {
+        LlmCallContext context = LlmCallContext.current();
+        long start = System.nanoTime();
+        try {
+            Map<String, Object> request = buildRequestBody(llmRequest, true);
+            byte[] requestBody = objectMapper.writeValueAsBytes(request);
+            
+            restTemplate.execute(endpointFor(llmRequest), HttpMethod.POST,
+                httpRequest -> {
+                    httpRequest.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                    httpRequest.getBody().write(requestBody);
+                },
+                httpResponse -> {
+                    if (httpResponse.getStatusCode() != HttpStatus.OK) {
+                        throw new IOException("Ollama API error: " + httpResponse.getStatusCode());
+                    }
+                    OllamaResponse last = readStream(httpResponse.getBody(), onChunk);
+                    if (last != null) {
+                        reportUsage(context, llmRequest, last, start);
+                    }
+                    return null;
+                });
+            
+        } catch (Exception e) {
+            logger.error("Error streaming from Ollama: {}", e.getMessage());
+            throw new RuntimeException("Failed to stream response from Ollama: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Read NDJSON chunks until Ollama reports {@code done}, forwarding token text as it arrives.
+     * 
+     * @return the final chunk, which carries the call's token counts and timings, or
+     *         {@code null} if the stream ended without one
+     */
+    private OllamaResponse readStream(InputStream body, Consumer<String> onChunk) throws IOException {
+        try (JsonParser parser = responseParser.openStream(body)) {
+            OllamaResponse chunk;
+            while ((chunk = responseParser.next(parser)) != null) {
+                if (chunk.error() != null) {
+                    throw new IOException("Ollama stream error: " + chunk.error());
+                }
+                
+                if (!chunk.text().isEmpty()) {
+                    onChunk.accept(chunk.text());
+                }
+                if (chunk.done()) {
+                    return chunk;
+                }
+            }
+        }
+        return null;
+    }
+    
+    private void reportUsage(LlmCallContext context, LlmRequest llmRequest, OllamaResponse body, long start) {
+        try {
+            // Attribute the call to the model it was routed to, not the client's default
+            String model = llmRequest.model() != null ? llmRequest.model() : modelName;
+            usageListener.onUsage(context,
+                LlmUsage.fromResponse(body, model, llmRequest.operation(), System.nanoTime() - start));
+        } catch (RuntimeException e) {
+            logger.warn("Failed to record LLM usage: {}", e.getMessage());
+        }
+    }
+    
     @Override
     public String generateResponse(List<Message> messages) {
+        return generate(LlmRequest.ofMessages(messages));
+    }
+    
+    private String endpointFor(LlmRequest llmRequest) {
+        return llmRequest.isChat() ? chatUrl : ollamaUrl;
+    }
+    
+    /**
+     * Build the {@code /api/generate} or {@code /api/chat} body, honouring the request's model, options and format
+     */
+    private Map<String, Object> buildRequestBody(LlmRequest llmRequest, boolean stream) {
+        Map<String, Object> request = new HashMap<>();
+        request.put("model", llmRequest.model() != null ? llmRequest.model() : modelName);
+        if (llmRequest.isChat()) {
+            request.put("messages", toChatMessages(llmRequest.messages()));
+        } else {
+            request.put("prompt", llmRequest.prompt());
+        }
+        request.put("stream", stream);
+        if (keepAlive != null && !keepAlive.isBlank()) {
+            request.put("keep_alive", keepAlive);
+        }
+        if (!llmRequest.options().isEmpty()) {
+            request.put("options", llmRequest.options());
+        }
+        if (llmRequest.format() != null) {
+            request.put("format", llmRequest.format());
+        }
+        return request;
+    }
+    
+    private List<Map<String, String>> toChatMessages(List<Message> messages) {
         if (messages.isEmpty()) {
-            return generateResponse("Hello! How can I help you?");
+            return List.of(Map.of("role", "user", "content", "Hello! How can I help you?"));
         }
         
-        // Convert messages to a single prompt
-        StringBuilder prompt = new StringBuilder();
+        List<Map<String, String>> chatMessages = new ArrayList<>(messages.size());
         for (Message message : messages) {
-            prompt.append(message.role()).append(": ").append(message.content()).append("\n");
+            chatMessages.add(Map.of("role", message.role(), "content", message.content()));
         }
-        
-        return generateResponse(prompt.toString());
+        return chatMessages;
     }
     
+    /**
+     * Cheap reachability check: lists the host's models, which does not run the model.
+     * Health reporting should prefer the cached results of {@link OllamaHealthProber}.
+     */
     @Override
     public boolean isHealthy() {
         try {
-            Map<String, Object> request = new HashMap<>();
-            request.put("model", modelName);
-            request.put("prompt", "test");
-            request.put("stream", false);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, headers);
-            
-            ResponseEntity<String> response = restTemplate.postForEntity(ollamaUrl, entity, String.class);
+            ResponseEntity<String> response = restTemplate.getForEntity(tagsUrl, String.class);
             return response.getStatusCode() == HttpStatus.OK;
         } catch (Exception e) {
             logger.warn("Ollama health check failed: {}", e.getMessage());
@@ -0,0 +1,17 @@
+package com.rajathgoku.agentic.backend.llm;
+
+/**
+ * The fields of an Ollama response object the client uses, from {@code /api/generate} or
+ * {@code /api/chat}, either a whole non-streamed response or one streamed NDJSON chunk.
+ *
+ * @param text the completion text, {@code response} for generate and {@code message.content}
+ *             for chat, empty if the object carries none
+ * @param error the server's error message, {@code null} unless the call failed
+ * @param context the generate endpoint's token context, {@code null} unless the parser was
+ *                asked to keep it
+ * @see OllamaResponseParser
+ */
+record OllamaResponse(String model, String text, boolean done, String error,
+                      long promptEvalCount, long evalCount, long loadDuration, long promptEvalDuration,
+                      long evalDuration, long totalDuration, int[] context) {
+}
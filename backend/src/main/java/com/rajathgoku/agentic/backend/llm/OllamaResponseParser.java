@@ -0,0 +1,154 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Reads Ollama responses with Jackson's streaming parser straight into {@link OllamaResponse},
+ * keeping only the fields the client uses.
+ *
+ * <p>A non-streamed generate response carries the prompt's token {@code context}, an int array
+ * often thousands of entries long that the client never sends back. Building a tree (or a map)
+ * of the response materialises every one of those numbers on every call; this parser skips the
+ * array token by token unless asked to keep it, along with any other field it does not know.</p>
+ *
+ * <p>Streamed responses are newline-delimited JSON. Jackson reads a sequence of root-level
+ * objects separated by whitespace natively, so the chunks are parsed directly off the response
+ * stream without splitting it into lines first.</p>
+ */
+final class OllamaResponseParser {
+
+    private static final int[] EMPTY_CONTEXT = new int[0];
+
+    private final JsonFactory jsonFactory;
+    private final boolean includeContext;
+
+    /**
+     * @param includeContext whether to keep the {@code context} array instead of skipping it
+     */
+    OllamaResponseParser(JsonFactory jsonFactory, boolean includeContext) {
+        this.jsonFactory = jsonFactory;
+        this.includeContext = includeContext;
+    }
+
+    /**
+     * Parse a whole, non-streamed response
+     */
+    OllamaResponse parse(byte[] body) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            OllamaResponse response = next(parser);
+            if (response == null) {
+                throw new JsonParseException(parser, "Empty Ollama response");
+            }
+            return response;
+        }
+    }
+
+    /**
+     * Open a parser over a streamed NDJSON response, to read its chunks with {@link #next(JsonParser)}
+     */
+    JsonParser openStream(InputStream body) throws IOException {
+        return jsonFactory.createParser(body);
+    }
+
+    /**
+     * Read the next response object
+     *
+     * @return the object, or {@code null} at the end of the input
+     */
+    OllamaResponse next(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+            return null;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected an Ollama response object but found " + token);
+        }
+
+        String model = null;
+        String text = "";
+        boolean done = false;
+        String error = null;
+        long promptEvalCount = 0;
+        long evalCount = 0;
+        long loadDuration = 0;
+        long promptEvalDuration = 0;
+        long evalDuration = 0;
+        long totalDuration = 0;
+        int[] context = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (field.equals("message") && value == JsonToken.START_OBJECT) {
+                text = readMessageContent(parser);
+                continue;
+            }
+            if (field.equals("context") && value == JsonToken.START_ARRAY && includeContext) {
+                context = readContext(parser);
+                continue;
+            }
+            if (value.isStructStart()) {
+                parser.skipChildren();
+                continue;
+            }
+            switch (field) {
+                case "model" -> model = parser.getValueAsString();
+                case "response" -> text = parser.getValueAsString("");
+                case "done" -> done = parser.getValueAsBoolean();
+                case "error" -> error = parser.getValueAsString();
+                case "prompt_eval_count" -> promptEvalCount = parser.getValueAsLong();
+                case "eval_count" -> evalCount = parser.getValueAsLong();
+                case "load_duration" -> loadDuration = parser.getValueAsLong();
+                case "prompt_eval_duration" -> promptEvalDuration = parser.getValueAsLong();
+                case "eval_duration" -> evalDuration = parser.getValueAsLong();
+                case "total_duration" -> totalDuration = parser.getValueAsLong();
+                default -> {
+                    // Not used by the client
+                }
+            }
+        }
+        return new OllamaResponse(model, text, done, error, promptEvalCount, evalCount, loadDuration,
+                                  promptEvalDuration, evalDuration, totalDuration, context);
+    }
+
+    private static String readMessageContent(JsonParser parser) throws IOException {
+        String content = "";
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value.isStructStart()) {
+                parser.skipChildren();
+            } else if (field.equals("content")) {
+                content = parser.getValueAsString("");
+            }
+        }
+        return content;
+    }
+
+    private static int[] readContext(JsonParser parser) throws IOException {
+        int[] context = EMPTY_CONTEXT;
+        int size = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                throw new JsonParseException(parser, "Unexpected end of input in context");
+            }
+            if (token.isStructStart()) {
+                parser.skipChildren();
+                continue;
+            }
+            if (size == context.length) {
+                context = Arrays.copyOf(context, Math.max(256, size * 2));
+            }
+            context[size++] = parser.getValueAsInt();
+        }
+        return size == context.length ? context : Arrays.copyOf(context, size);
+    }
+}
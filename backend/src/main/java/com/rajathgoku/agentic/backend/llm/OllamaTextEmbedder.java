@@ -0,0 +1,76 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Embeds text with an Ollama embedding model (for example {@code nomic-embed-text}) through
+ * {@code /api/embed}.
+ */
+public class OllamaTextEmbedder implements TextEmbedder {
+
+    private final HttpClient httpClient;
+    private final URI embedUri;
+    private final String model;
+    private final String keepAlive;
+    private final Duration timeout;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public OllamaTextEmbedder(HttpClient httpClient, String baseUrl, String model, String keepAlive, Duration timeout) {
+        this.httpClient = httpClient;
+        String base = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.embedUri = URI.create(base + "/api/embed");
+        this.model = model;
+        this.keepAlive = keepAlive;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public float[] embed(String text) {
+        try {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("model", model);
+            body.put("input", text);
+            if (keepAlive != null && !keepAlive.isBlank()) {
+                body.put("keep_alive", keepAlive);
+            }
+            HttpRequest request = HttpRequest.newBuilder(embedUri)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("HTTP " + response.statusCode());
+            }
+
+            JsonNode embedding = objectMapper.readTree(response.body()).path("embeddings").path(0);
+            if (!embedding.isArray() || embedding.isEmpty()) {
+                throw new IllegalStateException("No embedding in response");
+            }
+            float[] vector = new float[embedding.size()];
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] = (float) embedding.get(i).asDouble();
+            }
+            return TextEmbedder.normalize(vector);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while embedding text", e);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to embed text with " + model + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return model;
+    }
+}
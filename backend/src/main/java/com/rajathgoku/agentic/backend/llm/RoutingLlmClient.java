@@ -0,0 +1,137 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * {@link LlmClient} decorator that picks the model and generation options of each call from a
+ * routing table keyed by the request's {@link LlmRequest#operation()}, so a yes/no verdict can
+ * run on a small model with a tight output limit while planning keeps the large one.
+ *
+ * <p>Routes are read from properties named after the operation, with the agent (the part of
+ * the operation before the first dot) as a fallback for settings the operation leaves unset:</p>
+ * <pre>
+ * llm.route.critic.decision.model=llama3.2:1b
+ * llm.route.critic.decision.num-predict=8
+ * llm.route.critic.temperature=0.2
+ * </pre>
+ * <p>Supported settings are {@code model}, {@code num-predict}, {@code num-ctx},
+ * {@code temperature} and {@code stop} (comma-separated). Calls without an operation, or
+ * without a route, are passed on unchanged. It should sit outside the response cache, so a
+ * cached answer is keyed by the model and options that produced it.</p>
+ */
+public class RoutingLlmClient extends DelegatingLlmClient {
+
+    private static final String UNROUTED = "unrouted";
+
+    private final Function<String, String> properties;
+    private final String prefix;
+
+    private final Map<String, LlmRoute> routes = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> calls = new ConcurrentHashMap<>();
+
+    /**
+     * @param properties looks up a property value by name, {@code null} when unset
+     * @param prefix property prefix of the routing table, e.g. {@code llm.route}
+     */
+    public RoutingLlmClient(LlmClient delegate, Function<String, String> properties, String prefix) {
+        super(delegate);
+        this.properties = properties;
+        this.prefix = prefix;
+    }
+
+    @Override
+    public String generate(LlmRequest request) {
+        return delegate.generate(route(request));
+    }
+
+    @Override
+    public void stream(LlmRequest request, Consumer<String> onChunk) {
+        delegate.stream(route(request), onChunk);
+    }
+
+    @Override
+    public CompletableFuture<String> generateAsync(LlmRequest request) {
+        LlmRequest routed;
+        try {
+            routed = route(request);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return delegate.generateAsync(routed);
+    }
+
+    /**
+     * The route calls of an operation take, {@link LlmRoute#NONE} if none is configured
+     */
+    public LlmRoute routeFor(String operation) {
+        if (operation == null || operation.isBlank()) {
+            return LlmRoute.NONE;
+        }
+        return routes.computeIfAbsent(operation, this::resolve);
+    }
+
+    public Statistics getStatistics() {
+        Map<String, LlmRoute> resolved = new TreeMap<>(routes);
+        resolved.values().removeIf(LlmRoute::isEmpty);
+        Map<String, Long> callCounts = new TreeMap<>();
+        calls.forEach((operation, count) -> callCounts.put(operation, count.get()));
+        return new Statistics(resolved, callCounts);
+    }
+
+    private LlmRequest route(LlmRequest request) {
+        LlmRoute route = routeFor(request.operation());
+        String key = route.isEmpty() ? UNROUTED : request.operation();
+        calls.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet();
+        return route.applyTo(request);
+    }
+
+    private LlmRoute resolve(String operation) {
+        LlmRoute route = read(prefix + "." + operation);
+        int agentEnd = operation.indexOf('.');
+        if (agentEnd > 0) {
+            route = route.orElse(read(prefix + "." + operation.substring(0, agentEnd)));
+        }
+        return route;
+    }
+
+    private LlmRoute read(String key) {
+        // Not trimmed, a stop sequence may well be whitespace such as a newline
+        String stop = properties.apply(key + ".stop");
+        return new LlmRoute(
+            property(key + ".model"),
+            parse(key + ".num-predict", Integer::valueOf),
+            parse(key + ".num-ctx", Integer::valueOf),
+            parse(key + ".temperature", Double::valueOf),
+            stop != null && !stop.isEmpty() ? Arrays.asList(stop.split(",")) : null);
+    }
+
+    private <T> T parse(String key, Function<String, T> parser) {
+        String value = property(key);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return parser.apply(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for " + key + ": " + value, e);
+        }
+    }
+
+    private String property(String key) {
+        String value = properties.apply(key);
+        return value != null && !value.isBlank() ? value.trim() : null;
+    }
+
+    /**
+     * @param routes the configured route of every operation seen so far
+     * @param calls calls per routed operation; calls without a route are counted as {@code unrouted}
+     */
+    public record Statistics(Map<String, LlmRoute> routes, Map<String, Long> calls) {}
+}
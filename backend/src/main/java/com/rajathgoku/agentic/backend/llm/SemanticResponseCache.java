@@ -0,0 +1,224 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Response cache that matches by meaning rather than by exact text: a lookup embeds its key
+ * text with a {@link TextEmbedder} and returns the response stored for the most similar
+ * earlier key, provided the cosine similarity reaches {@code threshold}. It is meant to catch
+ * the same request worded slightly differently ("Build a tic-tac-toe game in HTML." and
+ * "build a tic tac toe game in html"), so the threshold should stay strict: two tasks that are
+ * merely related also embed close together, and a loose threshold hands one the other's
+ * response. Every hit is logged with the key it matched, so a wrong reuse can be traced.
+ *
+ * <p>Callers choose the key text; it should be the part of the prompt that varies (a task
+ * description), not the whole prompt, whose fixed instructions would make every key look
+ * alike. Entries live in namespaces (one per operation and model) with an {@link HnswIndex}
+ * each, hold at most {@code maxEntries} per namespace with least-recently-used eviction, and
+ * expire after {@code ttl}.</p>
+ *
+ * <p>An unavailable embedder makes every lookup a miss rather than an error; after a failure
+ * the embedder is not asked again for {@code retryInterval}.</p>
+ */
+public class SemanticResponseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(SemanticResponseCache.class);
+
+    /** Nearest entries checked per lookup, in case the closest ones have expired */
+    private static final int CANDIDATES = 4;
+    /** Embeddings of recent key texts, so a miss followed by a store embeds once */
+    private static final int RECENT_EMBEDDINGS = 64;
+
+    private final TextEmbedder embedder;
+    private final double threshold;
+    private final int maxEntries;
+    private final Duration ttl;
+    private final int m;
+    private final int efConstruction;
+    private final int efSearch;
+    private final Duration retryInterval;
+
+    private final Map<String, Space> spaces = new HashMap<>();
+    private final Map<String, float[]> recentEmbeddings = new LinkedHashMap<>(RECENT_EMBEDDINGS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, float[]> eldest) {
+            return size() > RECENT_EMBEDDINGS;
+        }
+    };
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong stores = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong rebuilds = new AtomicLong();
+    private final AtomicLong embeddingFailures = new AtomicLong();
+    private double hitSimilaritySum = 0;
+    private volatile boolean embedderFailing = false;
+    private volatile long embedderFailedAt;
+
+    /**
+     * @param threshold minimum cosine similarity for a hit
+     * @param maxEntries entries kept per namespace
+     * @param m HNSW neighbours per node
+     * @param efConstruction HNSW candidate list size while inserting
+     * @param efSearch HNSW candidate list size while searching
+     * @param retryInterval how long lookups skip the embedder after it failed
+     */
+    public SemanticResponseCache(TextEmbedder embedder, double threshold, int maxEntries, Duration ttl,
+                                 int m, int efConstruction, int efSearch, Duration retryInterval) {
+        this.embedder = embedder;
+        this.threshold = threshold;
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.m = m;
+        this.efConstruction = efConstruction;
+        this.efSearch = efSearch;
+        this.retryInterval = retryInterval;
+    }
+
+    /**
+     * @param namespace keeps responses of different operations (or models) apart
+     * @param keyText the text to match by meaning
+     * @return the response stored for the most similar key, or {@code null} if none is similar enough
+     */
+    public String lookup(String namespace, String keyText) {
+        float[] vector = embed(keyText);
+        if (vector != null) {
+            synchronized (this) {
+                Space space = spaces.get(namespace);
+                if (space != null) {
+                    for (HnswIndex.Match match : space.index.search(vector, CANDIDATES, efSearch)) {
+                        if (match.similarity() < threshold) {
+                            break;
+                        }
+                        // Access-ordered, so the lookup also marks the entry as recently used
+                        Entry entry = space.entries.get(match.id());
+                        if (entry == null) {
+                            continue;
+                        }
+                        if (System.nanoTime() - entry.storedAt() > ttl.toNanos()) {
+                            space.remove(match.id());
+                            expirations.incrementAndGet();
+                            continue;
+                        }
+                        hits.incrementAndGet();
+                        hitSimilaritySum += match.similarity();
+                        LlmCallContext context = LlmCallContext.current();
+                        logger.info("Semantic cache hit in {} for run {} (similarity {}): '{}' reuses the response for '{}'",
+                                    namespace, context != null ? context.runId() : null, match.similarity(),
+                                    keyText, entry.keyText());
+                        return entry.response();
+                    }
+                }
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Store a response under the meaning of its key text. Blank responses are not stored.
+     */
+    public void store(String namespace, String keyText, String response) {
+        if (response == null || response.isBlank()) {
+            return;
+        }
+        float[] vector = embed(keyText);
+        if (vector == null) {
+            return;
+        }
+        synchronized (this) {
+            Space space = spaces.computeIfAbsent(namespace, name -> new Space());
+            int id = space.index.add(vector);
+            space.entries.put(id, new Entry(keyText, vector, response, System.nanoTime()));
+            stores.incrementAndGet();
+
+            Iterator<Map.Entry<Integer, Entry>> eldest = space.entries.entrySet().iterator();
+            while (space.entries.size() > maxEntries && eldest.hasNext()) {
+                int evicted = eldest.next().getKey();
+                eldest.remove();
+                space.index.remove(evicted);
+                evictions.incrementAndGet();
+            }
+            // Deleted nodes still cost search time, rebuild once they outnumber the live ones
+            if (space.index.deletedCount() > space.entries.size()) {
+                space.rebuild();
+                rebuilds.incrementAndGet();
+            }
+        }
+    }
+
+    public synchronized Statistics getStatistics() {
+        int entries = spaces.values().stream().mapToInt(space -> space.entries.size()).sum();
+        long hitCount = hits.get();
+        return new Statistics(embedder.getName(), entries, hitCount, misses.get(), stores.get(), evictions.get(),
+                              expirations.get(), rebuilds.get(), embeddingFailures.get(),
+                              hitCount > 0 ? hitSimilaritySum / hitCount : 0.0);
+    }
+
+    private float[] embed(String text) {
+        synchronized (recentEmbeddings) {
+            float[] recent = recentEmbeddings.get(text);
+            if (recent != null) {
+                return recent;
+            }
+        }
+        if (embedderFailing && System.nanoTime() - embedderFailedAt < retryInterval.toNanos()) {
+            return null;
+        }
+        try {
+            float[] vector = embedder.embed(text);
+            embedderFailing = false;
+            synchronized (recentEmbeddings) {
+                recentEmbeddings.put(text, vector);
+            }
+            return vector;
+        } catch (RuntimeException e) {
+            embeddingFailures.incrementAndGet();
+            embedderFailedAt = System.nanoTime();
+            embedderFailing = true;
+            logger.warn("Semantic cache disabled for {}s, embedding failed: {}", retryInterval.toSeconds(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * The entries of one namespace and their index, guarded by the cache
+     */
+    private final class Space {
+        private HnswIndex index = new HnswIndex(m, efConstruction, 42);
+        private Map<Integer, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+        private void remove(int id) {
+            entries.remove(id);
+            index.remove(id);
+        }
+
+        private void rebuild() {
+            HnswIndex rebuilt = new HnswIndex(m, efConstruction, 42);
+            Map<Integer, Entry> renumbered = new LinkedHashMap<>(16, 0.75f, true);
+            for (Entry entry : entries.values()) {
+                renumbered.put(rebuilt.add(entry.vector()), entry);
+            }
+            index = rebuilt;
+            entries = renumbered;
+        }
+    }
+
+    private record Entry(String keyText, float[] vector, String response, long storedAt) {}
+
+    /**
+     * @param averageHitSimilarity mean similarity of the matches that were served, a guide for the threshold
+     */
+    public record Statistics(String embedder, int entries, long hits, long misses, long stores, long evictions,
+                             long expirations, long rebuilds, long embeddingFailures, double averageHitSimilarity) {}
+}
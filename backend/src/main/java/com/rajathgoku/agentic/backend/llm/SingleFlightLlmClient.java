@@ -0,0 +1,152 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * {@link LlmClient} decorator that coalesces identical concurrent requests: the first
+ * caller (the leader) sends the request and every caller that arrives with the same
+ * request while it is in flight waits for and receives the leader's result, including
+ * its failure.
+ *
+ * <p>Requests built with {@link LlmRequest#uncached()} ask for an independent completion
+ * and are never coalesced. A coalesced stream receives the completion as a single chunk
+ * once the leader finishes, the same way a cache hit is delivered.</p>
+ */
+public class SingleFlightLlmClient extends DelegatingLlmClient {
+
+    private final ConcurrentHashMap<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong leaders = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    public SingleFlightLlmClient(LlmClient delegate) {
+        super(delegate);
+    }
+
+    @Override
+    public String generate(LlmRequest request) {
+        if (!request.cacheable()) {
+            return delegate.generate(request);
+        }
+
+        String key = LlmRequestKeys.contentKey(request, delegate.getModelName());
+        CompletableFuture<String> flight = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            return await(existing);
+        }
+
+        leaders.incrementAndGet();
+        try {
+            String response = delegate.generate(request);
+            flight.complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    @Override
+    public void stream(LlmRequest request, Consumer<String> onChunk) {
+        if (!request.cacheable()) {
+            delegate.stream(request, onChunk);
+            return;
+        }
+
+        String key = LlmRequestKeys.contentKey(request, delegate.getModelName());
+        CompletableFuture<String> flight = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            onChunk.accept(await(existing));
+            return;
+        }
+
+        leaders.incrementAndGet();
+        StringBuilder response = new StringBuilder();
+        try {
+            delegate.stream(request, chunk -> {
+                response.append(chunk);
+                onChunk.accept(chunk);
+            });
+            flight.complete(response.toString());
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Callers get their own view of the shared flight, so one caller cancelling its
+     * future does not cancel the request for everyone else waiting on it
+     */
+    @Override
+    public CompletableFuture<String> generateAsync(LlmRequest request) {
+        if (!request.cacheable()) {
+            return delegate.generateAsync(request);
+        }
+
+        String key = LlmRequestKeys.contentKey(request, delegate.getModelName());
+        CompletableFuture<String> flight = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            return existing.copy();
+        }
+
+        leaders.incrementAndGet();
+        CompletableFuture<String> call;
+        try {
+            call = delegate.generateAsync(request);
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        call.whenComplete((response, failure) -> {
+            inFlight.remove(key, flight);
+            if (failure != null) {
+                flight.completeExceptionally(LlmFutures.unwrap(failure));
+            } else {
+                flight.complete(response);
+            }
+        });
+        return flight.copy();
+    }
+
+    public Statistics getStatistics() {
+        return new Statistics(leaders.get(), coalesced.get(), inFlight.size());
+    }
+
+    private static String await(CompletableFuture<String> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @param leaderCalls calls that were sent to the backend
+     * @param coalescedCalls calls that shared another caller's in-flight request
+     * @param inFlight distinct requests currently in flight
+     */
+    public record Statistics(long leaderCalls, long coalescedCalls, int inFlight) {
+
+        public double getCoalescedRate() {
+            long total = leaderCalls + coalescedCalls;
+            return total == 0 ? 0.0 : (double) coalescedCalls / total;
+        }
+    }
+}
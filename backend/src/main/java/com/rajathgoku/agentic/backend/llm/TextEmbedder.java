@@ -0,0 +1,36 @@
+package com.rajathgoku.agentic.backend.llm;
+
+/**
+ * Turns text into a vector whose cosine similarity to another text's vector reflects how
+ * alike the two texts are, for {@link SemanticResponseCache}.
+ */
+public interface TextEmbedder {
+
+    /**
+     * @return the embedding, normalised to unit length
+     * @throws RuntimeException if the text could not be embedded
+     */
+    float[] embed(String text);
+
+    /**
+     * Identifies the embedding model, vectors of different embedders are not comparable
+     */
+    String getName();
+
+    /**
+     * Scale {@code vector} to unit length in place, so cosine similarity is a dot product
+     */
+    static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        if (norm > 0) {
+            float scale = (float) (1.0 / Math.sqrt(norm));
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] *= scale;
+            }
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,42 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import java.util.Optional;
+
+/**
+ * Two-level cache: a fast first tier (memory) backed by a larger, slower second tier
+ * (disk). Second-tier hits are promoted into the first tier, and writes go to both so
+ * the second tier survives restarts.
+ */
+public class TieredLlmCacheStore implements LlmCacheStore {
+
+    private final LlmCacheStore first;
+    private final LlmCacheStore second;
+
+    public TieredLlmCacheStore(LlmCacheStore first, LlmCacheStore second) {
+        this.first = first;
+        this.second = second;
+    }
+
+    @Override
+    public Optional<String> get(String key) {
+        Optional<String> value = first.get(key);
+        if (value.isPresent()) {
+            return value;
+        }
+
+        value = second.get(key);
+        value.ifPresent(v -> first.put(key, v));
+        return value;
+    }
+
+    @Override
+    public void put(String key, String value) {
+        first.put(key, value);
+        second.put(key, value);
+    }
+
+    @Override
+    public long maxEntryBytes() {
+        return Math.max(first.maxEntryBytes(), second.maxEntryBytes());
+    }
+}
@@ -25,4 +25,12 @@ public interface ArtifactRepository extends JpaRepository<Artifact, UUID> {
     
     @Query("SELECT a FROM Artifact a WHERE a.step.run.id = :runId ORDER BY a.createdAt ASC")
     List<Artifact> findByStepRunIdOrderByCreatedAt(@Param("runId") UUID runId);
+    
+    long countByStepRunId(UUID runId);
+    
+    /**
+     * Total content size of a run's artifacts, summed in the database
+     */
+    @Query("SELECT COALESCE(SUM(a.size), 0) FROM Artifact a WHERE a.step.run.id = :runId")
+    long sumSizeByStepRunId(@Param("runId") UUID runId);
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.rajathgoku.agentic.backend.repository;
+
+import com.rajathgoku.agentic.backend.entity.LlmCall;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface LlmCallRepository extends JpaRepository<LlmCall, UUID> {
+    
+    /**
+     * Sum the accounting of all calls made for a run in the database
+     */
+    @Query("SELECT COUNT(c) AS calls, COALESCE(SUM(c.promptTokens), 0) AS promptTokens, " +
+           "COALESCE(SUM(c.completionTokens), 0) AS completionTokens, COALESCE(SUM(c.loadMs), 0) AS loadMs, " +
+           "COALESCE(SUM(c.promptEvalMs), 0) AS promptEvalMs, COALESCE(SUM(c.evalMs), 0) AS evalMs, " +
+           "COALESCE(SUM(c.queueMs), 0) AS queueMs, COALESCE(SUM(c.wallMs), 0) AS wallMs " +
+           "FROM LlmCall c WHERE c.runId = :runId")
+    LlmUsageTotals summarizeByRunId(@Param("runId") UUID runId);
+}
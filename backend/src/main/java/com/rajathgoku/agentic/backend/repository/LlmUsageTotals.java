@@ -0,0 +1,23 @@
+package com.rajathgoku.agentic.backend.repository;
+
+/**
+ * Summed LLM call accounting, see {@link LlmCallRepository}
+ */
+public interface LlmUsageTotals {
+
+    long getCalls();
+
+    long getPromptTokens();
+
+    long getCompletionTokens();
+
+    long getLoadMs();
+
+    long getPromptEvalMs();
+
+    long getEvalMs();
+
+    long getQueueMs();
+
+    long getWallMs();
+}
@@ -3,10 +3,12 @@ package com.rajathgoku.agentic.backend.repository;
 import com.rajathgoku.agentic.backend.entity.Step;
 import com.rajathgoku.agentic.backend.entity.Run;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
@@ -28,4 +30,17 @@ public interface StepRepository extends JpaRepository<Step, UUID> {
      * Find steps by run ID and status (for crash recovery)
      */
     List<Step> findByRunIdAndStatus(UUID runId, Step.StepStatus status);
+    
+    /**
+     * Append streamed output to a step's result in place, without loading the existing text.
+     * Only a step in the given status (the running one) is updated, so output arriving after the
+     * step finished, failed or was reset is dropped.
+     */
+    @Modifying
+    @Query("UPDATE Step s SET s.result = CONCAT(COALESCE(s.result, ''), :chunk), s.updatedAt = :timestamp " +
+           "WHERE s.id = :stepId AND s.status = :status")
+    int appendResult(@Param("stepId") UUID stepId,
+                     @Param("chunk") String chunk,
+                     @Param("status") Step.StepStatus status,
+                     @Param("timestamp") Instant timestamp);
 }
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.rajathgoku.agentic.backend.service;
+
+import com.rajathgoku.agentic.backend.entity.LlmCall;
+import com.rajathgoku.agentic.backend.llm.LlmCallContext;
+import com.rajathgoku.agentic.backend.llm.LlmUsage;
+import com.rajathgoku.agentic.backend.llm.LlmUsageListener;
+import com.rajathgoku.agentic.backend.repository.LlmCallRepository;
+import com.rajathgoku.agentic.backend.repository.LlmUsageTotals;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persists the token and timing accounting of LLM calls made for runs, and sums it up for
+ * the run metrics. Calls made outside a run are not recorded.
+ */
+@Service
+public class LlmUsageService implements LlmUsageListener {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LlmUsageService.class);
+    private final LlmCallRepository llmCallRepository;
+    
+    @Autowired
+    public LlmUsageService(LlmCallRepository llmCallRepository) {
+        this.llmCallRepository = llmCallRepository;
+    }
+    
+    /**
+     * Record a completed call. Accounting must never fail the call it describes, so errors
+     * are logged and swallowed.
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onUsage(LlmCallContext context, LlmUsage usage) {
+        if (context == null || context.runId() == null) {
+            return;
+        }
+        
+        try {
+            LlmCall call = new LlmCall();
+            call.setRunId(context.runId());
+            call.setStepId(context.stepId());
+            call.setOperation(usage.operation());
+            call.setModel(usage.model());
+            call.setPromptTokens(usage.promptTokens());
+            call.setCompletionTokens(usage.completionTokens());
+            call.setLoadMs(TimeUnit.NANOSECONDS.toMillis(usage.loadNanos()));
+            call.setPromptEvalMs(TimeUnit.NANOSECONDS.toMillis(usage.promptEvalNanos()));
+            call.setEvalMs(TimeUnit.NANOSECONDS.toMillis(usage.evalNanos()));
+            call.setQueueMs(TimeUnit.NANOSECONDS.toMillis(usage.queueNanos()));
+            call.setWallMs(TimeUnit.NANOSECONDS.toMillis(usage.wallNanos()));
+            llmCallRepository.save(call);
+        } catch (Exception e) {
+            logger.warn("Failed to record LLM usage for run ID: {} - {}", context.runId(), e.getMessage());
+        }
+    }
+    
+    /**
+     * Totals over all calls made for a run
+     */
+    @Transactional(readOnly = true)
+    public LlmUsageTotals getRunTotals(UUID runId) {
+        return llmCallRepository.summarizeByRunId(runId);
+    }
+}
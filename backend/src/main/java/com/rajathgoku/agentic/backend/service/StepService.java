@@ -201,6 +201,18 @@ public class StepService {
         }
     }
     
+    /**
+     * Append a chunk of streamed output to a RUNNING step's result so partial output
+     * is visible before the step completes
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, isolation = Isolation.READ_COMMITTED)
+    public void appendStepOutput(UUID stepId, String chunk) {
+        int updated = stepRepository.appendResult(stepId, chunk, Step.StepStatus.RUNNING, Instant.now());
+        if (updated == 0) {
+            logger.debug("Dropped streamed output, step not found or no longer running: {}", stepId);
+        }
+    }
+    
     /**
      * Get all steps for a run, ordered by step number
      */
@@ -0,0 +1,26 @@
+-- Token counts and timings of every LLM call that reached the backend, as reported by Ollama
+CREATE TABLE llm_calls (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    run_id UUID NOT NULL,
+    step_id UUID,
+    operation VARCHAR(100),
+    model VARCHAR(255),
+    prompt_tokens BIGINT NOT NULL DEFAULT 0,
+    completion_tokens BIGINT NOT NULL DEFAULT 0,
+    load_ms BIGINT NOT NULL DEFAULT 0,
+    prompt_eval_ms BIGINT NOT NULL DEFAULT 0,
+    eval_ms BIGINT NOT NULL DEFAULT 0,
+    queue_ms BIGINT NOT NULL DEFAULT 0,
+    wall_ms BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    
+    CONSTRAINT fk_llm_calls_run_id FOREIGN KEY (run_id) REFERENCES runs(id) ON DELETE CASCADE,
+    CONSTRAINT fk_llm_calls_step_id FOREIGN KEY (step_id) REFERENCES steps(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_llm_calls_run_id ON llm_calls(run_id);
+CREATE INDEX idx_llm_calls_step_id ON llm_calls(step_id);
+
+COMMENT ON TABLE llm_calls IS 'Token and timing accounting of LLM calls made for a run';
+COMMENT ON COLUMN llm_calls.prompt_tokens IS 'Prompt tokens evaluated (prompt_eval_count); a prefix reused from the model cache is not counted';
+COMMENT ON COLUMN llm_calls.queue_ms IS 'Wall time not spent in the server (queueing and transport)';
@@ -0,0 +1,148 @@
+package com.rajathgoku.agentic.backend.agent;
+
+import com.rajathgoku.agentic.backend.llm.LlmClient;
+import com.rajathgoku.agentic.backend.llm.LlmRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks how {@link CriticAgent#chunkSteps} splits a run into chunks for map-reduce critique,
+ * and how {@link CriticAgent#gateStep} reads the gate's answer
+ */
+class CriticAgentTest {
+
+	@Test
+	void budgetSmallerThanOneStepPutsEveryStepInAChunkOfItsOwn() {
+		String[] descriptions = {"step one", "step two", "step three"};
+		String[] results = {"x".repeat(400), "y".repeat(400), "z".repeat(400)};
+
+		List<int[]> chunks = CriticAgent.chunkSteps(descriptions, results, 10);
+
+		assertEquals(3, chunks.size());
+		assertArrayEquals(new int[] {0, 1}, chunks.get(0));
+		assertArrayEquals(new int[] {1, 2}, chunks.get(1));
+		assertArrayEquals(new int[] {2, 3}, chunks.get(2));
+	}
+
+	@Test
+	void hugeStepFormsAChunkOfItsOwnBetweenSmallOnes() {
+		String[] descriptions = {"a", "b", "c", "d", "e"};
+		String[] results = {"x".repeat(100), "x".repeat(100), "x".repeat(10_000), "x".repeat(100), "x".repeat(100)};
+
+		List<int[]> chunks = CriticAgent.chunkSteps(descriptions, results, 100);
+
+		assertEquals(3, chunks.size());
+		assertArrayEquals(new int[] {0, 2}, chunks.get(0));
+		assertArrayEquals(new int[] {2, 3}, chunks.get(1));
+		assertArrayEquals(new int[] {3, 5}, chunks.get(2));
+	}
+
+	@Test
+	void singleHugeStepIsOneChunk() {
+		List<int[]> chunks = CriticAgent.chunkSteps(new String[] {"only"}, new String[] {"x".repeat(100_000)}, 50);
+
+		assertEquals(1, chunks.size());
+		assertArrayEquals(new int[] {0, 1}, chunks.get(0));
+	}
+
+	@Test
+	void chunksCoverEveryStepInOrderWithinTheBudget() {
+		Random random = new Random(7);
+		int steps = 40;
+		int budget = 300;
+		String[] descriptions = new String[steps];
+		String[] results = new String[steps];
+		for (int i = 0; i < steps; i++) {
+			descriptions[i] = "Step " + (i + 1);
+			results[i] = i % 9 == 4 ? null : "r".repeat(random.nextInt(2_000));
+		}
+
+		List<int[]> chunks = CriticAgent.chunkSteps(descriptions, results, budget);
+
+		int next = 0;
+		for (int[] chunk : chunks) {
+			assertEquals(next, chunk[0], "chunks must be contiguous and in step order");
+			assertTrue(chunk[1] > chunk[0], "chunks must not be empty");
+			int tokens = 0;
+			for (int i = chunk[0]; i < chunk[1]; i++) {
+				tokens += (descriptions[i].length() + 3) / 4 + (results[i] != null ? (results[i].length() + 3) / 4 : 0);
+			}
+			assertTrue(tokens <= budget || chunk[1] - chunk[0] == 1, "only a single step may exceed the budget");
+			next = chunk[1];
+		}
+		assertEquals(steps, next);
+	}
+
+	@Test
+	void completeGateAnswerIsNotTruncated() {
+		CriticAgent critic = new CriticAgent(new AnsweringLlmClient("{\"score\": 85, \"reason\": \"Does what was asked.\"}"));
+
+		CriticAgent.StepGate gate = critic.gateStep("Write a greeting", "Hello");
+
+		assertEquals(85, gate.score());
+		assertEquals("Does what was asked.", gate.reason());
+		assertFalse(gate.truncated());
+	}
+
+	@Test
+	void gateAnswerCutOffAfterItsScoreStillGates() {
+		CriticAgent critic = new CriticAgent(new AnsweringLlmClient("{\"score\": 12, \"reason\": \"The result describes a different"));
+
+		CriticAgent.StepGate gate = critic.gateStep("Write a greeting", "Goodbye");
+
+		assertEquals(12, gate.score());
+		assertTrue(gate.truncated());
+	}
+
+	@Test
+	void gateAnswerCutOffBeforeItsScoreIsReportedAsTruncated() {
+		CriticAgent critic = new CriticAgent(new AnsweringLlmClient("{\"sco"));
+
+		assertThrows(CriticAgent.TruncatedGateAnswerException.class, () -> critic.gateStep("Write a greeting", "Hello"));
+	}
+
+	/**
+	 * Backend that gives every request the same answer
+	 */
+	private static final class AnsweringLlmClient implements LlmClient {
+
+		private final String answer;
+
+		AnsweringLlmClient(String answer) {
+			this.answer = answer;
+		}
+
+		@Override
+		public String generate(LlmRequest request) {
+			return answer;
+		}
+
+		@Override
+		public String generateResponse(String prompt) {
+			return answer;
+		}
+
+		@Override
+		public String generateResponse(List<Message> messages) {
+			return answer;
+		}
+
+		@Override
+		public boolean isHealthy() {
+			return true;
+		}
+
+		@Override
+		public String getModelName() {
+			return "stub";
+		}
+	}
+}
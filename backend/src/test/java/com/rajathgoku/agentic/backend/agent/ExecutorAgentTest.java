@@ -0,0 +1,72 @@
+package com.rajathgoku.agentic.backend.agent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks how {@link ExecutorAgent#splitFusedResult} splits a fused executor response into step results
+ */
+class ExecutorAgentTest {
+
+	@Test
+	void responseWithMarkersIsSplitIntoOneResultPerStep() {
+		String response = "=== STEP 1 ===\nFirst result\n=== STEP 2 ===\nSecond result\n=== STEP 3 ===\nThird result\n";
+
+		assertEquals(List.of("First result", "Second result", "Third result"), ExecutorAgent.splitFusedResult(response, 3));
+	}
+
+	@Test
+	void responseWithoutMarkersIsTheFirstStepsResult() {
+		String response = "Did all three steps at once.\nSTEP 2 was the hardest.";
+
+		assertEquals(List.of(response), ExecutorAgent.splitFusedResult(response, 3));
+	}
+
+	@Test
+	void responseNotStartingWithTheFirstMarkerIsTheFirstStepsResult() {
+		String response = "=== STEP 2 ===\nSecond result\n=== STEP 1 ===\nFirst result";
+
+		assertEquals(List.of(response), ExecutorAgent.splitFusedResult(response, 2));
+	}
+
+	@Test
+	void markerOutOfOrderIsTreatedAsText() {
+		String response = "=== STEP 1 ===\nFirst\n=== STEP 3 ===\nThird\n=== STEP 2 ===\nSecond";
+
+		List<String> parts = ExecutorAgent.splitFusedResult(response, 3);
+
+		assertEquals(List.of("First\n=== STEP 3 ===\nThird", "Second"), parts);
+	}
+
+	@Test
+	void missingLastMarkerLeavesTheLastStepUnsplit() {
+		String response = "=== STEP 1 ===\nFirst\n=== STEP 2 ===\nSecond and some of the third";
+
+		assertEquals(List.of("First", "Second and some of the third"), ExecutorAgent.splitFusedResult(response, 3));
+	}
+
+	@Test
+	void markersWithMarkdownDecorationAreRecognised() {
+		String response = "## === STEP 1 ===\nFirst\n**=== STEP 2 ===**\nSecond\n  ### ==== STEP 3 ==== \nThird";
+
+		assertEquals(List.of("First", "Second", "Third"), ExecutorAgent.splitFusedResult(response, 3));
+	}
+
+	@Test
+	void markerNumberedAboveTheStepCountStaysInThePrecedingResult() {
+		String response = "=== STEP 1 ===\nFirst\n=== STEP 2 ===\nSecond\n=== STEP 5 ===\nExtra";
+
+		assertEquals(List.of("First", "Second\n=== STEP 5 ===\nExtra"), ExecutorAgent.splitFusedResult(response, 2));
+	}
+
+	@Test
+	void markerWithAnOverlongNumberIsTreatedAsText() {
+		String response = "=== STEP 1 ===\nFirst\n=== STEP 99999999999 ===\nStill first\n=== STEP 2 ===\nSecond";
+
+		assertEquals(List.of("First\n=== STEP 99999999999 ===\nStill first", "Second"),
+		             ExecutorAgent.splitFusedResult(response, 2));
+	}
+}
@@ -0,0 +1,84 @@
+package com.rajathgoku.agentic.backend.agent;
+
+import com.rajathgoku.agentic.backend.llm.LlmClient.Message;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that {@link StepConversation} keeps the step history within its token budget
+ */
+class StepConversationTest {
+
+	@Test
+	void historyWithinTheBudgetIsSentVerbatim() {
+		StepConversation conversation = new StepConversation("system prompt", 1_000, null);
+		conversation.recordStep("first", "done one");
+		conversation.recordStep("second", "done two");
+
+		List<Message> messages = conversation.messagesFor("third");
+
+		assertEquals(0, conversation.getSummarisedSteps());
+		assertEquals(6, messages.size());
+		assertEquals("done two", messages.get(4).content());
+		assertEquals("Step: third", messages.get(5).content());
+	}
+
+	@Test
+	void historyStaysWithinTheBudgetOverManySteps() {
+		int budget = 500;
+		Random random = new Random(9);
+		StepConversation conversation = new StepConversation("system prompt", budget, null);
+
+		int summarised = 0;
+		for (int i = 0; i < 200; i++) {
+			int resultChars = i % 25 == 24 ? 5_000 : random.nextInt(800);
+			conversation.recordStep("Step number " + i, "Result. " + "x".repeat(resultChars));
+
+			assertTrue(conversation.getHistoryTokens() <= budget,
+			           "history of " + conversation.getHistoryTokens() + " tokens after step " + i);
+			assertTrue(conversation.getSummarisedSteps() >= summarised, "summarised steps must not decrease");
+			summarised = conversation.getSummarisedSteps();
+		}
+
+		assertEquals(200, conversation.getRecordedSteps());
+		assertTrue(summarised > 150, "only " + summarised + " steps were summarised");
+	}
+
+	@Test
+	void compactionLeavesRoomForSeveralMoreSteps() {
+		int budget = 400;
+		StepConversation conversation = new StepConversation("system prompt", budget, null);
+		String result = "y".repeat(150);
+
+		int step = 0;
+		while (conversation.getSummarisedSteps() == 0) {
+			conversation.recordStep("step " + step++, result);
+		}
+		int summarised = conversation.getSummarisedSteps();
+
+		assertTrue(conversation.getHistoryTokens() <= budget / 2 + budget / 4,
+		           "compaction left " + conversation.getHistoryTokens() + " tokens");
+		conversation.recordStep("step " + step++, result);
+		assertEquals(summarised, conversation.getSummarisedSteps(), "the next step must not compact again");
+	}
+
+	@Test
+	void resultLargerThanTheBudgetIsTruncated() {
+		int budget = 300;
+		StepConversation conversation = new StepConversation("system prompt", budget, null);
+		conversation.recordStep("small", "fine");
+		conversation.recordStep("huge", "z".repeat(20_000));
+
+		List<Message> messages = conversation.messagesFor("next");
+		String latest = messages.get(messages.size() - 2).content();
+
+		assertTrue(conversation.getHistoryTokens() <= budget);
+		assertTrue(latest.startsWith("zzz") && latest.endsWith("[truncated]"));
+		assertEquals(1, conversation.getSummarisedSteps());
+	}
+}
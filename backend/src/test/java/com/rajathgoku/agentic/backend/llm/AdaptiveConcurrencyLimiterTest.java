@@ -0,0 +1,155 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives {@link AdaptiveConcurrencyLimiter} through its queue and AIMD limit without a backend
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+	private static final long LATENCY = TimeUnit.MILLISECONDS.toNanos(10);
+
+	@Test
+	void callOverTheLimitIsShedWhenTheQueueIsFull() {
+		AdaptiveConcurrencyLimiter limiter = limiter(1, 1, 1, Duration.ofHours(1));
+		CompletableFuture<Void> running = limiter.acquire();
+		CompletableFuture<Void> queued = limiter.acquire();
+		CompletableFuture<Void> shed = limiter.acquire();
+
+		assertTrue(running.isDone());
+		assertFalse(queued.isDone());
+		CompletionException failure = assertThrows(CompletionException.class, shed::join);
+		assertInstanceOf(LlmOverloadedException.class, failure.getCause());
+		assertEquals(1, limiter.getStatistics().shedCalls());
+
+		limiter.release(LATENCY, false);
+
+		assertTrue(queued.isDone() && !queued.isCompletedExceptionally());
+		assertEquals(1, limiter.getStatistics().inFlight());
+		assertEquals(0, limiter.getStatistics().queueDepth());
+	}
+
+	@Test
+	void waiterThatTimesOutDoesNotHoldASlot() throws InterruptedException {
+		AdaptiveConcurrencyLimiter limiter = limiter(1, 1, 4, Duration.ofMillis(20));
+		limiter.acquire();
+		CompletableFuture<Void> queued = limiter.acquire();
+
+		CompletionException failure = assertThrows(CompletionException.class, queued::join);
+		assertInstanceOf(LlmOverloadedException.class, failure.getCause());
+		// The timer leaves the queue right after failing the waiter
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (limiter.getStatistics().queueTimeouts() == 0 && System.nanoTime() < deadline) {
+			Thread.sleep(1);
+		}
+		assertEquals(1, limiter.getStatistics().queueTimeouts());
+		assertEquals(0, limiter.getStatistics().queueDepth());
+
+		limiter.release(LATENCY, false);
+
+		assertEquals(0, limiter.getStatistics().inFlight());
+		assertTrue(limiter.acquire().isDone());
+	}
+
+	@Test
+	void slotGrantedToAnAbandonedWaiterIsGivenBack() {
+		AdaptiveConcurrencyLimiter limiter = limiter(1, 1, 4, Duration.ofHours(1));
+		limiter.acquire();
+		CompletableFuture<Void> abandoned = limiter.acquire();
+		CompletableFuture<Void> next = limiter.acquire();
+		// Completed by the caller while still queued, as a timeout racing the dispatch would
+		abandoned.cancel(false);
+
+		limiter.release(LATENCY, false);
+
+		assertTrue(next.isDone() && !next.isCompletedExceptionally(), "the slot must pass on to the next waiter");
+		assertEquals(1, limiter.getStatistics().inFlight());
+		limiter.release(LATENCY, false);
+		assertEquals(0, limiter.getStatistics().inFlight());
+	}
+
+	@Test
+	void limitBacksOffOnFailure() {
+		AdaptiveConcurrencyLimiter limiter = limiter(8, 16, 4, Duration.ofHours(1));
+
+		limiter.acquire();
+		limiter.release(LATENCY, true);
+		assertEquals(4, limiter.getStatistics().limit());
+
+		for (int i = 0; i < 5; i++) {
+			limiter.acquire();
+			limiter.release(LATENCY, true);
+		}
+		assertEquals(1, limiter.getStatistics().limit(), "the limit must not drop below its minimum");
+	}
+
+	@Test
+	void longOperationIsJudgedAgainstItsOwnBaseline() {
+		AdaptiveConcurrencyLimiter limiter = limiter(8, 16, 4, Duration.ofHours(1));
+		limiter.acquire();
+		limiter.release("critic.gate", LATENCY, false);
+		limiter.acquire();
+		limiter.release("executor.step", 50 * LATENCY, false);
+		limiter.acquire();
+		limiter.release("executor.step", 50 * LATENCY, false);
+
+		AdaptiveConcurrencyLimiter.Statistics statistics = limiter.getStatistics();
+		assertEquals(8, statistics.limit());
+		assertEquals(Map.of("critic.gate", 10L, "executor.step", 500L), statistics.baselineLatencyMs());
+	}
+
+	@Test
+	void limitBacksOffOnSlowCalls() {
+		AdaptiveConcurrencyLimiter limiter = limiter(8, 16, 4, Duration.ofHours(1));
+		limiter.acquire();
+		limiter.release(LATENCY, false);
+		assertEquals(8, limiter.getStatistics().limit());
+		assertEquals(Map.of("default", 10L), limiter.getStatistics().baselineLatencyMs());
+
+		// More than twice the baseline
+		limiter.acquire();
+		limiter.release(5 * LATENCY, false);
+
+		assertEquals(4, limiter.getStatistics().limit());
+	}
+
+	@Test
+	void limitGrowsOnlyWhileDemandReachesIt() {
+		AdaptiveConcurrencyLimiter limiter = limiter(2, 4, 4, Duration.ofHours(1));
+		for (int i = 0; i < 20; i++) {
+			limiter.acquire();
+			limiter.release(LATENCY, false);
+		}
+		assertEquals(2, limiter.getStatistics().limit(), "one call at a time must not raise the limit");
+
+		for (int i = 0; i < 20; i++) {
+			int limit = limiter.getStatistics().limit();
+			for (int call = 0; call < limit; call++) {
+				assertTrue(limiter.acquire().isDone());
+			}
+			for (int call = 0; call < limit; call++) {
+				limiter.release(LATENCY, false);
+			}
+		}
+		assertEquals(4, limiter.getStatistics().limit(), "calls at the limit must raise it up to its maximum");
+	}
+
+	/**
+	 * A limiter with a floor of one that halves on calls slower than twice the baseline
+	 */
+	private static AdaptiveConcurrencyLimiter limiter(int initialLimit, int maxLimit, int maxQueue, Duration maxWait) {
+		return new AdaptiveConcurrencyLimiter(initialLimit, 1, maxLimit, maxQueue, maxWait, 2.0, 0.5);
+	}
+}
@@ -0,0 +1,225 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Spreads calls of {@link BalancingLlmClient} over stub endpoints: run affinity, least outstanding, ejection and hedges
+ */
+class BalancingLlmClientTest {
+
+	private static final Duration EJECTION = Duration.ofMillis(150);
+
+	@Test
+	void runStaysOnItsHostAndOnlyRunsOfAHostThatDropsOutMove() {
+		Map<String, StubLlmClient> hosts = hosts("a", "b", "c");
+		BalancingLlmClient client = balancer(hosts);
+		Map<UUID, String> pinned = new HashMap<>();
+		for (int i = 0; i < 30; i++) {
+			UUID runId = UUID.randomUUID();
+			pinned.put(runId, callInRun(client, runId));
+			assertEquals(pinned.get(runId), callInRun(client, runId));
+		}
+		assertEquals(3, new HashSet<>(pinned.values()).size(), "runs should spread over every host");
+
+		hosts.remove("b");
+		BalancingLlmClient withoutB = balancer(hosts);
+		for (Map.Entry<UUID, String> run : pinned.entrySet()) {
+			String host = callInRun(withoutB, run.getKey());
+			if (!run.getValue().equals("b")) {
+				assertEquals(run.getValue(), host, "a run whose host is still there must not move");
+			}
+		}
+	}
+
+	@Test
+	void callOutsideARunGoesToTheHostWithTheFewestOutstandingCalls() {
+		Map<String, StubLlmClient> hosts = hosts("a", "b");
+		hosts.values().forEach(host -> host.holdAsync = true);
+		BalancingLlmClient client = balancer(hosts);
+
+		client.generateAsync(LlmRequest.ofPrompt("p"));
+		client.generateAsync(LlmRequest.ofPrompt("p"));
+		assertEquals(1, hosts.get("a").pending.size());
+		assertEquals(1, hosts.get("b").pending.size());
+
+		hosts.get("a").pending.get(0).complete("done");
+		client.generateAsync(LlmRequest.ofPrompt("p"));
+		assertEquals(2, hosts.get("a").pending.size());
+
+		// A call the caller abandons no longer counts against its host
+		hosts.get("a").pending.get(1).complete("done");
+		CompletableFuture<String> abandoned = client.generateAsync(LlmRequest.ofPrompt("p"));
+		assertEquals(3, hosts.get("a").pending.size());
+		abandoned.cancel(true);
+		assertTrue(hosts.get("a").pending.get(2).isCancelled());
+		assertEquals(0, outstanding(client, "a"));
+		assertEquals(1, outstanding(client, "b"));
+	}
+
+	@Test
+	void failingHostIsEjectedForLongerEachTimeAndItsRunsMoveMeanwhile() throws InterruptedException {
+		Map<String, StubLlmClient> hosts = hosts("a", "b");
+		BalancingLlmClient client = balancer(hosts);
+		UUID runId = runPinnedTo(client, "a");
+		hosts.get("a").failing = true;
+
+		assertThrows(IllegalStateException.class, () -> callInRun(client, runId));
+		assertThrows(IllegalStateException.class, () -> callInRun(client, runId));
+
+		assertTrue(statistics(client, "a").ejected());
+		assertEquals("b", callInRun(client, runId));
+
+		Thread.sleep(EJECTION.toMillis() + 50);
+		assertFalse(statistics(client, "a").ejected());
+		// On probation, a single failure ejects it again, for twice as long
+		assertThrows(IllegalStateException.class, () -> callInRun(client, runId));
+		assertEquals(2, statistics(client, "a").ejections());
+		Thread.sleep(EJECTION.toMillis() + 50);
+		assertTrue(statistics(client, "a").ejected());
+		assertEquals("b", callInRun(client, runId));
+
+		hosts.get("a").failing = false;
+		Thread.sleep(EJECTION.toMillis() + 50);
+		assertEquals("a", callInRun(client, runId));
+		assertEquals(0, statistics(client, "a").ejections());
+	}
+
+	@Test
+	void everyHostEjectedSpreadsCallsOverAllOfThemAnyway() {
+		Map<String, StubLlmClient> hosts = hosts("a");
+		hosts.get("a").failing = true;
+		BalancingLlmClient client = balancer(hosts);
+		assertThrows(IllegalStateException.class, () -> client.generate(LlmRequest.ofPrompt("p")));
+		assertThrows(IllegalStateException.class, () -> client.generate(LlmRequest.ofPrompt("p")));
+		hosts.get("a").failing = false;
+
+		assertEquals("a", client.generate(LlmRequest.ofPrompt("p")));
+		assertEquals(1, client.getStatistics().panicSelections());
+	}
+
+	@Test
+	void hedgedCallAvoidsTheRunsHost() {
+		Map<String, StubLlmClient> hosts = hosts("a", "b", "c");
+		BalancingLlmClient client = balancer(hosts);
+		UUID runId = runPinnedTo(client, "b");
+		LlmCallContext hedge = LlmCallContext.hedgeOf(new LlmCallContext(runId, null, false));
+
+		for (int i = 0; i < 10; i++) {
+			try (LlmCallContext.Scope scope = LlmCallContext.open(hedge)) {
+				assertNotEquals("b", client.generate(LlmRequest.ofPrompt("p")));
+			}
+		}
+		assertEquals("b", callInRun(client, runId));
+	}
+
+	private static BalancingLlmClient balancer(Map<String, StubLlmClient> hosts) {
+		return new BalancingLlmClient(new LinkedHashMap<>(hosts), true, 2, EJECTION, Duration.ofSeconds(10));
+	}
+
+	private static Map<String, StubLlmClient> hosts(String... names) {
+		Map<String, StubLlmClient> hosts = new LinkedHashMap<>();
+		for (String name : names) {
+			hosts.put(name, new StubLlmClient(name));
+		}
+		return hosts;
+	}
+
+	private static String callInRun(BalancingLlmClient client, UUID runId) {
+		try (LlmCallContext.Scope scope = LlmCallContext.forRun(runId)) {
+			return client.generate(LlmRequest.ofPrompt("p"));
+		}
+	}
+
+	/**
+	 * A run that rendezvous hashing places on the given host
+	 */
+	private static UUID runPinnedTo(BalancingLlmClient client, String host) {
+		while (true) {
+			UUID runId = UUID.randomUUID();
+			if (callInRun(client, runId).equals(host)) {
+				return runId;
+			}
+		}
+	}
+
+	private static BalancingLlmClient.EndpointStatistics statistics(BalancingLlmClient client, String host) {
+		return client.getStatistics().endpoints().stream()
+			.filter(endpoint -> endpoint.endpoint().equals(host))
+			.findFirst()
+			.orElseThrow();
+	}
+
+	private static int outstanding(BalancingLlmClient client, String host) {
+		return statistics(client, host).outstanding();
+	}
+
+	/**
+	 * Host that answers with its own name, fails while {@code failing}, and leaves async calls
+	 * pending while {@code holdAsync}
+	 */
+	private static final class StubLlmClient implements LlmClient {
+
+		private final String name;
+		private final List<CompletableFuture<String>> pending = new CopyOnWriteArrayList<>();
+		private volatile boolean failing;
+		private volatile boolean holdAsync;
+
+		StubLlmClient(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public String generate(LlmRequest request) {
+			if (failing) {
+				throw new IllegalStateException(name + " is down");
+			}
+			return name;
+		}
+
+		@Override
+		public CompletableFuture<String> generateAsync(LlmRequest request) {
+			if (!holdAsync) {
+				return CompletableFuture.completedFuture(generate(request));
+			}
+			CompletableFuture<String> call = new CompletableFuture<>();
+			pending.add(call);
+			return call;
+		}
+
+		@Override
+		public String generateResponse(String prompt) {
+			return generate(LlmRequest.ofPrompt(prompt));
+		}
+
+		@Override
+		public String generateResponse(List<Message> messages) {
+			return generate(LlmRequest.ofMessages(messages));
+		}
+
+		@Override
+		public boolean isHealthy() {
+			return true;
+		}
+
+		@Override
+		public String getModelName() {
+			return name;
+		}
+	}
+}
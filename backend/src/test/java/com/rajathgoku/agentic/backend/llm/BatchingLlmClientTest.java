@@ -0,0 +1,164 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sends batches through {@link BatchingLlmClient} to a stub backend whose calls the test completes by hand
+ */
+class BatchingLlmClientTest {
+
+	@Test
+	void completedRequestMakesRoomForTheNextOne() {
+		StubLlmClient backend = new StubLlmClient();
+		BatchingLlmClient client = new BatchingLlmClient(backend, 2);
+
+		CompletableFuture<List<LlmBatchResult>> batch = client.generateBatchAsync(requests(5));
+
+		assertEquals(List.of("0", "1"), backend.prompts());
+		backend.calls.get(1).response.complete("r1");
+		assertEquals(List.of("0", "1", "2"), backend.prompts());
+		backend.calls.get(0).response.complete("r0");
+		backend.calls.get(2).response.complete("r2");
+		assertEquals(List.of("0", "1", "2", "3", "4"), backend.prompts());
+		assertFalse(batch.isDone());
+
+		backend.calls.get(3).response.complete("r3");
+		backend.calls.get(4).response.complete("r4");
+
+		assertEquals(5, batch.join().size());
+		assertEquals(new BatchingLlmClient.Statistics(2, 1, 5, 0, 5), client.getStatistics());
+	}
+
+	@Test
+	void resultsFollowRequestOrderWhateverOrderTheyComplete() {
+		StubLlmClient backend = new StubLlmClient();
+		BatchingLlmClient client = new BatchingLlmClient(backend, 4);
+
+		CompletableFuture<List<LlmBatchResult>> batch = client.generateBatchAsync(requests(4));
+		for (int i = 3; i >= 0; i--) {
+			backend.calls.get(i).response.complete("r" + i);
+		}
+
+		List<String> responses = new ArrayList<>();
+		for (LlmBatchResult result : batch.join()) {
+			responses.add(result.response());
+		}
+		assertEquals(List.of("r0", "r1", "r2", "r3"), responses);
+	}
+
+	@Test
+	void failedRequestFailsOnlyItsOwnResult() {
+		StubLlmClient backend = new StubLlmClient();
+		BatchingLlmClient client = new BatchingLlmClient(backend, 3);
+
+		CompletableFuture<List<LlmBatchResult>> batch = client.generateBatchAsync(requests(3));
+		backend.calls.get(0).response.complete("r0");
+		backend.calls.get(1).response.completeExceptionally(new IllegalStateException("model not found"));
+		backend.calls.get(2).response.complete("r2");
+
+		List<LlmBatchResult> results = batch.join();
+		assertTrue(results.get(0).isSuccess());
+		assertInstanceOf(IllegalStateException.class, results.get(1).error());
+		assertNull(results.get(1).response());
+		assertEquals("r2", results.get(2).response());
+		assertEquals(1, client.getStatistics().failedRequests());
+	}
+
+	@Test
+	void cancellingTheBatchCancelsOutstandingRequestsAndStartsNoMore() {
+		StubLlmClient backend = new StubLlmClient();
+		BatchingLlmClient client = new BatchingLlmClient(backend, 2);
+
+		CompletableFuture<List<LlmBatchResult>> batch = client.generateBatchAsync(requests(4));
+		backend.calls.get(0).response.complete("r0");
+		batch.cancel(true);
+
+		assertTrue(backend.calls.get(1).response.isCancelled());
+		assertTrue(backend.calls.get(2).response.isCancelled());
+		assertEquals(3, backend.calls.size());
+	}
+
+	@Test
+	void requestsStartedOnCompletionThreadsCarryTheCallersContext() {
+		StubLlmClient backend = new StubLlmClient();
+		BatchingLlmClient client = new BatchingLlmClient(backend, 1);
+		UUID runId = UUID.randomUUID();
+
+		CompletableFuture<List<LlmBatchResult>> batch;
+		try (LlmCallContext.Scope scope = LlmCallContext.forRun(runId)) {
+			batch = client.generateBatchAsync(requests(2));
+		}
+		// Completed outside the run, so the second request is started without a context of its own
+		backend.calls.get(0).response.complete("r0");
+		backend.calls.get(1).response.complete("r1");
+
+		assertEquals(2, batch.join().size());
+		assertEquals(runId, backend.calls.get(0).context.runId());
+		assertEquals(runId, backend.calls.get(1).context.runId());
+		assertNull(LlmCallContext.current());
+	}
+
+	private static List<LlmRequest> requests(int count) {
+		List<LlmRequest> requests = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			requests.add(LlmRequest.ofPrompt(String.valueOf(i)));
+		}
+		return requests;
+	}
+
+	/**
+	 * One call made to the backend, with the context it was made in
+	 */
+	private record Call(LlmRequest request, LlmCallContext context, CompletableFuture<String> response) {}
+
+	/**
+	 * Backend that records each async call and leaves it for the test to complete
+	 */
+	private static final class StubLlmClient implements LlmClient {
+
+		private final List<Call> calls = new CopyOnWriteArrayList<>();
+
+		@Override
+		public CompletableFuture<String> generateAsync(LlmRequest request) {
+			Call call = new Call(request, LlmCallContext.current(), new CompletableFuture<>());
+			calls.add(call);
+			return call.response;
+		}
+
+		private List<String> prompts() {
+			return calls.stream().map(call -> call.request.prompt()).toList();
+		}
+
+		@Override
+		public String generateResponse(String prompt) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public String generateResponse(List<Message> messages) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public boolean isHealthy() {
+			return true;
+		}
+
+		@Override
+		public String getModelName() {
+			return "stub";
+		}
+	}
+}
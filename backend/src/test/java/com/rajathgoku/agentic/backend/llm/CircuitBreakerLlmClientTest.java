@@ -0,0 +1,142 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Drives {@link CircuitBreakerLlmClient} through its closed, open and half-open states against a stub backend
+ */
+class CircuitBreakerLlmClientTest {
+
+	@Test
+	void circuitOpensOnceTheFailureRateReachesTheThresholdAndFailsFast() {
+		StubLlmClient backend = new StubLlmClient();
+		CircuitBreakerLlmClient client = new CircuitBreakerLlmClient(backend, 0.5, 4, 4, Duration.ofHours(1));
+
+		client.generate(LlmRequest.ofPrompt("p"));
+		client.generate(LlmRequest.ofPrompt("p"));
+		backend.failure = new IllegalStateException("connection refused");
+		assertThrows(IllegalStateException.class, () -> client.generate(LlmRequest.ofPrompt("p")));
+		assertEquals(CircuitBreakerLlmClient.State.CLOSED, client.getStatistics().state());
+		assertThrows(IllegalStateException.class, () -> client.generate(LlmRequest.ofPrompt("p")));
+
+		assertEquals(CircuitBreakerLlmClient.State.OPEN, client.getStatistics().state());
+		assertThrows(LlmCircuitOpenException.class, () -> client.generate(LlmRequest.ofPrompt("p")));
+		assertThrows(LlmCircuitOpenException.class, () -> client.stream(LlmRequest.ofPrompt("p"), chunk -> {}));
+		assertEquals(4, backend.calls.get());
+		assertEquals(2, client.getStatistics().rejectedCalls());
+	}
+
+	@Test
+	void trialCallAfterTheOpenDurationClosesTheCircuitOnSuccess() {
+		StubLlmClient backend = new StubLlmClient();
+		CircuitBreakerLlmClient client = openCircuit(backend);
+		backend.failure = null;
+		backend.pending = new CompletableFuture<>();
+
+		CompletableFuture<String> trial = client.generateAsync(LlmRequest.ofPrompt("p"));
+
+		assertEquals(CircuitBreakerLlmClient.State.HALF_OPEN, client.getStatistics().state());
+		// Only the one trial call is let through while it is in flight
+		assertThrows(LlmCircuitOpenException.class, () -> client.generate(LlmRequest.ofPrompt("p")));
+
+		backend.pending.complete("up again");
+
+		assertEquals("up again", trial.join());
+		assertEquals(CircuitBreakerLlmClient.State.CLOSED, client.getStatistics().state());
+		assertEquals("ok", client.generate(LlmRequest.ofPrompt("p")));
+	}
+
+	@Test
+	void failedTrialCallOpensTheCircuitAgain() {
+		StubLlmClient backend = new StubLlmClient();
+		CircuitBreakerLlmClient client = openCircuit(backend);
+
+		assertThrows(IllegalStateException.class, () -> client.generate(LlmRequest.ofPrompt("p")));
+
+		assertEquals(CircuitBreakerLlmClient.State.OPEN, client.getStatistics().state());
+		assertEquals(2, client.getStatistics().timesOpened());
+	}
+
+	@Test
+	void cancelledTrialCallLetsTheNextCallTryInstead() {
+		StubLlmClient backend = new StubLlmClient();
+		CircuitBreakerLlmClient client = openCircuit(backend);
+		backend.failure = null;
+		backend.pending = new CompletableFuture<>();
+
+		client.generateAsync(LlmRequest.ofPrompt("p")).cancel(true);
+
+		assertEquals(CircuitBreakerLlmClient.State.HALF_OPEN, client.getStatistics().state());
+		backend.pending = null;
+		assertEquals("ok", client.generate(LlmRequest.ofPrompt("p")));
+		assertEquals(CircuitBreakerLlmClient.State.CLOSED, client.getStatistics().state());
+	}
+
+	/**
+	 * A circuit that has just opened and lets its next call through as the trial
+	 */
+	private static CircuitBreakerLlmClient openCircuit(StubLlmClient backend) {
+		CircuitBreakerLlmClient client = new CircuitBreakerLlmClient(backend, 0.5, 2, 2, Duration.ZERO);
+		backend.failure = new IllegalStateException("connection refused");
+		assertThrows(IllegalStateException.class, () -> client.generate(LlmRequest.ofPrompt("p")));
+		assertThrows(IllegalStateException.class, () -> client.generate(LlmRequest.ofPrompt("p")));
+		assertEquals(1, client.getStatistics().timesOpened());
+		return client;
+	}
+
+	/**
+	 * Backend that answers "ok", throws {@code failure} when set, or hands out {@code pending} to async calls
+	 */
+	private static final class StubLlmClient implements LlmClient {
+
+		private final AtomicInteger calls = new AtomicInteger();
+		private volatile RuntimeException failure;
+		private volatile CompletableFuture<String> pending;
+
+		@Override
+		public String generate(LlmRequest request) {
+			calls.incrementAndGet();
+			if (failure != null) {
+				throw failure;
+			}
+			return "ok";
+		}
+
+		@Override
+		public CompletableFuture<String> generateAsync(LlmRequest request) {
+			if (pending != null) {
+				calls.incrementAndGet();
+				return pending;
+			}
+			return LlmClient.super.generateAsync(request);
+		}
+
+		@Override
+		public String generateResponse(String prompt) {
+			return generate(LlmRequest.ofPrompt(prompt));
+		}
+
+		@Override
+		public String generateResponse(List<Message> messages) {
+			return generate(LlmRequest.ofMessages(messages));
+		}
+
+		@Override
+		public boolean isHealthy() {
+			return true;
+		}
+
+		@Override
+		public String getModelName() {
+			return "stub";
+		}
+	}
+}
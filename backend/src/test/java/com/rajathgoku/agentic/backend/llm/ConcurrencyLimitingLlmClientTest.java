@@ -0,0 +1,105 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that {@link ConcurrencyLimitingLlmClient} hands its slot back however the call ends
+ */
+class ConcurrencyLimitingLlmClientTest {
+
+	@Test
+	void errorThrownByTheCallReturnsItsSlot() {
+		AdaptiveConcurrencyLimiter limiter = limiter();
+		LlmClient client = new ConcurrencyLimitingLlmClient(new ThrowingLlmClient(new AssertionError("boom")), limiter);
+
+		assertThrows(AssertionError.class, () -> client.generate(LlmRequest.ofPrompt("p")));
+		assertThrows(AssertionError.class, () -> client.stream(LlmRequest.ofPrompt("p"), chunk -> {}));
+
+		assertEquals(0, limiter.getStatistics().inFlight());
+		assertEquals(1, limiter.getStatistics().limit());
+	}
+
+	@Test
+	void abandonedStreamReturnsItsSlotWithoutBackingOff() {
+		AdaptiveConcurrencyLimiter limiter = limiter();
+		RuntimeException abandoned = new RuntimeException("stream closed", new CancellationException("lost the race"));
+		LlmClient client = new ConcurrencyLimitingLlmClient(new ThrowingLlmClient(abandoned), limiter);
+
+		assertThrows(RuntimeException.class, () -> client.stream(LlmRequest.ofPrompt("p"), chunk -> {}));
+
+		assertEquals(0, limiter.getStatistics().inFlight());
+		assertEquals(2, limiter.getStatistics().limit());
+	}
+
+	@Test
+	void failedCallBacksOff() {
+		AdaptiveConcurrencyLimiter limiter = limiter();
+		LlmClient client = new ConcurrencyLimitingLlmClient(new ThrowingLlmClient(new IllegalStateException("500")), limiter);
+
+		assertThrows(IllegalStateException.class, () -> client.generate(LlmRequest.ofPrompt("p")));
+
+		assertEquals(0, limiter.getStatistics().inFlight());
+		assertEquals(1, limiter.getStatistics().limit());
+	}
+
+	private static AdaptiveConcurrencyLimiter limiter() {
+		return new AdaptiveConcurrencyLimiter(2, 1, 4, 4, Duration.ofSeconds(1), 2.0, 0.5);
+	}
+
+	/**
+	 * Backend whose every call throws the same failure
+	 */
+	private static final class ThrowingLlmClient implements LlmClient {
+
+		private final Throwable failure;
+
+		ThrowingLlmClient(Throwable failure) {
+			this.failure = failure;
+		}
+
+		@Override
+		public String generate(LlmRequest request) {
+			return fail();
+		}
+
+		@Override
+		public void stream(LlmRequest request, Consumer<String> onChunk) {
+			fail();
+		}
+
+		@Override
+		public String generateResponse(String prompt) {
+			return fail();
+		}
+
+		@Override
+		public String generateResponse(List<Message> messages) {
+			return fail();
+		}
+
+		@Override
+		public boolean isHealthy() {
+			return true;
+		}
+
+		@Override
+		public String getModelName() {
+			return "stub";
+		}
+
+		private String fail() {
+			if (failure instanceof Error error) {
+				throw error;
+			}
+			throw (RuntimeException) failure;
+		}
+	}
+}
@@ -0,0 +1,164 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exercises the segment files of {@link DiskLlmResponseCache}: recovery, damaged records and compaction
+ */
+class DiskLlmResponseCacheTest {
+
+	/** createdAt, keyLength and valueLength ahead of the key, a CRC after the value */
+	private static final int HEADER_BYTES = 16;
+	private static final int CRC_BYTES = 4;
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void reopenedCacheServesTheEntriesWrittenBeforeClose() throws IOException {
+		try (DiskLlmResponseCache cache = open(1_000)) {
+			cache.put("a", "first");
+			cache.put("b", "second");
+			cache.put("a", "replaced");
+		}
+
+		try (DiskLlmResponseCache cache = open(1_000)) {
+			assertEquals(Optional.of("replaced"), cache.get("a"));
+			assertEquals(Optional.of("second"), cache.get("b"));
+			assertEquals(2, cache.getStatistics().entries());
+		}
+	}
+
+	@Test
+	void truncatedLastRecordIsDroppedOnReopen() throws IOException {
+		try (DiskLlmResponseCache cache = open(1_000)) {
+			cache.put("a", "kept");
+			cache.put("b", "torn by a crash");
+		}
+		Path segment = onlySegment();
+		try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+			channel.truncate(channel.size() - 3);
+		}
+
+		try (DiskLlmResponseCache cache = open(1_000)) {
+			assertEquals(Optional.of("kept"), cache.get("a"));
+			assertEquals(Optional.empty(), cache.get("b"));
+			assertEquals(recordBytes("a", "kept"), Files.size(segment));
+			cache.put("c", "written after recovery");
+		}
+
+		try (DiskLlmResponseCache cache = open(1_000)) {
+			assertEquals(Optional.of("kept"), cache.get("a"));
+			assertEquals(Optional.of("written after recovery"), cache.get("c"));
+		}
+	}
+
+	@Test
+	void recordWithACorruptedChecksumIsDroppedOnReopen() throws IOException {
+		try (DiskLlmResponseCache cache = open(1_000)) {
+			cache.put("a", "intact");
+			cache.put("b", "corrupted");
+		}
+		Path segment = onlySegment();
+		long valueOffset = recordBytes("a", "intact") + HEADER_BYTES + 1;
+		try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.wrap(new byte[] {'X'}), valueOffset);
+		}
+
+		try (DiskLlmResponseCache cache = open(1_000)) {
+			assertEquals(Optional.of("intact"), cache.get("a"));
+			assertEquals(Optional.empty(), cache.get("b"));
+			assertEquals(1, cache.getStatistics().entries());
+		}
+	}
+
+	@Test
+	void compactionCopiesLiveRecordsWithTheirOriginalTimestamps() throws Exception {
+		String value = "v".repeat(20);
+		// Five records fill the first segment, four of them for the same key
+		long segmentBytes = 5 * recordBytes("a", value);
+		long writtenFrom = System.currentTimeMillis();
+		try (DiskLlmResponseCache cache = open(segmentBytes)) {
+			cache.put("a", value);
+			long writtenUntil = System.currentTimeMillis();
+			for (int i = 0; i < 4; i++) {
+				cache.put("b", value.replace('v', (char) ('w' + i)));
+			}
+			Thread.sleep(20);
+			// Rolls to a new segment, the first is mostly dead and gets compacted into it
+			cache.put("c", value);
+
+			assertEquals(1, cache.getStatistics().compactedSegments());
+			List<Path> segments = segments();
+			assertEquals(1, segments.size());
+			ByteBuffer header = ByteBuffer.wrap(Files.readAllBytes(segments.get(0)));
+			long createdAt = header.getLong(0);
+			assertTrue(createdAt >= writtenFrom && createdAt <= writtenUntil,
+			           "compacted record must keep the time it was first written");
+
+			assertEquals(Optional.of(value), cache.get("a"));
+			assertEquals(Optional.of("z".repeat(20)), cache.get("b"));
+			assertEquals(Optional.of(value), cache.get("c"));
+		}
+	}
+
+	@Test
+	void segmentsStayWithinTheirSizeThroughRepeatedCompactions() throws IOException {
+		long segmentBytes = 1_000;
+		Random random = new Random(3);
+		Map<String, String> expected = new HashMap<>();
+		try (DiskLlmResponseCache cache = open(segmentBytes)) {
+			for (int i = 0; i < 1_500; i++) {
+				String key = "k" + random.nextInt(10);
+				String value = "v".repeat(random.nextBoolean() ? 1 + random.nextInt(20) : 300 + random.nextInt(170));
+				cache.put(key, value);
+				expected.put(key, value);
+				for (Path segment : segments()) {
+					assertTrue(Files.size(segment) <= segmentBytes, "segment " + segment + " outgrew the segment size");
+				}
+			}
+			assertTrue(cache.getStatistics().compactedSegments() > 0);
+			for (Map.Entry<String, String> entry : expected.entrySet()) {
+				assertEquals(Optional.of(entry.getValue()), cache.get(entry.getKey()));
+			}
+		}
+	}
+
+	private DiskLlmResponseCache open(long segmentBytes) throws IOException {
+		return new DiskLlmResponseCache(directory, 1_000_000, segmentBytes, Duration.ofHours(1));
+	}
+
+	private List<Path> segments() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.sorted().toList();
+		}
+	}
+
+	private Path onlySegment() throws IOException {
+		List<Path> segments = segments();
+		assertEquals(1, segments.size());
+		return segments.get(0);
+	}
+
+	private static long recordBytes(String key, String value) {
+		return HEADER_BYTES + key.length() + value.length() + CRC_BYTES;
+	}
+}
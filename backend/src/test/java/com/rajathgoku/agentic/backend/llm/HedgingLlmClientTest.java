@@ -0,0 +1,193 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Races hedged calls and streams of {@link HedgingLlmClient} against a stub backend the test answers by hand
+ */
+class HedgingLlmClientTest {
+
+	private static final long MIN_DELAY_MS = 200;
+
+	@Test
+	void noHedgeIsSentUntilTheOperationHasEnoughSamples() throws InterruptedException {
+		StubLlmClient backend = new StubLlmClient();
+		HedgingLlmClient client = new HedgingLlmClient(backend, 0.95, MIN_DELAY_MS, 2, 1.0);
+
+		client.generate(request());
+		assertEquals(Map.of("critic.gate", -1L), client.getStatistics().hedgeDelaysMs());
+		CompletableFuture<String> unhedged = client.generateAsync(request());
+		Attempt only = backend.attempts.poll(1, TimeUnit.SECONDS);
+		assertNull(backend.attempts.poll(2 * MIN_DELAY_MS, TimeUnit.MILLISECONDS));
+		only.response.complete("slow but alone");
+		assertEquals("slow but alone", unhedged.join());
+
+		assertEquals(0, client.getStatistics().hedges());
+		assertTrue(client.getStatistics().hedgeDelaysMs().get("critic.gate") >= MIN_DELAY_MS);
+	}
+
+	@Test
+	void hedgeSentAfterTheDelayWinsAndTheSlowAttemptIsCancelled() throws InterruptedException {
+		StubLlmClient backend = new StubLlmClient();
+		HedgingLlmClient client = warmedUp(backend);
+
+		CompletableFuture<String> call = client.generateAsync(request());
+		Attempt primary = backend.attempts.poll(1, TimeUnit.SECONDS);
+		assertFalse(primary.hedge);
+		// Not before the hedge delay
+		assertNull(backend.attempts.poll(MIN_DELAY_MS / 2, TimeUnit.MILLISECONDS));
+		Attempt hedge = backend.attempts.poll(2, TimeUnit.SECONDS);
+		assertNotNull(hedge, "a call slower than the hedge delay must be hedged");
+		assertTrue(hedge.hedge, "the duplicate must carry a hedge context");
+
+		hedge.response.complete("from the hedge");
+
+		assertEquals("from the hedge", call.join());
+		assertTrue(primary.response.isCancelled());
+		assertEquals(1, client.getStatistics().hedges());
+		assertEquals(1, client.getStatistics().hedgeWins());
+	}
+
+	@Test
+	void primaryAnsweringBeforeTheDelaySendsNoHedge() throws InterruptedException {
+		StubLlmClient backend = new StubLlmClient();
+		HedgingLlmClient client = warmedUp(backend);
+
+		CompletableFuture<String> call = client.generateAsync(request());
+		backend.attempts.poll(1, TimeUnit.SECONDS).response.complete("on time");
+
+		assertEquals("on time", call.join());
+		assertNull(backend.attempts.poll(2 * MIN_DELAY_MS, TimeUnit.MILLISECONDS));
+		assertEquals(0, client.getStatistics().hedges());
+	}
+
+	@Test
+	void failedPrimaryLeavesTheCallToTheHedge() throws InterruptedException {
+		StubLlmClient backend = new StubLlmClient();
+		HedgingLlmClient client = warmedUp(backend);
+
+		CompletableFuture<String> call = client.generateAsync(request());
+		Attempt primary = backend.attempts.poll(1, TimeUnit.SECONDS);
+		Attempt hedge = backend.attempts.poll(2, TimeUnit.SECONDS);
+		primary.response.completeExceptionally(new IllegalStateException("host went away"));
+		assertFalse(call.isDone());
+
+		hedge.response.complete("from the hedge");
+
+		assertEquals("from the hedge", call.join());
+	}
+
+	@Test
+	void streamCommitsToTheAttemptWithTheFirstTokenAndAbandonsTheOther() throws InterruptedException {
+		StubLlmClient backend = new StubLlmClient();
+		HedgingLlmClient client = new HedgingLlmClient(backend, 0.95, MIN_DELAY_MS, 1, 1.0);
+		backend.primaryStreamGate = new CountDownLatch(0);
+		StringBuilder warmUp = new StringBuilder();
+		client.stream(request(), warmUp::append);
+		assertEquals("primary", warmUp.toString());
+		assertEquals(Map.of("critic.gate", MIN_DELAY_MS), client.getStatistics().streamHedgeDelaysMs());
+
+		// The primary stalls before its first token, the hedge streams straight away
+		backend.primaryStreamGate = new CountDownLatch(1);
+		StringBuilder output = new StringBuilder();
+		client.stream(request(), output::append);
+
+		assertEquals("hedge", output.toString());
+		backend.primaryStreamGate.countDown();
+		assertTrue(backend.abandonedPrimary.await(2, TimeUnit.SECONDS), "the losing stream must be stopped at its next chunk");
+		assertEquals("hedge", output.toString());
+		assertEquals(1, client.getStatistics().hedgeWins());
+	}
+
+	private static HedgingLlmClient warmedUp(StubLlmClient backend) {
+		HedgingLlmClient client = new HedgingLlmClient(backend, 0.95, MIN_DELAY_MS, 1, 1.0);
+		client.generate(request());
+		return client;
+	}
+
+	private static LlmRequest request() {
+		return LlmRequest.ofPrompt("p").forOperation("critic.gate");
+	}
+
+	/**
+	 * One async call made to the backend, answered through its future
+	 */
+	private record Attempt(boolean hedge, CompletableFuture<String> response) {}
+
+	/**
+	 * Backend that answers blocking calls at once, queues async calls for the test to answer, and
+	 * streams "primary" once {@code primaryStreamGate} opens or "hedge" straight away
+	 */
+	private static final class StubLlmClient implements LlmClient {
+
+		private final BlockingQueue<Attempt> attempts = new LinkedBlockingQueue<>();
+		private final CountDownLatch abandonedPrimary = new CountDownLatch(1);
+		private volatile CountDownLatch primaryStreamGate;
+
+		@Override
+		public String generate(LlmRequest request) {
+			return "ok";
+		}
+
+		@Override
+		public CompletableFuture<String> generateAsync(LlmRequest request) {
+			LlmCallContext context = LlmCallContext.current();
+			Attempt attempt = new Attempt(context != null && context.hedge(), new CompletableFuture<>());
+			attempts.add(attempt);
+			return attempt.response;
+		}
+
+		@Override
+		public void stream(LlmRequest request, Consumer<String> onChunk) {
+			LlmCallContext context = LlmCallContext.current();
+			if (context != null && context.hedge()) {
+				onChunk.accept("hedge");
+				return;
+			}
+			try {
+				primaryStreamGate.await();
+				onChunk.accept("primary");
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (RuntimeException e) {
+				abandonedPrimary.countDown();
+				throw e;
+			}
+		}
+
+		@Override
+		public String generateResponse(String prompt) {
+			return generate(LlmRequest.ofPrompt(prompt));
+		}
+
+		@Override
+		public String generateResponse(List<Message> messages) {
+			return generate(LlmRequest.ofMessages(messages));
+		}
+
+		@Override
+		public boolean isHealthy() {
+			return true;
+		}
+
+		@Override
+		public String getModelName() {
+			return "stub";
+		}
+	}
+}
@@ -0,0 +1,115 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks {@link HnswIndex} against brute-force search on seeded random vectors
+ */
+class HnswIndexTest {
+
+	private static final int DIMENSIONS = 32;
+
+	@Test
+	void searchFindsTheTrueNearestNeighbours() {
+		Random random = new Random(11);
+		HnswIndex index = new HnswIndex(16, 100, 42);
+		float[][] vectors = new float[1_000][];
+		for (int i = 0; i < vectors.length; i++) {
+			vectors[i] = randomUnitVector(random);
+			assertEquals(i, index.add(vectors[i]));
+		}
+
+		int k = 10;
+		int found = 0;
+		int queries = 100;
+		for (int q = 0; q < queries; q++) {
+			float[] query = randomUnitVector(random);
+			Set<Integer> expected = bruteForce(vectors, query, k);
+			List<HnswIndex.Match> matches = index.search(query, k, 64);
+			assertEquals(k, matches.size());
+			for (int i = 1; i < matches.size(); i++) {
+				assertTrue(matches.get(i - 1).similarity() >= matches.get(i).similarity(), "matches must be most similar first");
+			}
+			for (HnswIndex.Match match : matches) {
+				if (expected.contains(match.id())) {
+					found++;
+				}
+			}
+		}
+		double recall = (double) found / (queries * k);
+		assertTrue(recall >= 0.95, "recall@10 was " + recall);
+	}
+
+	@Test
+	void removedNodesAreNeverReturned() {
+		Random random = new Random(5);
+		HnswIndex index = new HnswIndex(8, 50, 42);
+		float[][] vectors = new float[300][];
+		Set<Integer> removed = new HashSet<>();
+		for (int i = 0; i < vectors.length; i++) {
+			vectors[i] = randomUnitVector(random);
+			index.add(vectors[i]);
+		}
+		for (int i = 0; i < vectors.length; i += 3) {
+			index.remove(i);
+			removed.add(i);
+		}
+		index.remove(0);
+
+		assertEquals(vectors.length - removed.size(), index.size());
+		assertEquals(removed.size(), index.deletedCount());
+		for (int i = 0; i < vectors.length; i += 3) {
+			// A removed node's own vector is the best possible query for it
+			for (HnswIndex.Match match : index.search(vectors[i], 20, 40)) {
+				assertFalse(removed.contains(match.id()), "removed node " + match.id() + " was returned");
+			}
+		}
+	}
+
+	@Test
+	void vectorsOfAnotherDimensionAreRejected() {
+		HnswIndex index = new HnswIndex(4, 20, 42);
+		index.add(randomUnitVector(new Random(1)));
+
+		assertThrows(IllegalArgumentException.class, () -> index.add(new float[DIMENSIONS + 1]));
+		assertTrue(index.search(new float[DIMENSIONS - 1], 1, 10).isEmpty());
+		assertEquals(1, index.size());
+	}
+
+	@Test
+	void emptyIndexFindsNothing() {
+		assertTrue(new HnswIndex(4, 20, 42).search(randomUnitVector(new Random(2)), 3, 10).isEmpty());
+	}
+
+	private static Set<Integer> bruteForce(float[][] vectors, float[] query, int k) {
+		Integer[] ids = new Integer[vectors.length];
+		double[] similarity = new double[vectors.length];
+		for (int i = 0; i < vectors.length; i++) {
+			ids[i] = i;
+			for (int d = 0; d < DIMENSIONS; d++) {
+				similarity[i] += query[d] * vectors[i][d];
+			}
+		}
+		Arrays.sort(ids, (a, b) -> Double.compare(similarity[b], similarity[a]));
+		return new HashSet<>(Arrays.asList(ids).subList(0, k));
+	}
+
+	private static float[] randomUnitVector(Random random) {
+		float[] vector = new float[DIMENSIONS];
+		for (int i = 0; i < DIMENSIONS; i++) {
+			vector[i] = (float) random.nextGaussian();
+		}
+		return TextEmbedder.normalize(vector);
+	}
+}
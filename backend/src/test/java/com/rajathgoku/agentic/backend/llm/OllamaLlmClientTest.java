@@ -0,0 +1,93 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exercises the Ollama transport against {@link FakeOllamaServer}, no model or database needed
+ */
+class OllamaLlmClientTest {
+
+	private FakeOllamaServer server;
+	private OllamaLlmClient client;
+	private final List<LlmUsage> usages = new CopyOnWriteArrayList<>();
+
+	@BeforeEach
+	void startServer() throws Exception {
+		server = new FakeOllamaServer(0, "test-model", FakeOllamaServer.LatencyProfile.fixed(5), 1000, 20, 0.0, 2, 1L);
+		server.addRule("respond with ONLY", "SUCCESS");
+		server.start();
+		client = new OllamaLlmClient(new RestTemplate(), HttpClient.newHttpClient(), Duration.ofSeconds(10),
+		                             server.getBaseUrl(), "test-model", "5m", (context, usage) -> usages.add(usage));
+	}
+
+	@AfterEach
+	void stopServer() {
+		server.close();
+	}
+
+	@Test
+	void generateReturnsTheCannedReplyAndReportsUsage() {
+		String response = client.generate(LlmRequest.ofPrompt("Please respond with ONLY 'SUCCESS'").forOperation("test.op"));
+
+		assertEquals("SUCCESS", response);
+		assertEquals(1, usages.size());
+		assertEquals("test.op", usages.get(0).operation());
+		assertTrue(usages.get(0).promptTokens() > 0);
+		assertEquals(1, usages.get(0).completionTokens());
+	}
+
+	@Test
+	void usageIsAttributedToTheRoutedModel() {
+		client.generate(LlmRequest.ofPrompt("Please respond with ONLY 'SUCCESS'").withModel("small-model"));
+		client.stream(LlmRequest.ofPrompt("Please respond with ONLY 'SUCCESS'").withModel("small-model"), chunk -> {});
+
+		assertEquals(2, usages.size());
+		assertTrue(usages.stream().allMatch(usage -> usage.model().equals("small-model")));
+	}
+
+	@Test
+	void streamedChatMatchesTheBlockingAndAsyncReplies() {
+		LlmRequest request = LlmRequest.ofMessages(List.of(
+			new LlmClient.Message("system", "You are helpful."),
+			new LlmClient.Message("user", "Step: write a haiku")));
+
+		StringBuilder streamed = new StringBuilder();
+		List<String> chunks = new CopyOnWriteArrayList<>();
+		client.stream(request, chunk -> {
+			chunks.add(chunk);
+			streamed.append(chunk);
+		});
+
+		assertTrue(chunks.size() > 1);
+		assertEquals(client.generate(request), streamed.toString());
+		assertEquals(client.generateAsync(request).join(), streamed.toString());
+		assertEquals(3, usages.size());
+		assertTrue(usages.stream().allMatch(usage -> usage.completionTokens() >= 20));
+	}
+
+	@Test
+	void injectedErrorsFailTheCall() throws Exception {
+		server.close();
+		server = new FakeOllamaServer(0, "test-model", FakeOllamaServer.LatencyProfile.fixed(0), 1000, 5, 1.0, 1, 1L);
+		server.start();
+		OllamaLlmClient failing = new OllamaLlmClient(new RestTemplate(), HttpClient.newHttpClient(),
+		                                              Duration.ofSeconds(10), server.getBaseUrl(), "test-model", null,
+		                                              LlmUsageListener.NONE);
+
+		assertThrows(RuntimeException.class, () -> failing.generate(LlmRequest.ofPrompt("hello")));
+		assertEquals(1, server.getStatistics().injectedErrors());
+		assertTrue(failing.isHealthy());
+	}
+}
@@ -0,0 +1,116 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exercises {@link SemanticResponseCache} with the local {@link HashingTextEmbedder}
+ */
+class SemanticResponseCacheTest {
+
+	private static final String TIC_TAC_TOE = "build a tic tac toe game in HTML";
+
+	@Test
+	void similarTextHitsAndUnrelatedTextMisses() {
+		SemanticResponseCache cache = cache(new HashingTextEmbedder(256), 0.8, 10);
+		cache.store("planner", TIC_TAC_TOE, "the tic-tac-toe plan");
+
+		assertEquals("the tic-tac-toe plan", cache.lookup("planner", "create a tic-tac-toe game in html"));
+		assertNull(cache.lookup("planner", "write a sorting algorithm in rust"));
+		assertNull(cache.lookup("critic", TIC_TAC_TOE), "namespaces must not share entries");
+
+		SemanticResponseCache.Statistics statistics = cache.getStatistics();
+		assertEquals(1, statistics.hits());
+		assertEquals(2, statistics.misses());
+		assertTrue(statistics.averageHitSimilarity() >= 0.8);
+	}
+
+	@Test
+	void thresholdAboveTheSimilarityTurnsAHitIntoAMiss() {
+		SemanticResponseCache cache = cache(new HashingTextEmbedder(256), 0.99, 10);
+		cache.store("planner", TIC_TAC_TOE, "the tic-tac-toe plan");
+
+		assertNull(cache.lookup("planner", "create a tic-tac-toe game in html"));
+		assertEquals("the tic-tac-toe plan", cache.lookup("planner", TIC_TAC_TOE));
+	}
+
+	@Test
+	void leastRecentlyUsedEntryIsEvicted() {
+		SemanticResponseCache cache = cache(new HashingTextEmbedder(256), 0.95, 2);
+		cache.store("planner", "alpha task about databases", "alpha");
+		cache.store("planner", "bravo task about compilers", "bravo");
+		assertEquals("alpha", cache.lookup("planner", "alpha task about databases"));
+
+		cache.store("planner", "charlie task about networks", "charlie");
+
+		assertNull(cache.lookup("planner", "bravo task about compilers"));
+		assertEquals("alpha", cache.lookup("planner", "alpha task about databases"));
+		assertEquals("charlie", cache.lookup("planner", "charlie task about networks"));
+		assertEquals(1, cache.getStatistics().evictions());
+		assertEquals(2, cache.getStatistics().entries());
+	}
+
+	@Test
+	void indexIsRebuiltOnceDeletedNodesOutnumberLiveOnes() {
+		SemanticResponseCache cache = cache(new HashingTextEmbedder(256), 0.95, 2);
+		String[] topics = {"databases", "compilers", "networks", "graphics", "kernels"};
+		for (String topic : topics) {
+			cache.store("planner", "a task about " + topic, topic);
+		}
+
+		SemanticResponseCache.Statistics statistics = cache.getStatistics();
+		assertEquals(3, statistics.evictions());
+		assertEquals(1, statistics.rebuilds());
+		assertEquals(2, statistics.entries());
+		assertEquals("graphics", cache.lookup("planner", "a task about graphics"));
+		assertEquals("kernels", cache.lookup("planner", "a task about kernels"));
+		assertNull(cache.lookup("planner", "a task about databases"));
+	}
+
+	@Test
+	void failingEmbedderMakesLookupsMissWithoutRetryingUntilTheInterval() {
+		AtomicBoolean failing = new AtomicBoolean(false);
+		AtomicInteger calls = new AtomicInteger();
+		HashingTextEmbedder hashing = new HashingTextEmbedder(256);
+		TextEmbedder embedder = new TextEmbedder() {
+			@Override
+			public float[] embed(String text) {
+				calls.incrementAndGet();
+				if (failing.get()) {
+					throw new IllegalStateException("embedding model unavailable");
+				}
+				return hashing.embed(text);
+			}
+
+			@Override
+			public String getName() {
+				return "flaky";
+			}
+		};
+		SemanticResponseCache cache = cache(embedder, 0.8, 10);
+		cache.store("planner", TIC_TAC_TOE, "the tic-tac-toe plan");
+		failing.set(true);
+
+		assertNull(cache.lookup("planner", "create a tic-tac-toe game in html"));
+		int callsAfterFailure = calls.get();
+		assertNull(cache.lookup("planner", "build a tic tac toe game in HTML please"));
+		cache.store("planner", "write a sorting algorithm in rust", "the sorting plan");
+
+		assertEquals(callsAfterFailure, calls.get(), "the embedder must not be asked again within the retry interval");
+		assertEquals(1, cache.getStatistics().embeddingFailures());
+		assertEquals(2, cache.getStatistics().misses());
+		assertEquals(1, cache.getStatistics().stores());
+	}
+
+	private static SemanticResponseCache cache(TextEmbedder embedder, double threshold, int maxEntries) {
+		return new SemanticResponseCache(embedder, threshold, maxEntries, Duration.ofHours(1),
+		                                 8, 50, 32, Duration.ofHours(1));
+	}
+}
@@ -0,0 +1,173 @@
+package com.rajathgoku.agentic.backend.llm;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Coalesces concurrent identical calls through {@link SingleFlightLlmClient} onto a stub backend that holds them
+ */
+class SingleFlightLlmClientTest {
+
+	private static final int FOLLOWERS = 3;
+
+	// Blocked callers need threads of their own, the common pool may have too few
+	private final ExecutorService callerThreads = Executors.newCachedThreadPool();
+
+	@AfterEach
+	void stopCallers() {
+		callerThreads.shutdownNow();
+	}
+
+	@Test
+	void concurrentIdenticalRequestsShareOneBackendCall() throws Exception {
+		StubLlmClient backend = new StubLlmClient();
+		SingleFlightLlmClient client = new SingleFlightLlmClient(backend);
+
+		List<CompletableFuture<String>> callers = startCallers(client, backend);
+		backend.release.countDown();
+
+		for (CompletableFuture<String> caller : callers) {
+			assertEquals("answer", caller.get(5, TimeUnit.SECONDS));
+		}
+		assertEquals(1, backend.calls.get());
+		assertEquals(new SingleFlightLlmClient.Statistics(1, FOLLOWERS, 0), client.getStatistics());
+	}
+
+	@Test
+	void leaderFailureReachesEveryFollower() throws Exception {
+		StubLlmClient backend = new StubLlmClient();
+		backend.failure = new IllegalStateException("model not found");
+		SingleFlightLlmClient client = new SingleFlightLlmClient(backend);
+
+		List<CompletableFuture<String>> callers = startCallers(client, backend);
+		backend.release.countDown();
+
+		for (CompletableFuture<String> caller : callers) {
+			CompletionException failure = assertThrows(CompletionException.class, caller::join);
+			assertSame(backend.failure, failure.getCause());
+		}
+		assertEquals(1, backend.calls.get());
+		assertEquals(0, client.getStatistics().inFlight());
+	}
+
+	@Test
+	void followerCancellingItsCallLeavesTheSharedFlightRunning() {
+		StubLlmClient backend = new StubLlmClient();
+		SingleFlightLlmClient client = new SingleFlightLlmClient(backend);
+
+		CompletableFuture<String> leader = client.generateAsync(LlmRequest.ofPrompt("p"));
+		CompletableFuture<String> leaving = client.generateAsync(LlmRequest.ofPrompt("p"));
+		CompletableFuture<String> staying = client.generateAsync(LlmRequest.ofPrompt("p"));
+		leaving.cancel(true);
+
+		assertFalse(backend.pending.isCancelled());
+		backend.pending.complete("answer");
+
+		assertEquals("answer", leader.join());
+		assertEquals("answer", staying.join());
+		assertEquals(1, backend.calls.get());
+	}
+
+	@Test
+	void uncachedRequestsAreNeverCoalesced() {
+		StubLlmClient backend = new StubLlmClient();
+		SingleFlightLlmClient client = new SingleFlightLlmClient(backend);
+
+		client.generateAsync(LlmRequest.ofPrompt("p").uncached());
+		client.generateAsync(LlmRequest.ofPrompt("p").uncached());
+
+		assertEquals(2, backend.calls.get());
+		assertEquals(0, client.getStatistics().coalescedCalls());
+	}
+
+	/**
+	 * A leader held inside the backend and {@link #FOLLOWERS} callers waiting on its flight,
+	 * each making the same blocking call on a thread of its own
+	 */
+	private List<CompletableFuture<String>> startCallers(SingleFlightLlmClient client, StubLlmClient backend)
+			throws InterruptedException {
+		List<CompletableFuture<String>> callers = new ArrayList<>();
+		callers.add(CompletableFuture.supplyAsync(() -> client.generate(LlmRequest.ofPrompt("p")), callerThreads));
+		assertTrue(backend.entered.await(5, TimeUnit.SECONDS));
+		for (int i = 0; i < FOLLOWERS; i++) {
+			callers.add(CompletableFuture.supplyAsync(() -> client.generate(LlmRequest.ofPrompt("p")), callerThreads));
+		}
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (client.getStatistics().coalescedCalls() < FOLLOWERS && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+		assertEquals(FOLLOWERS, client.getStatistics().coalescedCalls());
+		return callers;
+	}
+
+	/**
+	 * Backend whose blocking calls wait for {@code release} and then answer or throw
+	 * {@code failure}, and whose async calls all return {@code pending}
+	 */
+	private static final class StubLlmClient implements LlmClient {
+
+		private final AtomicInteger calls = new AtomicInteger();
+		private final CountDownLatch entered = new CountDownLatch(1);
+		private final CountDownLatch release = new CountDownLatch(1);
+		private final CompletableFuture<String> pending = new CompletableFuture<>();
+		private volatile RuntimeException failure;
+
+		@Override
+		public String generate(LlmRequest request) {
+			calls.incrementAndGet();
+			entered.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(e);
+			}
+			if (failure != null) {
+				throw failure;
+			}
+			return "answer";
+		}
+
+		@Override
+		public CompletableFuture<String> generateAsync(LlmRequest request) {
+			calls.incrementAndGet();
+			return pending;
+		}
+
+		@Override
+		public String generateResponse(String prompt) {
+			return generate(LlmRequest.ofPrompt(prompt));
+		}
+
+		@Override
+		public String generateResponse(List<Message> messages) {
+			return generate(LlmRequest.ofMessages(messages));
+		}
+
+		@Override
+		public boolean isHealthy() {
+			return true;
+		}
+
+		@Override
+		public String getModelName() {
+			return "stub";
+		}
+	}
+}